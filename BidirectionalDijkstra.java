@@ -0,0 +1,303 @@
+package hw7;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import hw5.Graph;
+import hw5.IndexedGraph;
+
+/**
+ * <b>BidirectionalDijkstra<N></b> finds least-cost paths between two nodes by
+ * running Dijkstra's algorithm forward from the start and backward from the
+ * destination at the same time.<br>
+ * Each step settles a node on whichever side has the cheaper frontier. Every
+ * time an edge joins a node reached by one side to a node reached by the other,
+ * the cost of the path through it is compared against the best found so far.
+ * The search stops once the cheapest frontier entries of the two sides add up
+ * to at least the best path, since no path found later could be cheaper. On
+ * long routes the two searches meet after each covering roughly half the
+ * distance, which settles far fewer nodes than a single search.
+ * <p>
+ * The backward search needs the edges entering each node, so the constructor
+ * builds a reversed copy of the graph's edge arrays. Like DijkstraEngine, the
+ * search state is reused from one search to the next, so an instance is not
+ * safe for use by more than one thread at a time.
+ *
+ * @param <N>
+ *            The object type of each node in the graph. N must extend Comparable
+ */
+public class BidirectionalDijkstra<N extends Comparable<N>> {
+
+	/** Stores the graph being searched */
+	private final IndexedGraph<N, Double> graph;
+
+	/** Stores the edges entering each node, pointing back to their parents */
+	private final Csr reverse;
+
+	/** Stores the search from the start along the edges of graph */
+	private final Side forward;
+
+	/** Stores the search from the destination along the reversed edges */
+	private final Side backward;
+
+	// Abstraction Function:
+	// A BidirectionalDijkstra searches graph. The edges entering the node with
+	// id i are the edges from reverse.targets[k] of weight reverse.weights[k]
+	// for every k in [reverse.offsets[i], reverse.offsets[i + 1]). forward
+	// holds the cheapest known paths from the start of the current search and
+	// backward the cheapest known paths to its destination.
+	//
+	// Representation Invariant:
+	// * graph, reverse, forward, backward != null
+	// * reverse.size() == graph.size() and reverse.targets.length ==
+	//   graph.edgeCount()
+
+	/**
+	 * Constructs a new search over an indexed graph, such as a FrozenGraph or a
+	 * MappedGraph. This takes time proportional to the size of the graph.
+	 *
+	 * @param graph
+	 *            The graph to be searched
+	 * @requires graph != null && graph.isWeighted() && every edge of graph is
+	 *           non-negative
+	 */
+	public BidirectionalDijkstra(IndexedGraph<N, Double> graph) {
+		this.graph = graph;
+		int n = graph.size();
+
+		reverse = Csr.reverse(graph);
+		forward = new Side(n);
+		backward = new Side(n);
+		checkRep();
+	}
+
+	/**
+	 * Constructs a new search over a snapshot of graph. Later changes to graph
+	 * are not seen by the search.
+	 *
+	 * @param graph
+	 *            The graph to be searched
+	 * @requires graph != null && every edge of graph is non-negative
+	 */
+	public BidirectionalDijkstra(Graph<N, Double> graph) {
+		this(graph.freeze());
+	}
+
+	/**
+	 * Finds the least-cost path between two nodes and returns it as a list of
+	 * edges
+	 *
+	 * @param start
+	 *            The node from which the search begins
+	 * @param dest
+	 *            The node at which the search ends
+	 * @requires start, dest != null
+	 * @modifies this
+	 * @return a list of edges representing the least-cost path between start and
+	 *         dest.<br>
+	 *         Returns an empty list if start == dest.<br>
+	 *         Returns null if no path exists between start and dest.
+	 */
+	public List<Edge<N, Double>> search(N start, N dest) {
+		forward.reset();
+		backward.reset();
+		if (start.equals(dest)) {
+			return new ArrayList<Edge<N, Double>>();
+		}
+		int source = graph.idOf(start);
+		int target = graph.idOf(dest);
+		if (source < 0 || target < 0) {
+			return null;
+		}
+
+		forward.reach(source, -1, 0.0, 0.0);
+		backward.reach(target, -1, 0.0, 0.0);
+		double best = Double.POSITIVE_INFINITY;
+		int meeting = -1;
+
+		while (!forward.frontier.isEmpty() && !backward.frontier.isEmpty()) {
+			// no path through an unsettled node can beat best once the frontiers meet it
+			if (forward.frontier.peekKey() + backward.frontier.peekKey() >= best) {
+				break;
+			}
+			boolean forwards = forward.frontier.peekKey() <= backward.frontier.peekKey();
+			Side side = forwards ? forward : backward;
+			Side other = forwards ? backward : forward;
+			int node = side.settle();
+
+			if (forwards) {
+				for (int e = graph.firstEdge(node); e < graph.endEdge(node); e++) {
+					int child = graph.target(e);
+					if (side.relax(node, child, graph.weight(e)) && other.cost[child] + side.cost[child] < best) {
+						best = other.cost[child] + side.cost[child];
+						meeting = child;
+					}
+				}
+			} else {
+				for (int k = reverse.offsets[node]; k < reverse.offsets[node + 1]; k++) {
+					int parent = reverse.targets[k];
+					if (side.relax(node, parent, reverse.weights[k]) && other.cost[parent] + side.cost[parent] < best) {
+						best = other.cost[parent] + side.cost[parent];
+						meeting = parent;
+					}
+				}
+			}
+		}
+
+		// this means that no path exists between start and dest
+		if (meeting < 0) {
+			return null;
+		}
+
+		// walks back from the meeting node to start, then on from it to dest
+		List<Edge<N, Double>> path = new ArrayList<Edge<N, Double>>();
+		for (int node = meeting; node != source; node = forward.previous[node]) {
+			path.add(new Edge<N, Double>(forward.weight[node], graph.nodeOf(forward.previous[node]),
+					graph.nodeOf(node)));
+		}
+		Collections.reverse(path);
+		for (int node = meeting; node != target; node = backward.previous[node]) {
+			path.add(new Edge<N, Double>(backward.weight[node], graph.nodeOf(node),
+					graph.nodeOf(backward.previous[node])));
+		}
+		return path;
+	}
+
+	/**
+	 * @return the number of nodes settled by the last search, counting both
+	 *         directions
+	 */
+	public int getSettledCount() {
+		return forward.settledCount + backward.settledCount;
+	}
+
+	/**
+	 * @return the number of nodes settled by the forward half of the last search
+	 */
+	public int getForwardSettledCount() {
+		return forward.settledCount;
+	}
+
+	/**
+	 * @return the number of nodes settled by the backward half of the last search
+	 */
+	public int getBackwardSettledCount() {
+		return backward.settledCount;
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert (graph != null && reverse != null && forward != null && backward != null);
+		assert (reverse.size() == graph.size()) : "every node must have a reversed row";
+		assert (reverse.targets.length == graph.edgeCount()) : "every edge must be reversed";
+	}
+
+	/**
+	 * <b>Side</b> holds the state of one direction of the search. In the
+	 * backward direction previous[i] is the node after i on its path to the
+	 * destination.
+	 */
+	private static class Side {
+		/** stores the cost of the cheapest known path between each node and the origin of this side */
+		final double[] cost;
+
+		/** stores the id of the neighbour of each node on its cheapest known path, or -1 */
+		final int[] previous;
+
+		/** stores the weight of the edge between each node and previous[i] */
+		final double[] weight;
+
+		/** stores the ids of the nodes whose cost has been set by the current search */
+		final int[] touched;
+
+		/** stores the number of ids in touched */
+		int touchedCount = 0;
+
+		/** stores the nodes whose cheapest path is known */
+		final BitSet settled;
+
+		/** stores the nodes that have been reached but not settled, keyed by their cost */
+		final IndexedHeap frontier;
+
+		/** stores the number of nodes settled by the current search */
+		int settledCount = 0;
+
+		/**
+		 * @param size
+		 *            The number of nodes in the graph
+		 */
+		Side(int size) {
+			cost = new double[size];
+			previous = new int[size];
+			weight = new double[size];
+			touched = new int[size];
+			Arrays.fill(cost, Double.POSITIVE_INFINITY);
+			Arrays.fill(previous, -1);
+			settled = new BitSet(size);
+			frontier = new IndexedHeap(size);
+		}
+
+		/**
+		 * Records that node can be reached from neighbour at the given cost
+		 *
+		 * @requires newCost < cost[node]
+		 */
+		void reach(int node, int neighbour, double edgeWeight, double newCost) {
+			if (cost[node] == Double.POSITIVE_INFINITY)
+				touched[touchedCount++] = node;
+			cost[node] = newCost;
+			previous[node] = neighbour;
+			weight[node] = edgeWeight;
+			frontier.offer(node, newCost);
+		}
+
+		/**
+		 * Records the path through the edge between node and neighbour if it is
+		 * the cheapest known path to neighbour
+		 *
+		 * @return true if the cost of neighbour was lowered, false otherwise
+		 */
+		boolean relax(int node, int neighbour, double edgeWeight) {
+			if (settled.get(neighbour))
+				return false;
+			double newCost = cost[node] + edgeWeight;
+			if (newCost >= cost[neighbour])
+				return false;
+			reach(neighbour, node, edgeWeight, newCost);
+			return true;
+		}
+
+		/**
+		 * Removes the cheapest node from the frontier and marks it settled
+		 *
+		 * @requires !frontier.isEmpty()
+		 * @return the id of the settled node
+		 */
+		int settle() {
+			int node = frontier.poll();
+			settled.set(node);
+			settledCount++;
+			return node;
+		}
+
+		/**
+		 * Clears the state left by the previous search
+		 */
+		void reset() {
+			for (int i = 0; i < touchedCount; i++) {
+				int node = touched[i];
+				cost[node] = Double.POSITIVE_INFINITY;
+				previous[node] = -1;
+				settled.clear(node);
+			}
+			touchedCount = 0;
+			settledCount = 0;
+			frontier.clear();
+		}
+	}
+}
@@ -0,0 +1,296 @@
+package hw7;
+
+import java.util.Arrays;
+
+/**
+ * <b>BucketQueue</b> represents a mutable monotone priority queue of integer
+ * ids, each with a non-negative double key, in the style of Dial's algorithm:
+ * each id is kept in the bucket numbered floor(key / width), and the buckets
+ * are scanned in order.<br>
+ * When width is no greater than the least edge weight of the graph being
+ * searched, the ids in a bucket can all be settled in any order; with any
+ * other width the queue still polls the exact least key, by scanning the
+ * current bucket for it, so the width only affects speed. Offering and
+ * lowering a key are O(1), and polling costs the size of the current bucket
+ * plus the number of empty buckets passed over.
+ * <p>
+ * Only a window of buckets is kept. Ids whose key lies beyond the window,
+ * including infinite keys, wait in an overflow bucket that is spread over a
+ * new window once the current one is used up. The queue is monotone: no key
+ * offered may be less than the last key polled. It grows as needed to hold
+ * larger ids.
+ */
+public final class BucketQueue implements IdQueue {
+
+	/** Stores the range of keys held by each bucket */
+	private final double width;
+
+	/** Stores the ids in each bucket of the window, followed by the overflow bucket */
+	private final int[][] buckets;
+
+	/** Stores the number of ids in each bucket */
+	private final int[] bucketSize;
+
+	/** Stores the bucket of each id, or -1 if the id is not in the queue */
+	private int[] bucketOf;
+
+	/** Stores the index of each id in its bucket */
+	private int[] slotOf;
+
+	/** Stores the key of each id in the queue */
+	private double[] keys;
+
+	/** Stores the number of the first bucket in the window */
+	private double base = 0.0;
+
+	/** Stores the index of the bucket being polled */
+	private int current = 0;
+
+	/** Stores the index of the last bucket of the window that any id was put in */
+	private int top = 0;
+
+	/** Stores the number of ids in the queue */
+	private int size = 0;
+
+	// Abstraction Function:
+	// A BucketQueue represents the set of ids buckets[b][0..bucketSize[b]) for
+	// every b, where the key of id i is keys[i]. For b < window, where window =
+	// buckets.length - 1, bucket b holds the ids whose key divided by width
+	// rounds down to base + b; bucket window holds the ids whose key lies
+	// beyond them.
+	//
+	// Representation Invariant:
+	// * width > 0 and buckets.length == bucketSize.length >= 2
+	// * bucketOf.length == slotOf.length == keys.length
+	// * buckets[b][slotOf[i]] == i and bucketOf[i] == b for every id i in bucket
+	//   b, and every other entry of bucketOf is -1
+	// * bucketSize[b] == 0 for every b < current and every top < b < window
+	// * size is the sum of bucketSize
+
+	/** A boolean constant used to reduce checkRep time if not in testing mode */
+	private static final boolean TESTING_MODE = false;
+
+	/**
+	 * Constructs a new empty queue with room for the ids 0 to capacity - 1
+	 *
+	 * @param capacity
+	 *            One more than the greatest id expected
+	 * @param width
+	 *            The range of keys held by each bucket, ideally the least edge
+	 *            weight of the graph being searched
+	 * @param window
+	 *            The number of buckets scanned before the overflow bucket is
+	 *            spread out, ideally enough to cover the greatest edge weight
+	 * @requires capacity >= 0 && width > 0 && window > 0
+	 */
+	public BucketQueue(int capacity, double width, int window) {
+		this.width = width;
+		buckets = new int[window + 1][];
+		bucketSize = new int[window + 1];
+		for (int b = 0; b <= window; b++) {
+			buckets[b] = new int[4];
+		}
+		bucketOf = new int[Math.max(capacity, 1)];
+		slotOf = new int[Math.max(capacity, 1)];
+		keys = new double[Math.max(capacity, 1)];
+		Arrays.fill(bucketOf, -1);
+		checkRep();
+	}
+
+	@Override
+	public boolean offer(int id, double key) {
+		if (id >= bucketOf.length)
+			grow(id + 1);
+		if (bucketOf[id] >= 0) {
+			if (key >= keys[id])
+				return false;
+			remove(id);
+		} else {
+			size++;
+		}
+		keys[id] = key;
+		insert(id);
+		checkRep();
+		return true;
+	}
+
+	@Override
+	public int poll() {
+		int b = settle();
+		int[] bucket = buckets[b];
+		int best = 0;
+		for (int k = 1; k < bucketSize[b]; k++) {
+			if (keys[bucket[k]] < keys[bucket[best]])
+				best = k;
+		}
+		int id = bucket[best];
+		remove(id);
+		size--;
+		checkRep();
+		return id;
+	}
+
+	@Override
+	public double peekKey() {
+		int b = settle();
+		double min = keys[buckets[b][0]];
+		for (int k = 1; k < bucketSize[b]; k++) {
+			min = Math.min(min, keys[buckets[b][k]]);
+		}
+		return min;
+	}
+
+	@Override
+	public boolean contains(int id) {
+		return id >= 0 && id < bucketOf.length && bucketOf[id] >= 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes every id from the queue and allows keys down to 0 to be offered
+	 * again. This takes time proportional to the number of ids in the queue and
+	 * the number of buckets still to be polled, not its capacity.
+	 *
+	 * @modifies this
+	 */
+	@Override
+	public void clear() {
+		for (int b = current; b <= top; b++) {
+			empty(b);
+		}
+		empty(buckets.length - 1);
+		size = 0;
+		base = 0.0;
+		current = 0;
+		top = 0;
+	}
+
+	/**
+	 * Takes every id out of bucket b
+	 *
+	 * @modifies this
+	 */
+	private void empty(int b) {
+		for (int k = 0; k < bucketSize[b]; k++) {
+			bucketOf[buckets[b][k]] = -1;
+		}
+		bucketSize[b] = 0;
+	}
+
+	/**
+	 * Moves current to the first non-empty bucket, spreading the overflow bucket
+	 * over a new window if the current one is empty
+	 *
+	 * @requires !isEmpty()
+	 * @modifies this
+	 * @return the index of the first non-empty bucket, which holds the least key
+	 */
+	private int settle() {
+		int window = buckets.length - 1;
+		while (current <= top && bucketSize[current] == 0) {
+			current++;
+		}
+		if (current <= top)
+			return current;
+
+		// the window is used up, so it is moved to begin at the least key that overflowed
+		int[] overflow = buckets[window];
+		int count = bucketSize[window];
+		double min = keys[overflow[0]];
+		for (int k = 1; k < count; k++) {
+			min = Math.min(min, keys[overflow[k]]);
+		}
+		base = Math.floor(min / width);
+		current = 0;
+		top = 0;
+		int[] spread = Arrays.copyOf(overflow, count);
+		bucketSize[window] = 0;
+		for (int k = 0; k < count; k++) {
+			insert(spread[k]);
+		}
+		while (bucketSize[current] == 0) {
+			current++;
+		}
+		return current;
+	}
+
+	/**
+	 * Puts id into the bucket for its key
+	 *
+	 * @requires id is in no bucket
+	 * @modifies this
+	 */
+	private void insert(int id) {
+		int window = buckets.length - 1;
+		double offset = Math.floor(keys[id] / width) - base;
+		// a key below the bucket being polled, which monotone callers never offer,
+		// is kept in that bucket rather than lost
+		int b = offset < window ? Math.max((int) offset, current) : window;
+		if (b < window)
+			top = Math.max(top, b);
+		if (bucketSize[b] == buckets[b].length)
+			buckets[b] = Arrays.copyOf(buckets[b], buckets[b].length * 2);
+		slotOf[id] = bucketSize[b];
+		buckets[b][bucketSize[b]++] = id;
+		bucketOf[id] = b;
+	}
+
+	/**
+	 * Takes id out of its bucket by moving the last id of the bucket into its place
+	 *
+	 * @requires contains(id)
+	 * @modifies this
+	 */
+	private void remove(int id) {
+		int b = bucketOf[id];
+		int moved = buckets[b][--bucketSize[b]];
+		buckets[b][slotOf[id]] = moved;
+		slotOf[moved] = slotOf[id];
+		bucketOf[id] = -1;
+	}
+
+	/**
+	 * Makes room for the ids 0 to capacity - 1
+	 *
+	 * @requires capacity > bucketOf.length
+	 * @modifies this
+	 */
+	private void grow(int capacity) {
+		int length = Math.max(capacity, bucketOf.length * 2);
+		int old = bucketOf.length;
+		bucketOf = Arrays.copyOf(bucketOf, length);
+		slotOf = Arrays.copyOf(slotOf, length);
+		keys = Arrays.copyOf(keys, length);
+		Arrays.fill(bucketOf, old, length, -1);
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert (width > 0 && buckets.length >= 2 && buckets.length == bucketSize.length) : "no buckets";
+		assert (bucketOf.length == slotOf.length && bucketOf.length == keys.length) : "id arrays must match";
+		if (TESTING_MODE) {
+			int total = 0;
+			for (int b = 0; b < buckets.length; b++) {
+				assert (b >= current || bucketSize[b] == 0) : "bucket passed over is not empty";
+				assert (b <= top || b == buckets.length - 1 || bucketSize[b] == 0) : "bucket beyond top is not empty";
+				for (int k = 0; k < bucketSize[b]; k++) {
+					int id = buckets[b][k];
+					assert (bucketOf[id] == b && slotOf[id] == k) : "bucket does not match id";
+				}
+				total += bucketSize[b];
+			}
+			assert (total == size) : "size does not match buckets";
+		}
+	}
+}
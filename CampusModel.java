@@ -1,5 +1,7 @@
 package hw8;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -9,15 +11,30 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import hw5.Graph;
-import hw7.Dijkstra;
+import hw5.IndexedGraph;
+import hw5.SearchStats;
+import hw7.ContractionHierarchy;
+import hw7.DijkstraEngine;
 import hw7.Edge;
+import hw7.PathResult;
+import hw7.PathTreeCache;
+import hw7.ShortestPathTree;
 
 /**
  * <b>CampusModel</b> represents the main bulk of the Model for
  * CampusPaths.java. It can perform a Dijkstra search to find the least-cost
  * path between two buildings on the UW-Seattle Campus. It also stores holds a
  * reference to all the valid buildings.
+ * <p>
+ * The campus graph never changes once loaded, so it is preprocessed into a
+ * ContractionHierarchy when the Model is first used, after which each search
+ * settles only a small part of the graph.
+ * Most routes begin at a handful of popular buildings, so the tree of
+ * least-cost paths from each building that is used repeatedly is kept in a
+ * PathTreeCache in front of the hierarchy, and later routes from it are read
+ * from the tree without searching.
+ * If RouteTable has been run since the datasets last changed, every route is
+ * read from its table instead.
  */
 public class CampusModel {
 
@@ -33,7 +50,22 @@ public class CampusModel {
 	private static Map<String, CampusPoint> shortToPoint = new HashMap<String, CampusPoint>();
 
 	/** A graph representing all the paths between buildings on the UW campus */
-	private static Graph<CampusPoint, Double> campus = new Graph<CampusPoint, Double>();
+	private static IndexedGraph<CampusPoint, Double> campus;
+
+	/** Finds the least-cost paths in campus */
+	private static ContractionHierarchy<CampusPoint> hierarchy;
+
+	/** Searches the whole trees of paths cached in routes */
+	private static DijkstraEngine<CampusPoint> treeEngine;
+
+	/** Caches the least-cost paths from recently repeated start buildings */
+	private static PathTreeCache<CampusPoint> routes;
+
+	/** The number of start buildings whose paths are cached at once */
+	private static final int CACHED_BUILDINGS = 16;
+
+	/** The routes between every pair of buildings, or null if they are not precomputed */
+	private static RouteTable table;
 
 	// Abstraction Function:
 	// Stores information for the CampusPaths.java class. fullBuildingNames stores
@@ -47,7 +79,11 @@ public class CampusModel {
 	// these are intermediate points necessary to find paths between the buildings.
 	//
 	// Representation Invariant:
-	// * fullBuildingNames, shortToLong, shortToPoint, campus != null;
+	// * fullBuildingNames, shortToLong, shortToPoint, campus, hierarchy, treeEngine,
+	//   routes != null;
+	// * hierarchy was built from campus
+	// * routes and, if not null, table hold only paths in campus found by
+	//   treeEngine
 	// * fullBuildingNames has no null entries
 	// * shortToLong has no null keys and values
 	// * shortToPoint has no null keys and values
@@ -63,24 +99,46 @@ public class CampusModel {
 		// First parse campus_buildings
 		CampusParser.parseBuildings("src/hw8/data/campus_buildings.dat", fullBuildingNames, shortToLong, shortToPoint);
 
-		// Next parse campus_paths
-		List<Edge<CampusPoint, Double>> paths = new ArrayList<Edge<CampusPoint, Double>>();
-		CampusParser.parsePaths("src/hw8/data/campus_paths.dat", paths);
-
-		// Finally add all the nodes and edges to the create the graph
-		for (Edge<CampusPoint, Double> e : paths) {
-			if (!campus.containsNode(e.getParent()))
-				campus.addNode(e.getParent());
-			if (!campus.containsNode(e.getChild()))
-				campus.addNode(e.getChild());
-			campus.addEdge(e.getParent(), e.getChild(), e.getLabel());
-		}
+		// Next load the graph of campus_paths
+		campus = CampusParser.loadPaths("src/hw8/data/campus_paths.dat", "src/hw8/data/campus_paths.snapshot");
+		hierarchy = new ContractionHierarchy<CampusPoint>(campus);
+		treeEngine = new DijkstraEngine<CampusPoint>(campus);
+		routes = new PathTreeCache<CampusPoint>(treeEngine, CACHED_BUILDINGS);
+		table = loadTable("src/hw8/data/campus_routes.table", "src/hw8/data/campus_buildings.dat",
+				"src/hw8/data/campus_paths.dat");
 
 		checkRep();
 	}
 
 	/**
-	 * Performs a Dijkstra search to find the least-cost path between two buildings
+	 * Loads the precomputed routes between buildings if they are at least as new
+	 * as both datasets
+	 * 
+	 * @param tableFile
+	 *            The file written by RouteTable
+	 * @param buildingsFile
+	 *            The campus buildings dataset
+	 * @param pathsFile
+	 *            The campus paths dataset
+	 * @return the routes between buildings, or null if they must be searched for
+	 */
+	private static RouteTable loadTable(String tableFile, String buildingsFile, String pathsFile) {
+		File file = new File(tableFile);
+		if (!RouteTable.isCurrent(file, new File(buildingsFile), new File(pathsFile))) {
+			return null;
+		}
+		try {
+			return RouteTable.load(file, campus);
+		} catch (IOException e) {
+			// searches still work without the table, only more slowly
+			return null;
+		}
+	}
+
+	/**
+	 * Finds the least-cost path between two buildings from the precomputed
+	 * routes if there are any, or else from the cached paths of the start
+	 * building, or else by searching the contraction hierarchy
 	 * 
 	 * @param start
 	 *            The building at which the search begins
@@ -88,24 +146,88 @@ public class CampusModel {
 	 *            The building at which the search ends
 	 */
 	public static List<String> search(String start, String end) {
-		List<Edge<CampusPoint, Double>> searchResult = Dijkstra.search(shortToPoint.get(start), shortToPoint.get(end),
-				campus);
+		return search(start, end, null);
+	}
+
+	/**
+	 * Finds the least-cost path between two buildings as search does, recording
+	 * the work done into stats. A route read from the precomputed table or from
+	 * a cached tree settles no nodes, so only its time and allocation are
+	 * recorded.
+	 * 
+	 * @param start
+	 *            The building at which the search begins
+	 * @param end
+	 *            The building at which the search ends
+	 * @param stats
+	 *            The record the search adds its work to, or null to not record it
+	 * @modifies stats
+	 */
+	public static List<String> search(String start, String end, SearchStats stats) {
+		PathResult<CampusPoint> searchResult;
+		if (table != null && table.contains(start) && table.contains(end)) {
+			if (stats != null)
+				stats.begin();
+			searchResult = table.path(start, end);
+			if (stats != null)
+				stats.end();
+		} else {
+			searchResult = searchCampus(shortToPoint.get(start), shortToPoint.get(end), stats);
+		}
 
 		// format the data so that it can be simply printed by the view
 		List<String> formattedResult = new ArrayList<String>();
 		formattedResult.add("Path from " + shortToLong.get(start) + " to " + shortToLong.get(end) + ":");
-		double total = 0;
-		for (Edge<CampusPoint, Double> e : searchResult) {
-			CampusPoint child = e.getChild();
+		for (int k = 1; k < searchResult.size(); k++) {
+			CampusPoint child = searchResult.nodeAt(k);
 			String dest = String.format("(%.0f, %.0f)", child.getX(), child.getY());
-			String direction = e.getParent().getDirection(child);
-			formattedResult.add(String.format("\tWalk %.0f feet " + direction + " to " + dest, e.getLabel()));
-			total += e.getLabel();
+			String direction = searchResult.nodeAt(k - 1).getDirection(child);
+			formattedResult.add(String.format("\tWalk %.0f feet " + direction + " to " + dest,
+					searchResult.weightOf(k - 1)));
 		}
-		formattedResult.add(String.format("Total distance: %.0f feet", total));
+		formattedResult.add(String.format("Total distance: %.0f feet", searchResult.getTotalCost()));
 		return formattedResult;
 	}
 
+	/**
+	 * Finds the least-cost path between two points from the cached tree of start
+	 * if there is one, or else with the contraction hierarchy
+	 * 
+	 * @param start
+	 *            The point at which the path begins
+	 * @param end
+	 *            The point at which the path ends
+	 * @param stats
+	 *            The record the search adds its work to, or null to not record it
+	 * @modifies stats
+	 * @return the least-cost path between start and end, or null if there is none
+	 */
+	private static PathResult<CampusPoint> searchCampus(CampusPoint start, CampusPoint end, SearchStats stats) {
+		ShortestPathTree<CampusPoint> tree;
+		if (routes.contains(start)) {
+			if (stats != null)
+				stats.begin();
+			tree = routes.lookup(start);
+			if (stats != null)
+				stats.end();
+		} else {
+			// a building used again has its whole tree searched, which is recorded as the search
+			treeEngine.setStats(stats);
+			tree = routes.lookup(start);
+			treeEngine.setStats(null);
+		}
+		if (tree != null) {
+			List<Edge<CampusPoint, Double>> path = tree.pathTo(end);
+			return path == null ? null : PathResult.of(start, path);
+		}
+
+		// the first search from a building is not worth a whole tree
+		hierarchy.setStats(stats);
+		PathResult<CampusPoint> path = hierarchy.searchPath(start, end);
+		hierarchy.setStats(null);
+		return path;
+	}
+
 	/**
 	 * @return a list of all buildings stored as "shortName: longName" sorted by
 	 *         short name only
@@ -114,6 +236,13 @@ public class CampusModel {
 		return Collections.unmodifiableList(fullBuildingNames);
 	}
 
+	/**
+	 * @return a summary of how many searches were answered from cached paths
+	 */
+	public static String cacheStats() {
+		return routes.toString();
+	}
+
 	/**
 	 * @param str
 	 *            The building that is being looked up
@@ -131,6 +260,8 @@ public class CampusModel {
 		assert (shortToLong != null);
 		assert (shortToPoint != null);
 		assert (campus != null);
+		assert (hierarchy != null);
+		assert (treeEngine != null && routes != null);
 		if (TESTING_MODE) {
 			for (String str : fullBuildingNames) {
 				assert (str != null) : "there cannot be a null entry in fullBuildingNames";
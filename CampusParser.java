@@ -1,7 +1,14 @@
 package hw8;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.*;
+
+import hw5.FrozenGraph;
+import hw5.GraphSnapshot;
+import hw5.IndexedGraph;
+import hw5.SnapshotCodec;
+import hw5.WeightedGraph;
 import hw7.Edge;
 
 /**
@@ -11,6 +18,21 @@ import hw7.Edge;
 
 public class CampusParser {
 
+	/** A codec that stores a CampusPoint in a GraphSnapshot as its two coordinates */
+	public static final SnapshotCodec<CampusPoint> POINTS = new SnapshotCodec<CampusPoint>() {
+		@Override
+		public void write(CampusPoint value, DataOutput out) throws IOException {
+			out.writeDouble(value.getX());
+			out.writeDouble(value.getY());
+		}
+
+		@Override
+		public CampusPoint read(ByteBuffer in) {
+			double x = in.getDouble();
+			return new CampusPoint(x, in.getDouble());
+		}
+	};
+
 	/**
 	 * Reads the Campus Buildings dataset. Each line of the input file contains a
 	 * building's short name, its long name and its pixel coordinates separated by
@@ -119,6 +141,63 @@ public class CampusParser {
 		}
 	}
 
+	/**
+	 * Loads the graph of the campus paths. If the binary snapshot is at least as
+	 * new as the paths file it is memory-mapped instead of parsing the paths
+	 * again. Otherwise the paths are parsed and a new snapshot is saved for the
+	 * next start.
+	 * 
+	 * @param pathsFile
+	 *            The campus paths dataset
+	 * @param snapshotFile
+	 *            Where the snapshot of the graph is kept
+	 * @return a read-only graph of the paths between points on campus
+	 */
+	public static IndexedGraph<CampusPoint, Double> loadPaths(String pathsFile, String snapshotFile) {
+		File snapshot = new File(snapshotFile);
+		if (GraphSnapshot.isCurrent(snapshot, new File(pathsFile))) {
+			try {
+				return GraphSnapshot.loadWeighted(snapshot, CampusParser.POINTS);
+			} catch (IOException e) {
+				// the snapshot is unreadable, so it is rebuilt from the paths below
+			}
+		}
+
+		List<Edge<CampusPoint, Double>> paths = new ArrayList<Edge<CampusPoint, Double>>();
+		CampusParser.parsePaths(pathsFile, paths);
+		FrozenGraph<CampusPoint, Double> frozen = buildGraph(paths);
+		try {
+			GraphSnapshot.write(frozen, snapshot, CampusParser.POINTS, null);
+		} catch (IOException e) {
+			// the snapshot only speeds up the next start, so the graph is still usable
+		}
+		return frozen;
+	}
+
+	/**
+	 * Builds the graph of the campus paths from the Edges read by parsePaths
+	 * 
+	 * @param paths
+	 *            The paths between points on campus
+	 * @requires paths != null
+	 * @return a compact read-only graph with a node for every end of a path and
+	 *         an edge for every path
+	 */
+	public static FrozenGraph<CampusPoint, Double> buildGraph(List<Edge<CampusPoint, Double>> paths) {
+		// Add all the nodes and edges to create the graph
+		// the number of paths is a safe upper estimate of the number of start points
+		WeightedGraph<CampusPoint> g = new WeightedGraph<CampusPoint>(paths.size());
+		for (Edge<CampusPoint, Double> e : paths) {
+			// addNode already ignores nodes that are present, so no separate lookup is needed
+			g.addNode(e.getParent());
+			g.addNode(e.getChild());
+			g.addEdge(e.getParent(), e.getChild(), e.getLabel());
+		}
+
+		// the paths never change once loaded, so searches run on a compact snapshot
+		return g.freeze();
+	}
+
 	/**
 	 * @param str
 	 *            The coordinates as a whole string separated by a single comma and
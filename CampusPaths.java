@@ -4,12 +4,16 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Scanner;
 
+import hw5.SearchStats;
+
 /**
  * <b>CampusPaths</b> consists of the View and Controller of a text-based UI
  * that allows the user to search for paths between buildings on the UW-Seattle
  * Campus. It returns these paths as instructions to walk a certain distance in
  * a given direction.
- *
+ * <p>
+ * Run with -v or --verbose to also print the work done by each search, such as
+ * the number of nodes it settled and how long it took.
  */
 public class CampusPaths {
 
@@ -19,7 +23,14 @@ public class CampusPaths {
 	/** stores a reference to the scanner that reads in user input */
 	private static Scanner console = null; // not initialized yet
 
+	/** stores whether the work done by each search is printed */
+	private static boolean verbose = false;
+
 	public static void main(String[] args) {
+		for (String arg : args) {
+			if (arg.equals("-v") || arg.equals("--verbose"))
+				verbose = true;
+		}
 		console = new Scanner(System.in); // initialized now
 		printMenu();
 
@@ -42,6 +53,8 @@ public class CampusPaths {
 				unknownOption();
 			}
 		} while (!input.equals("q"));
+		if (verbose)
+			System.out.println("Path cache: " + CampusModel.cacheStats());
 	}
 
 	/**
@@ -84,7 +97,13 @@ public class CampusPaths {
 
 		// pulls search results from Model
 		if (CampusModel.contains(start) && CampusModel.contains(end)) {
-			print(CampusModel.search(start, end));
+			if (verbose) {
+				SearchStats stats = new SearchStats();
+				print(CampusModel.search(start, end, stats));
+				System.out.println("Search: " + stats);
+			} else {
+				print(CampusModel.search(start, end));
+			}
 		}
 		System.out.println();
 	}
@@ -8,10 +8,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import hw5.Graph;
-import hw7.Dijkstra;
+import hw5.FrozenGraph;
+import hw7.DijkstraEngine;
 import hw7.Edge;
+import hw7.PathResult;
+import hw8.CampusParser;
 import hw8.CampusPoint;
+import hw8.StraightLineHeuristic;
 
 /**
  * <b>CampusModel</b> represents the main bulk of the Model for
@@ -26,7 +29,13 @@ public class CampusPathsModel {
     private static Map<String, CampusPoint> buildingCoordinates;
 
     /** Represents all the paths between buildings */
-    private static Graph<CampusPoint, Double> campus;
+    private static FrozenGraph<CampusPoint, Double> campus;
+
+    /** Searches campus, reusing its arrays from one search to the next */
+    private static DijkstraEngine<CampusPoint> router;
+
+    /** Guides searches of campus towards their destination */
+    private static StraightLineHeuristic heuristic;
 
     /** Stores all the buildingNames in a sorted list */
     private static List<String> buildingNames;
@@ -44,7 +53,8 @@ public class CampusPathsModel {
     // buildings.
     //
     // Representation Invariant:
-    // * buildingCoordinates, campus, buildingNames != null;
+    // * buildingCoordinates, campus, router, heuristic, buildingNames != null;
+    // * router searches campus and heuristic is consistent for campus
     // * buildingNames has no null entries
     // * buildingCoordinates has no null keys and values
 
@@ -63,15 +73,10 @@ public class CampusPathsModel {
         List<Edge<CampusPoint, Double>> edges = new ArrayList<Edge<CampusPoint, Double>>();
         AndroidParser.parsePaths(context, edges);
 
-        // adds paths to the graph field
-        campus = new Graph<CampusPoint, Double>();
-        for (Edge<CampusPoint, Double> e : edges) {
-            if (!campus.containsNode(e.getParent()))
-                campus.addNode(e.getParent());
-            if (!campus.containsNode(e.getChild()))
-                campus.addNode(e.getChild());
-            campus.addEdge(e.getParent(), e.getChild(), e.getLabel());
-        }
+        // adds paths to a graph and stores a compact read-only snapshot of it
+        campus = CampusParser.buildGraph(edges);
+        router = new DijkstraEngine<CampusPoint>(campus);
+        heuristic = StraightLineHeuristic.forGraph(campus);
     }
 
     /**
@@ -103,28 +108,25 @@ public class CampusPathsModel {
     }
 
     /**
-     * Performs a Dijkstra search to find the least-cost path between two buildings
+     * Performs an A* search to find the least-cost path between two buildings,
+     * guided by the straight-line distance to the destination building
      *
      * @param start
      *            The building at which the search begins
      * @param dest
      *            The building at which the search ends
-     * @return a list containing all the points that make up the path from start to dest
+     * @return a list containing all the points that make up the path from start to dest,
+     *         or only the start if there is no path
      */
     public static List<CampusPoint> search(String start, String dest) {
-        List<Edge<CampusPoint, Double>> searchResult =
-                Dijkstra.search(buildingCoordinates.get(start), buildingCoordinates.get(dest),
-                        campus);
-
-        // format the data so it's usable by the view
-        List<CampusPoint> formattedResult = new ArrayList<CampusPoint>();
-        formattedResult.add(buildingCoordinates.get(start));
-        for (Edge<CampusPoint, Double> e : searchResult) {
-            if (!formattedResult.contains(e.getParent())) {
-                formattedResult.add(e.getParent());
-            }
-            formattedResult.add(e.getChild());
+        CampusPoint from = buildingCoordinates.get(start);
+        PathResult<CampusPoint> searchResult =
+                router.searchPath(from, buildingCoordinates.get(dest), heuristic);
+
+        // the path already holds each point once, in order, so the view can use it as it is
+        if (searchResult == null) {
+            return Collections.singletonList(from);
         }
-        return formattedResult;
+        return searchResult.getNodes();
     }
 }
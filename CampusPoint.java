@@ -52,6 +52,16 @@ public final class CampusPoint implements Comparable<CampusPoint> {
 		return y;
 	}
 
+	/**
+	 * @param other
+	 *            The point being measured to
+	 * @requires other != null
+	 * @return the straight-line distance in pixels between this point and other
+	 */
+	public double distanceTo(CampusPoint other) {
+		return Math.hypot(other.x - this.x, other.y - this.y);
+	}
+
 	/**
 	 * Calculates the direction of travel should one travel from this point to the
 	 * end point
@@ -0,0 +1,373 @@
+package hw5;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * <b>ConcurrentGraph<N,E></b> represents a generic mutable graph with nodes of
+ * type N and edges of type E connecting them, which may be read and modified by
+ * many threads at once.<br>
+ * It supports the same operations as Graph. Nodes are kept in a concurrent hash
+ * map, and the edges leaving each node are guarded by one of a fixed set of
+ * striped read/write locks, so any number of threads may query the graph while
+ * loader threads add or remove edges of unrelated nodes.<br>
+ * Each edge is unidirectional so an edge from n1 to n2 is not equivalent to an
+ * edge from n2 to n1.<br>
+ * Each graph cannot store duplicate nodes. It does however support edges from
+ * a node to itself and multiple, duplicate edges between nodes.
+ * <p>
+ *
+ * @param <N>
+ *            The object type of each node in the graph. N must extend Comparable
+ * @param <E>
+ *            The object type of each edge in the graph. E must extend Comparable
+ */
+
+public class ConcurrentGraph<N extends Comparable<N>, E extends Comparable<E>> {
+
+	/** Maps each node to its children and all the edges between them */
+	private final ConcurrentHashMap<N, Map<N, List<E>>> nodes;
+
+	/** Guards the edge maps of the nodes; node n is guarded by locks[stripe(n)] */
+	private final ReadWriteLock[] locks;
+
+	// Abstraction function:
+	// ConcurrentGraph g represents a graph containing every key of nodes, with
+	// an edge from n to c labelled e for every e in nodes.get(n).get(c).
+	//
+	// Representation Invariant for every ConcurrentGraph g:
+	// * nodes and locks cannot be null and locks.length is a power of two
+	// * Nodes that are added to the graph cannot be null
+	// * No child can have an empty list of edges
+	// * nodes.get(n) is only read while holding the read or write lock of
+	//   locks[stripe(n)] and only changed while holding its write lock
+
+	/** A boolean constant used to reduce checkRep time if not in testing mode */
+	private static final boolean TESTING_MODE = false;
+
+	/** The number of lock stripes used when none is specified */
+	private static final int DEFAULT_STRIPES = 64;
+
+	/**
+	 * @effects Constructs a new empty graph.
+	 */
+	public ConcurrentGraph() {
+		this(DEFAULT_STRIPES);
+	}
+
+	/**
+	 * @param stripes
+	 *            The number of locks shared between the nodes. More stripes allow
+	 *            more writers to work at once at the cost of memory
+	 * @requires stripes > 0
+	 * @effects Constructs a new empty graph.
+	 */
+	public ConcurrentGraph(int stripes) {
+		// rounds up to a power of two so a stripe can be chosen with a mask
+		int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+		nodes = new ConcurrentHashMap<N, Map<N, List<E>>>();
+		locks = new ReadWriteLock[size];
+		for (int i = 0; i < size; i++) {
+			locks[i] = new ReentrantReadWriteLock();
+		}
+		checkRep();
+	}
+
+	/**
+	 * Adds node to the graph
+	 *
+	 * @param node
+	 *            The node that is being added
+	 * @requires node != null
+	 * @modifies this
+	 * @effects adds a node to the graph
+	 * @return true if node was added to graph, false otherwise i.e. node already
+	 *         exists
+	 */
+	public boolean addNode(N node) {
+		return nodes.putIfAbsent(node, new HashMap<N, List<E>>()) == null;
+	}
+
+	/**
+	 * Removes node from the graph together with every edge leaving or entering
+	 * it, as Graph.removeNode does. The edges entering node are removed one
+	 * parent at a time, each under the write lock guarding that parent, so an
+	 * edge to node added by another thread while it is being removed may remain.
+	 *
+	 * @param node
+	 *            The node that is being removed
+	 * @requires node != null
+	 * @modifies this
+	 * @effects removes node and the edges leaving and entering it from the graph
+	 * @return true if removed, false otherwise i.e. node not in graph
+	 */
+	public boolean removeNode(N node) {
+		ReadWriteLock lock = lockFor(node);
+		lock.writeLock().lock();
+		try {
+			if (nodes.remove(node) == null)
+				return false;
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		// holds one lock at a time so that it cannot deadlock with other writers
+		for (N parent : nodes.keySet()) {
+			ReadWriteLock parentLock = lockFor(parent);
+			parentLock.writeLock().lock();
+			try {
+				Map<N, List<E>> edges = nodes.get(parent);
+				if (edges != null)
+					edges.remove(node);
+			} finally {
+				parentLock.writeLock().unlock();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Adds an edge to the graph
+	 *
+	 * @param parent
+	 *            The node from which the edge originates
+	 * @param child
+	 *            The node at which the edge terminates
+	 * @param edgeLabel
+	 *            The label for the edge that is being added to the graph
+	 * @requires parent, child, edgeLabel != null
+	 * @modifies this
+	 * @effects adds an edge between parent and child. Duplicates are allowed
+	 * @return true if edge was added to graph, false otherwise i.e. parent is not
+	 *         in the graph
+	 */
+	public boolean addEdge(N parent, N child, E edgeLabel) {
+		ReadWriteLock lock = lockFor(parent);
+		lock.writeLock().lock();
+		try {
+			Map<N, List<E>> edges = nodes.get(parent);
+			if (edges == null)
+				return false;
+			List<E> lst = edges.get(child);
+			if (lst == null) {
+				lst = new ArrayList<E>();
+				edges.put(child, lst);
+			}
+			return lst.add(edgeLabel);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes an edge from the graph
+	 *
+	 * @param parent
+	 *            The node from which the edge originated
+	 * @param child
+	 *            The node at which the edge terminated
+	 * @param edgeLabel
+	 *            The label of the edge being removed
+	 * @requires parent, child, edgeLabel != null
+	 * @modifies this
+	 * @effects removes the edge between parent and child from the graph
+	 * @return true if removed, false otherwise i.e. no such edge exists
+	 */
+	public boolean removeEdge(N parent, N child, E edgeLabel) {
+		ReadWriteLock lock = lockFor(parent);
+		lock.writeLock().lock();
+		try {
+			Map<N, List<E>> edges = nodes.get(parent);
+			if (edges == null || !edges.containsKey(child))
+				return false;
+			boolean removed = edges.get(child).remove(edgeLabel);
+			if (edges.get(child).isEmpty())
+				edges.remove(child);
+			return removed;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * @return a sorted list containing the string representation of all the nodes
+	 *         stored in the graph
+	 */
+	public List<String> listNodes() {
+		List<String> lst = new ArrayList<String>();
+		for (N node : nodes.keySet()) {
+			lst.add(node.toString());
+		}
+		Collections.sort(lst);
+		return lst;
+	}
+
+	/**
+	 * Returns a list containing all the child nodes of the given node
+	 *
+	 * @param node
+	 *            The node that is being looked up
+	 * @requires node != null
+	 * @return a sorted list containing all the child nodes of the given node.<br>
+	 *         Note: If node is not in graph, returns an empty list.
+	 */
+	public List<N> getChildren(N node) {
+		List<N> lst;
+		ReadWriteLock lock = lockFor(node);
+		lock.readLock().lock();
+		try {
+			Map<N, List<E>> edges = nodes.get(node);
+			if (edges == null)
+				return new ArrayList<N>();
+			lst = new ArrayList<N>(edges.keySet());
+		} finally {
+			lock.readLock().unlock();
+		}
+		// sorts outside of the lock so writers are not held up
+		Collections.sort(lst);
+		return lst;
+	}
+
+	/**
+	 * Returns a list containing all the edges between parent and child
+	 *
+	 * @param parent
+	 *            The node from which the edges originate
+	 * @param child
+	 *            The node at which the edges terminate
+	 * @requires parent, child != null
+	 * @return a sorted list containing all the edges between parent and child.
+	 *         Returns an empty list if there are no such edges
+	 */
+	public List<E> getEdges(N parent, N child) {
+		List<E> lst;
+		ReadWriteLock lock = lockFor(parent);
+		lock.readLock().lock();
+		try {
+			Map<N, List<E>> edges = nodes.get(parent);
+			if (edges == null || !edges.containsKey(child))
+				return new ArrayList<E>();
+			lst = new ArrayList<E>(edges.get(child));
+		} finally {
+			lock.readLock().unlock();
+		}
+		Collections.sort(lst);
+		return lst;
+	}
+
+	/**
+	 * Hands every edge leaving node to visitor in no particular order. The read
+	 * lock guarding node is held for the duration, so visitor must not modify
+	 * this graph.
+	 *
+	 * @param node
+	 *            The node whose edges are being visited
+	 * @param visitor
+	 *            The callback that is given the child and label of each edge
+	 * @requires node, visitor != null
+	 * @effects calls visitor.visit(child, label) once for each edge leaving node.
+	 *          Does nothing if node is not in the graph
+	 */
+	public void forEachEdge(N node, EdgeVisitor<? super N, ? super E> visitor) {
+		ReadWriteLock lock = lockFor(node);
+		lock.readLock().lock();
+		try {
+			Map<N, List<E>> edges = nodes.get(node);
+			if (edges == null)
+				return;
+			for (Map.Entry<N, List<E>> entry : edges.entrySet()) {
+				List<E> labels = entry.getValue();
+				for (int i = 0; i < labels.size(); i++) {
+					visitor.visit(entry.getKey(), labels.get(i));
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Checks if node is stored in the graph
+	 *
+	 * @param node
+	 *            The node that is being looked up
+	 * @requires node != null
+	 * @return true if the graph contains this node, false otherwise
+	 */
+	public boolean containsNode(N node) {
+		return nodes.containsKey(node);
+	}
+
+	/**
+	 * Checks if edge is stored in the graph
+	 *
+	 * @param parent
+	 *            The node from which the edge originates
+	 * @param child
+	 *            The node at which the edge terminates
+	 * @param edgeLabel
+	 *            The label of the edge
+	 * @requires parent, child, edgeLabel != null
+	 * @return true if the graph contains this edge, false otherwise
+	 */
+	public boolean containsEdge(N parent, N child, E edgeLabel) {
+		ReadWriteLock lock = lockFor(parent);
+		lock.readLock().lock();
+		try {
+			Map<N, List<E>> edges = nodes.get(parent);
+			return edges != null && edges.containsKey(child) && edges.get(child).contains(edgeLabel);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return true if there are no entries in this graph, false otherwise
+	 */
+	public boolean isEmpty() {
+		return nodes.isEmpty();
+	}
+
+	/**
+	 * @param node
+	 *            The node whose edges are being accessed
+	 * @return the lock guarding the edges of node
+	 */
+	private ReadWriteLock lockFor(N node) {
+		// spreads the high bits of the hash code so poor hash codes still use every stripe
+		int h = node.hashCode();
+		h ^= (h >>> 16);
+		return locks[h & (locks.length - 1)];
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert (nodes != null) : "nodes cannot be null";
+		assert (locks != null && Integer.bitCount(locks.length) == 1) : "stripe count must be a power of two";
+		if (TESTING_MODE) {
+			for (N node : nodes.keySet()) {
+				ReadWriteLock lock = lockFor(node);
+				lock.readLock().lock();
+				try {
+					Map<N, List<E>> edges = nodes.get(node);
+					if (edges == null)
+						continue;
+					for (N child : edges.keySet()) {
+						assert (child != null) : "child node cannot be null";
+						assert (!edges.get(child).isEmpty()) : "cannot be a child node if share no edges";
+					}
+				} finally {
+					lock.readLock().unlock();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,786 @@
+package hw7;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import hw5.Graph;
+import hw5.IndexedGraph;
+import hw5.SearchStats;
+
+/**
+ * <b>ContractionHierarchy<N></b> finds least-cost paths in a weighted graph
+ * that does not change, after preprocessing it so that each search settles
+ * only a few dozen nodes.<br>
+ * Preprocessing contracts the nodes one at a time, least important first. A
+ * node is removed from the remaining graph, and whenever the only least-cost
+ * path between two of its neighbours ran through it, a shortcut edge of the
+ * same cost is added between them. The order in which a node was contracted is
+ * its rank. A search then runs Dijkstra's algorithm forward from the start and
+ * backward from the destination, each following only edges that lead to nodes
+ * of higher rank, and the two meet at the highest ranked node of the
+ * least-cost path. Each shortcut on the resulting path is unpacked into the
+ * two edges it replaced until only edges of the original graph remain.
+ * <p>
+ * The importance of a node is twice the number of shortcuts its contraction
+ * adds less the number of edges it removes, plus the number of its neighbours
+ * that have already been contracted, which spreads contraction evenly across
+ * the graph. Priorities are recomputed lazily when a node reaches the front of
+ * the queue. To decide whether a shortcut is needed, a witness search looks
+ * for another path between the two neighbours that is no more costly. It
+ * gives up after settling WITNESS_LIMIT nodes, in which case the shortcut is
+ * added anyway; this adds unneeded shortcuts but never loses a path.
+ * <p>
+ * The search state is reused from one search to the next, so an instance is
+ * not safe for use by more than one thread at a time. An instance given a
+ * SearchStats records the work of every search into it, counting both
+ * directions together.
+ *
+ * @param <N>
+ *            The object type of each node in the graph. N must extend Comparable
+ */
+public class ContractionHierarchy<N extends Comparable<N>> {
+
+	/** The number of nodes a witness search may settle before it gives up */
+	private static final int WITNESS_LIMIT = 200;
+
+	/** Stores the graph whose paths are found */
+	private final IndexedGraph<N, Double> graph;
+
+	/** Stores the node each arc starts at */
+	private int[] arcFrom;
+
+	/** Stores the node each arc ends at */
+	private int[] arcTo;
+
+	/** Stores the weight of each arc */
+	private double[] arcWeight;
+
+	/** Stores the first of the two arcs each shortcut replaces, or -1 for an edge of graph */
+	private int[] arcFirst;
+
+	/** Stores the second of the two arcs each shortcut replaces, or -1 for an edge of graph */
+	private int[] arcSecond;
+
+	/** Stores the number of arcs */
+	private int arcCount = 0;
+
+	/** Stores the number of arcs that stand for an edge of graph, which come before every shortcut */
+	private final int edgeArcs;
+
+	/** Stores the order in which each node was contracted */
+	private final int[] rank;
+
+	/** Stores where the arcs leaving each node towards higher ranks begin in upArcs */
+	private final int[] upOffsets;
+
+	/** Stores the arcs that lead to a node of higher rank, grouped by the node they leave */
+	private final int[] upArcs;
+
+	/** Stores where the arcs entering each node from higher ranks begin in downArcs */
+	private final int[] downOffsets;
+
+	/** Stores the arcs that come from a node of higher rank, grouped by the node they enter */
+	private final int[] downArcs;
+
+	/** Stores the search from the start along upArcs */
+	private final Side forward;
+
+	/** Stores the search from the destination back along downArcs */
+	private final Side backward;
+
+	// Abstraction Function:
+	// A ContractionHierarchy finds paths in graph. Arc a runs from arcFrom[a] to
+	// arcTo[a] with weight arcWeight[a]. If arcFirst[a] is -1 it is the least
+	// costly edge of graph between those nodes, and otherwise it is a shortcut
+	// for arc arcFirst[a] followed by arc arcSecond[a]. The arcs leaving node i
+	// towards higher ranks are upArcs[upOffsets[i] .. upOffsets[i + 1]) and the
+	// arcs entering it from higher ranks are downArcs[downOffsets[i] ..
+	// downOffsets[i + 1]).
+	//
+	// Representation Invariant:
+	// * graph, rank, upOffsets, upArcs, downOffsets, downArcs, forward,
+	//   backward != null
+	// * rank is a permutation of 0 .. graph.size() - 1
+	// * rank[arcFrom[a]] < rank[arcTo[a]] for every a in upArcs, and
+	//   rank[arcFrom[a]] > rank[arcTo[a]] for every a in downArcs
+	// * every arc is in exactly one of upArcs and downArcs
+	// * a shortcut a has arcWeight[a] == arcWeight[arcFirst[a]] +
+	//   arcWeight[arcSecond[a]], and both of those arcs were added before it
+
+	/** A boolean constant used to reduce checkRep time if not in testing mode */
+	private static final boolean TESTING_MODE = false;
+
+	/**
+	 * Preprocesses an indexed graph, such as a FrozenGraph or a MappedGraph
+	 *
+	 * @param graph
+	 *            The graph whose paths are found
+	 * @requires graph != null && graph.isWeighted() && every edge of graph is
+	 *           non-negative
+	 */
+	public ContractionHierarchy(IndexedGraph<N, Double> graph) {
+		this.graph = graph;
+		int n = graph.size();
+		int capacity = Math.max(graph.edgeCount() * 2, 16);
+		arcFrom = new int[capacity];
+		arcTo = new int[capacity];
+		arcWeight = new double[capacity];
+		arcFirst = new int[capacity];
+		arcSecond = new int[capacity];
+		rank = new int[n];
+
+		Contractor contractor = new Contractor(n);
+		edgeArcs = arcCount;
+		contractor.run();
+
+		// sorts every arc into the upward or downward arrays by the ranks of its ends
+		upOffsets = new int[n + 1];
+		downOffsets = new int[n + 1];
+		for (int a = 0; a < arcCount; a++) {
+			if (rank[arcFrom[a]] < rank[arcTo[a]])
+				upOffsets[arcFrom[a] + 1]++;
+			else
+				downOffsets[arcTo[a] + 1]++;
+		}
+		for (int i = 0; i < n; i++) {
+			upOffsets[i + 1] += upOffsets[i];
+			downOffsets[i + 1] += downOffsets[i];
+		}
+		upArcs = new int[upOffsets[n]];
+		downArcs = new int[downOffsets[n]];
+		int[] nextUp = Arrays.copyOf(upOffsets, n);
+		int[] nextDown = Arrays.copyOf(downOffsets, n);
+		for (int a = 0; a < arcCount; a++) {
+			if (rank[arcFrom[a]] < rank[arcTo[a]])
+				upArcs[nextUp[arcFrom[a]]++] = a;
+			else
+				downArcs[nextDown[arcTo[a]]++] = a;
+		}
+
+		forward = new Side(n);
+		backward = new Side(n);
+		checkRep();
+	}
+
+	/**
+	 * Preprocesses a snapshot of graph. Later changes to graph are not seen by
+	 * the hierarchy.
+	 *
+	 * @param graph
+	 *            The graph whose paths are found
+	 * @requires graph != null && every edge of graph is non-negative
+	 */
+	public ContractionHierarchy(Graph<N, Double> graph) {
+		this(graph.freeze());
+	}
+
+	/**
+	 * Finds the least-cost path between two nodes and returns it as a list of
+	 * edges of the original graph
+	 *
+	 * @param start
+	 *            The node from which the search begins
+	 * @param dest
+	 *            The node at which the search ends
+	 * @requires start, dest != null
+	 * @modifies this
+	 * @return a list of edges representing the least-cost path between start and
+	 *         dest.<br>
+	 *         Returns an empty list if start == dest.<br>
+	 *         Returns null if no path exists between start and dest.
+	 */
+	public List<Edge<N, Double>> search(N start, N dest) {
+		SearchStats stats = forward.stats;
+		if (stats == null) {
+			return find(start, dest);
+		}
+		stats.begin();
+		try {
+			return find(start, dest);
+		} finally {
+			stats.end();
+		}
+	}
+
+	/**
+	 * Finds the least-cost path between two nodes as search does, without
+	 * recording the search as a whole
+	 */
+	private List<Edge<N, Double>> find(N start, N dest) {
+		forward.reset();
+		backward.reset();
+		if (start.equals(dest)) {
+			return new ArrayList<Edge<N, Double>>();
+		}
+		int[] arcs = route(graph.idOf(start), graph.idOf(dest));
+		if (arcs == null) {
+			return null;
+		}
+		List<Edge<N, Double>> path = new ArrayList<Edge<N, Double>>(arcs.length);
+		for (int a : arcs) {
+			path.add(new Edge<N, Double>(arcWeight[a], graph.nodeOf(arcFrom[a]), graph.nodeOf(arcTo[a])));
+		}
+		return path;
+	}
+
+	/**
+	 * Finds the least-cost path between two nodes and returns it as a
+	 * PathResult, which holds the nodes of the path and the cost to each of them
+	 * without creating an Edge for each step
+	 *
+	 * @param start
+	 *            The node from which the search begins
+	 * @param dest
+	 *            The node at which the search ends
+	 * @requires start, dest != null
+	 * @modifies this
+	 * @return the least-cost path between start and dest.<br>
+	 *         Returns a path of start alone if start == dest.<br>
+	 *         Returns null if no path exists between start and dest.
+	 */
+	public PathResult<N> searchPath(N start, N dest) {
+		SearchStats stats = forward.stats;
+		if (stats == null) {
+			return findPath(start, dest);
+		}
+		stats.begin();
+		try {
+			return findPath(start, dest);
+		} finally {
+			stats.end();
+		}
+	}
+
+	/**
+	 * Finds the least-cost path between two nodes as searchPath does, without
+	 * recording the search as a whole
+	 */
+	private PathResult<N> findPath(N start, N dest) {
+		forward.reset();
+		backward.reset();
+		if (start.equals(dest)) {
+			return new PathResult.Builder<N>(start, 0).build();
+		}
+		int[] arcs = route(graph.idOf(start), graph.idOf(dest));
+		if (arcs == null) {
+			return null;
+		}
+		PathResult.Builder<N> builder = new PathResult.Builder<N>(start, arcs.length);
+		for (int a : arcs) {
+			builder.add(graph.nodeOf(arcTo[a]), arcWeight[a]);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Runs the upward searches from source and target until neither can find a
+	 * cheaper path, and unpacks the cheapest path found
+	 *
+	 * @param source
+	 *            The id of the node the path begins at, or -1 if it is not in the
+	 *            graph
+	 * @param target
+	 *            The id of the node the path ends at, or -1 if it is not in the
+	 *            graph
+	 * @requires source != target && both sides have been reset
+	 * @modifies this
+	 * @return the original arcs of the least-cost path from source to target in
+	 *         order, or null if no path exists
+	 */
+	private int[] route(int source, int target) {
+		if (source < 0 || target < 0) {
+			return null;
+		}
+		forward.reach(source, -1, 0.0);
+		backward.reach(target, -1, 0.0);
+		double best = Double.POSITIVE_INFINITY;
+		int meeting = -1;
+		while (true) {
+			// a side is finished once nothing left in it can lead to a cheaper path
+			boolean forwardOpen = !forward.frontier.isEmpty() && forward.frontier.peekKey() < best;
+			boolean backwardOpen = !backward.frontier.isEmpty() && backward.frontier.peekKey() < best;
+			if (!forwardOpen && !backwardOpen) {
+				break;
+			}
+			boolean forwards = forwardOpen
+					&& (!backwardOpen || forward.frontier.peekKey() <= backward.frontier.peekKey());
+			Side side = forwards ? forward : backward;
+			Side other = forwards ? backward : forward;
+			int node = side.frontier.poll();
+			side.settledCount++;
+			if (side.stats != null) {
+				side.stats.pop();
+				side.stats.settle();
+			}
+			if (side.cost[node] + other.cost[node] < best) {
+				best = side.cost[node] + other.cost[node];
+				meeting = node;
+			}
+
+			if (forwards) {
+				for (int k = upOffsets[node]; k < upOffsets[node + 1]; k++) {
+					int a = upArcs[k];
+					side.relax(arcTo[a], a, side.cost[node] + arcWeight[a]);
+				}
+			} else {
+				for (int k = downOffsets[node]; k < downOffsets[node + 1]; k++) {
+					int a = downArcs[k];
+					side.relax(arcFrom[a], a, side.cost[node] + arcWeight[a]);
+				}
+			}
+		}
+
+		// this means that no path exists between start and dest
+		if (meeting < 0) {
+			return null;
+		}
+
+		// collects the arcs from start to the meeting node, then on from it to dest
+		List<Integer> arcs = new ArrayList<Integer>();
+		for (int node = meeting; forward.arc[node] >= 0; node = arcFrom[forward.arc[node]]) {
+			arcs.add(forward.arc[node]);
+		}
+		Collections.reverse(arcs);
+		for (int node = meeting; backward.arc[node] >= 0; node = arcTo[backward.arc[node]]) {
+			arcs.add(backward.arc[node]);
+		}
+		return unpack(arcs);
+	}
+
+	/**
+	 * @return the number of nodes settled by the last search, counting both
+	 *         directions
+	 */
+	public int getSettledCount() {
+		return forward.settledCount + backward.settledCount;
+	}
+
+	/**
+	 * Makes every later search record its work into stats
+	 *
+	 * @param stats
+	 *            The record of the searches, or null to stop recording them
+	 * @modifies this
+	 */
+	public void setStats(SearchStats stats) {
+		forward.stats = stats;
+		backward.stats = stats;
+	}
+
+	/**
+	 * @return the number of shortcuts added by preprocessing
+	 */
+	public int getShortcutCount() {
+		return arcCount - edgeArcs;
+	}
+
+	/**
+	 * Replaces each shortcut among arcs with the arcs of the original graph that
+	 * it stands for
+	 *
+	 * @param arcs
+	 *            The arcs of a path in order
+	 * @return the original arcs of the path in order
+	 */
+	private int[] unpack(List<Integer> arcs) {
+		int[] path = new int[arcs.size() * 2];
+		int length = 0;
+		// an explicit stack keeps deep hierarchies from overflowing the call stack
+		int[] stack = new int[16];
+		for (int arc : arcs) {
+			int size = 0;
+			stack[size++] = arc;
+			while (size > 0) {
+				int a = stack[--size];
+				if (arcFirst[a] < 0) {
+					if (length == path.length)
+						path = Arrays.copyOf(path, path.length * 2);
+					path[length++] = a;
+				} else {
+					if (size + 2 > stack.length)
+						stack = Arrays.copyOf(stack, stack.length * 2);
+					stack[size++] = arcSecond[a];
+					stack[size++] = arcFirst[a];
+				}
+			}
+		}
+		return Arrays.copyOf(path, length);
+	}
+
+	/**
+	 * Adds an arc, growing the arc arrays if they are full
+	 *
+	 * @return the id of the new arc
+	 */
+	private int addArc(int from, int to, double weight, int first, int second) {
+		if (arcCount == arcFrom.length) {
+			int capacity = arcCount * 2;
+			arcFrom = Arrays.copyOf(arcFrom, capacity);
+			arcTo = Arrays.copyOf(arcTo, capacity);
+			arcWeight = Arrays.copyOf(arcWeight, capacity);
+			arcFirst = Arrays.copyOf(arcFirst, capacity);
+			arcSecond = Arrays.copyOf(arcSecond, capacity);
+		}
+		arcFrom[arcCount] = from;
+		arcTo[arcCount] = to;
+		arcWeight[arcCount] = weight;
+		arcFirst[arcCount] = first;
+		arcSecond[arcCount] = second;
+		return arcCount++;
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert (graph != null && rank != null && forward != null && backward != null);
+		assert (upArcs.length + downArcs.length == arcCount) : "every arc must lead up or down";
+		if (TESTING_MODE) {
+			for (int a : upArcs) {
+				assert (rank[arcFrom[a]] < rank[arcTo[a]]) : "an upward arc must lead to a higher rank";
+			}
+			for (int a : downArcs) {
+				assert (rank[arcFrom[a]] > rank[arcTo[a]]) : "a downward arc must lead to a lower rank";
+			}
+			for (int a = 0; a < arcCount; a++) {
+				if (arcFirst[a] >= 0) {
+					assert (arcFirst[a] < a && arcSecond[a] < a) : "a shortcut must replace earlier arcs";
+					assert (arcWeight[a] == arcWeight[arcFirst[a]] + arcWeight[arcSecond[a]])
+							: "a shortcut must cost as much as the arcs it replaces";
+				}
+			}
+		}
+	}
+
+	/**
+	 * <b>Contractor</b> holds the state used while the nodes are being
+	 * contracted, which is discarded once the hierarchy is built.
+	 */
+	private class Contractor {
+		/** stores the arcs leaving each node, including those to contracted nodes */
+		final int[][] out;
+
+		/** stores the number of arcs in each row of out */
+		final int[] outSize;
+
+		/** stores the arcs entering each node, including those from contracted nodes */
+		final int[][] in;
+
+		/** stores the number of arcs in each row of in */
+		final int[] inSize;
+
+		/** stores the nodes that have been contracted */
+		final boolean[] contracted;
+
+		/** stores the number of contracted neighbours of each node */
+		final int[] contractedNeighbours;
+
+		/** stores the cost of the cheapest known path of the current witness search */
+		final double[] witness;
+
+		/** stores the ids whose witness cost has been set by the current witness search */
+		final int[] touched;
+
+		/** stores the number of ids in touched */
+		int touchedCount = 0;
+
+		/** stores the nodes reached but not settled by the current witness search */
+		final IndexedHeap frontier;
+
+		/** stores, for each node, the last call to shortcuts in which it was a target */
+		final int[] targetOf;
+
+		/** stores the number of calls to shortcuts so far */
+		int calls = 0;
+
+		/** stores the number of distinct targets of the current call to shortcuts */
+		int targets = 0;
+
+		/** stores the shortcuts found by the last call to shortcuts, as from, to, first, second */
+		int[] found = new int[16];
+
+		/** stores the number of ints in found */
+		int foundSize = 0;
+
+		/**
+		 * Copies the edges of graph into arcs, keeping only the least costly edge
+		 * between each parent and child and leaving out self loops
+		 */
+		Contractor(int n) {
+			out = new int[n][];
+			outSize = new int[n];
+			in = new int[n][];
+			inSize = new int[n];
+			contracted = new boolean[n];
+			contractedNeighbours = new int[n];
+			witness = new double[n];
+			touched = new int[n];
+			targetOf = new int[n];
+			Arrays.fill(witness, Double.POSITIVE_INFINITY);
+			frontier = new IndexedHeap(n);
+
+			int[] lightest = new int[n];
+			Arrays.fill(lightest, -1);
+			for (int node = 0; node < n; node++) {
+				for (int e = graph.firstEdge(node); e < graph.endEdge(node); e++) {
+					int child = graph.target(e);
+					if (child == node)
+						continue;
+					int a = lightest[child];
+					if (a >= 0 && arcFrom[a] == node) {
+						arcWeight[a] = Math.min(arcWeight[a], graph.weight(e));
+					} else {
+						lightest[child] = addArc(node, child, graph.weight(e), -1, -1);
+					}
+				}
+			}
+			for (int a = 0; a < arcCount; a++) {
+				link(a);
+			}
+		}
+
+		/**
+		 * Contracts every node in order of importance, recording its rank
+		 */
+		void run() {
+			IndexedHeap queue = new IndexedHeap(rank.length);
+			for (int node = 0; node < rank.length; node++) {
+				queue.offer(node, priority(node));
+			}
+			int order = 0;
+			while (!queue.isEmpty()) {
+				int node = queue.poll();
+				// the priority may have risen since it was queued, so it is checked again
+				double current = priority(node);
+				if (!queue.isEmpty() && current > queue.peekKey()) {
+					queue.offer(node, current);
+					continue;
+				}
+				// priority has just found the shortcuts of node, so contract adds them as they are
+				contract(node);
+				rank[node] = order++;
+			}
+		}
+
+		/**
+		 * @return the importance of node, where less important nodes are
+		 *         contracted first
+		 */
+		double priority(int node) {
+			shortcuts(node);
+			int removed = 0;
+			for (int k = 0; k < outSize[node]; k++) {
+				if (!contracted[arcTo[out[node][k]]])
+					removed++;
+			}
+			for (int k = 0; k < inSize[node]; k++) {
+				if (!contracted[arcFrom[in[node][k]]])
+					removed++;
+			}
+			return 2 * (foundSize / 4 - removed) + contractedNeighbours[node];
+		}
+
+		/**
+		 * Removes node from the remaining graph, adding the shortcuts in found,
+		 * which keep the cost of every path between the remaining nodes
+		 *
+		 * @requires the last call to shortcuts or priority was for node, and no
+		 *           node has been contracted since
+		 */
+		void contract(int node) {
+			for (int k = 0; k < foundSize; k += 4) {
+				int from = found[k];
+				int to = found[k + 1];
+				int a = addArc(from, to, arcWeight[found[k + 2]] + arcWeight[found[k + 3]], found[k + 2],
+						found[k + 3]);
+				link(a);
+			}
+			contracted[node] = true;
+			for (int k = 0; k < outSize[node]; k++) {
+				contractedNeighbours[arcTo[out[node][k]]]++;
+			}
+			for (int k = 0; k < inSize[node]; k++) {
+				contractedNeighbours[arcFrom[in[node][k]]]++;
+			}
+		}
+
+		/**
+		 * Finds the shortcuts needed if node were contracted now, storing them in
+		 * found
+		 */
+		void shortcuts(int node) {
+			foundSize = 0;
+			calls++;
+			targets = 0;
+			double longestOut = 0.0;
+			for (int k = 0; k < outSize[node]; k++) {
+				int a = out[node][k];
+				int to = arcTo[a];
+				if (!contracted[to]) {
+					longestOut = Math.max(longestOut, arcWeight[a]);
+					if (targetOf[to] != calls) {
+						targetOf[to] = calls;
+						targets++;
+					}
+				}
+			}
+
+			for (int i = 0; i < inSize[node]; i++) {
+				int incoming = in[node][i];
+				int from = arcFrom[incoming];
+				if (contracted[from])
+					continue;
+				witnessSearch(from, node, arcWeight[incoming] + longestOut);
+
+				for (int j = 0; j < outSize[node]; j++) {
+					int outgoing = out[node][j];
+					int to = arcTo[outgoing];
+					if (contracted[to] || to == from)
+						continue;
+					double via = arcWeight[incoming] + arcWeight[outgoing];
+					if (witness[to] > via) {
+						if (foundSize + 4 > found.length)
+							found = Arrays.copyOf(found, found.length * 2);
+						found[foundSize++] = from;
+						found[foundSize++] = to;
+						found[foundSize++] = incoming;
+						found[foundSize++] = outgoing;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Runs Dijkstra's algorithm from source over the remaining nodes other
+		 * than skipped, stopping once every target is settled, paths longer than
+		 * limit are all that is left or WITNESS_LIMIT nodes have been settled
+		 */
+		void witnessSearch(int source, int skipped, double limit) {
+			for (int k = 0; k < touchedCount; k++) {
+				witness[touched[k]] = Double.POSITIVE_INFINITY;
+			}
+			touchedCount = 0;
+			frontier.clear();
+
+			witness[source] = 0.0;
+			touched[touchedCount++] = source;
+			frontier.offer(source, 0.0);
+			int settled = 0;
+			int remaining = targets;
+			while (!frontier.isEmpty() && frontier.peekKey() <= limit && settled < WITNESS_LIMIT) {
+				int node = frontier.poll();
+				settled++;
+				// the cost of a settled target cannot fall any further
+				if (targetOf[node] == calls && --remaining == 0)
+					break;
+				for (int k = 0; k < outSize[node]; k++) {
+					int a = out[node][k];
+					int child = arcTo[a];
+					if (contracted[child] || child == skipped)
+						continue;
+					double cost = witness[node] + arcWeight[a];
+					if (cost < witness[child]) {
+						if (witness[child] == Double.POSITIVE_INFINITY)
+							touched[touchedCount++] = child;
+						witness[child] = cost;
+						frontier.offer(child, cost);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Adds arc a to the rows of the nodes it leaves and enters
+		 */
+		void link(int a) {
+			int from = arcFrom[a];
+			int to = arcTo[a];
+			if (out[from] == null || outSize[from] == out[from].length)
+				out[from] = out[from] == null ? new int[4] : Arrays.copyOf(out[from], outSize[from] * 2);
+			out[from][outSize[from]++] = a;
+			if (in[to] == null || inSize[to] == in[to].length)
+				in[to] = in[to] == null ? new int[4] : Arrays.copyOf(in[to], inSize[to] * 2);
+			in[to][inSize[to]++] = a;
+		}
+	}
+
+	/**
+	 * <b>Side</b> holds the state of one direction of a search. In the backward
+	 * direction arc[i] is the arc that leaves i on its path to the destination.
+	 */
+	private static class Side {
+		/** stores the cost of the cheapest known path between each node and the origin of this side */
+		final double[] cost;
+
+		/** stores the arc through which each node was reached, or -1 */
+		final int[] arc;
+
+		/** stores the ids of the nodes whose cost has been set by the current search */
+		final int[] touched;
+
+		/** stores the number of ids in touched */
+		int touchedCount = 0;
+
+		/** stores the nodes that have been reached but not settled, keyed by their cost */
+		final IndexedHeap frontier;
+
+		/** stores the number of nodes settled by the current search */
+		int settledCount = 0;
+
+		/** stores the record of every search, or null if searches are not recorded */
+		SearchStats stats = null;
+
+		/**
+		 * @param size
+		 *            The number of nodes in the graph
+		 */
+		Side(int size) {
+			cost = new double[size];
+			arc = new int[size];
+			touched = new int[size];
+			Arrays.fill(cost, Double.POSITIVE_INFINITY);
+			Arrays.fill(arc, -1);
+			frontier = new IndexedHeap(size);
+		}
+
+		/**
+		 * Records that node can be reached through arc at the given cost
+		 *
+		 * @requires newCost < cost[node]
+		 */
+		void reach(int node, int through, double newCost) {
+			if (cost[node] == Double.POSITIVE_INFINITY)
+				touched[touchedCount++] = node;
+			cost[node] = newCost;
+			arc[node] = through;
+			frontier.offer(node, newCost);
+			if (stats != null)
+				stats.push(frontier.size());
+		}
+
+		/**
+		 * Records the path through arc to node if it is the cheapest known path
+		 */
+		void relax(int node, int through, double newCost) {
+			if (stats != null)
+				stats.relax();
+			if (newCost < cost[node])
+				reach(node, through, newCost);
+		}
+
+		/**
+		 * Clears the state left by the previous search
+		 */
+		void reset() {
+			for (int i = 0; i < touchedCount; i++) {
+				cost[touched[i]] = Double.POSITIVE_INFINITY;
+				arc[touched[i]] = -1;
+			}
+			touchedCount = 0;
+			settledCount = 0;
+			frontier.clear();
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package hw7;
+
+import java.util.Arrays;
+
+import hw5.IndexedGraph;
+
+/**
+ * <b>Csr</b> represents the edges of an IndexedGraph copied into flat arrays
+ * in compressed sparse row form, so that a search can walk them without going
+ * through the IndexedGraph interface.<br>
+ * A Csr may hold the edges of the graph as they are, the edges of its reverse,
+ * so that the row of each node lists the edges entering it, or only the edges
+ * on one side of a weight. The arrays are filled once and never changed, and
+ * are read directly by the searches that use them.
+ */
+final class Csr {
+
+	/** Stores where the row of each node begins in targets and weights */
+	final int[] offsets;
+
+	/** Stores the other end of each edge */
+	final int[] targets;
+
+	/** Stores the weight of each edge */
+	final double[] weights;
+
+	// Abstraction Function:
+	// A Csr represents, for the node with id i, the edges to targets[k] of
+	// weight weights[k] for every k in [offsets[i], offsets[i + 1]).
+	//
+	// Representation Invariant:
+	// * offsets, targets, weights != null and offsets.length >= 1
+	// * offsets[0] == 0 and offsets[i] <= offsets[i + 1] for every i
+	// * targets.length == weights.length == offsets[offsets.length - 1]
+
+	/**
+	 * Constructs a new Csr from filled arrays, which are kept, not copied
+	 */
+	private Csr(int[] offsets, int[] targets, double[] weights) {
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+		checkRep();
+	}
+
+	/**
+	 * @param graph
+	 *            The graph whose edges are copied
+	 * @requires graph != null && graph.isWeighted()
+	 * @return the edges of graph, each in the row of the node it leaves
+	 */
+	static Csr of(IndexedGraph<?, Double> graph) {
+		int n = graph.size();
+		int[] offsets = new int[n + 1];
+		int[] targets = new int[graph.edgeCount()];
+		double[] weights = new double[graph.edgeCount()];
+		for (int i = 0; i < n; i++) {
+			offsets[i + 1] = graph.endEdge(i);
+		}
+		for (int e = 0; e < targets.length; e++) {
+			targets[e] = graph.target(e);
+			weights[e] = graph.weight(e);
+		}
+		return new Csr(offsets, targets, weights);
+	}
+
+	/**
+	 * @param graph
+	 *            The graph whose edges are copied
+	 * @requires graph != null && graph.isWeighted()
+	 * @return the edges of graph, each in the row of the node it enters and
+	 *         pointing back to the node it leaves. Each row is in order of the
+	 *         node the edges leave
+	 */
+	static Csr reverse(IndexedGraph<?, Double> graph) {
+		int n = graph.size();
+
+		// counts the edges entering each node to find where each row begins
+		int[] offsets = new int[n + 1];
+		for (int e = 0; e < graph.edgeCount(); e++) {
+			offsets[graph.target(e) + 1]++;
+		}
+		for (int i = 0; i < n; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+
+		// fills each row in order of parent
+		int[] targets = new int[graph.edgeCount()];
+		double[] weights = new double[graph.edgeCount()];
+		int[] next = Arrays.copyOf(offsets, n);
+		for (int node = 0; node < n; node++) {
+			for (int e = graph.firstEdge(node); e < graph.endEdge(node); e++) {
+				int k = next[graph.target(e)]++;
+				targets[k] = node;
+				weights[k] = graph.weight(e);
+			}
+		}
+		return new Csr(offsets, targets, weights);
+	}
+
+	/**
+	 * @param graph
+	 *            The graph whose edges are copied
+	 * @param delta
+	 *            The weight that splits the edges
+	 * @param heavy
+	 *            Whether the edges heavier than delta are kept instead of the
+	 *            others
+	 * @requires graph != null && graph.isWeighted()
+	 * @return the edges of graph on the chosen side of delta, each in the row of
+	 *         the node it leaves
+	 */
+	static Csr split(IndexedGraph<?, Double> graph, double delta, boolean heavy) {
+		int n = graph.size();
+		int[] offsets = new int[n + 1];
+		for (int node = 0; node < n; node++) {
+			offsets[node + 1] = offsets[node];
+			for (int e = graph.firstEdge(node); e < graph.endEdge(node); e++) {
+				if ((graph.weight(e) > delta) == heavy)
+					offsets[node + 1]++;
+			}
+		}
+		int[] targets = new int[offsets[n]];
+		double[] weights = new double[offsets[n]];
+		int k = 0;
+		for (int node = 0; node < n; node++) {
+			for (int e = graph.firstEdge(node); e < graph.endEdge(node); e++) {
+				if ((graph.weight(e) > delta) == heavy) {
+					targets[k] = graph.target(e);
+					weights[k++] = graph.weight(e);
+				}
+			}
+		}
+		return new Csr(offsets, targets, weights);
+	}
+
+	/**
+	 * @return the number of nodes
+	 */
+	int size() {
+		return offsets.length - 1;
+	}
+
+	/**
+	 * @requires 0 <= node < size()
+	 * @return the number of edges in the row of node
+	 */
+	int degree(int node) {
+		return offsets[node + 1] - offsets[node];
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert (offsets != null && targets != null && weights != null);
+		assert (offsets.length >= 1 && offsets[0] == 0) : "the first row must begin at 0";
+		assert (targets.length == weights.length && targets.length == offsets[offsets.length - 1])
+				: "every edge must have a target and a weight";
+	}
+}
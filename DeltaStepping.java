@@ -0,0 +1,440 @@
+package hw7;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import hw5.IndexedGraph;
+
+/**
+ * <b>DeltaStepping<N></b> finds the cost of the cheapest path from one node to
+ * every other node of a weighted graph with the delta-stepping algorithm of
+ * Meyer and Sanders, relaxing edges on the threads of a ForkJoinPool.<br>
+ * Nodes wait in buckets that each cover a range of delta in cost. The lowest
+ * non-empty bucket is emptied by relaxing the light edges, those of weight at
+ * most delta, of all its nodes in parallel, over and over until no node falls
+ * back into it; then the heavy edges of every node it held are relaxed in
+ * parallel, which can only fill later buckets. A small delta settles nodes in
+ * nearly the order Dijkstra's algorithm would, and a large one relaxes more
+ * edges per round but relaxes some of them more than once.
+ * <p>
+ * The costs are the same as DijkstraEngine finds, since each one is the least
+ * sum of a node's cost and an edge weight over the edges into it. Costs are
+ * lowered with compare-and-set, so no locks are taken. The light and heavy
+ * edges are split into separate arrays when the object is constructed; it is a
+ * snapshot and is not updated if the graph changes. Each call allocates its own
+ * state, so one object can be used by several threads at once.
+ *
+ * @param <N>
+ *            The object type of each node in the graph. N must extend Comparable
+ */
+public final class DeltaStepping<N extends Comparable<N>> {
+
+	/** The fewest nodes of a round whose edges are split across several tasks */
+	private static final int NODES_PER_TASK = 64;
+
+	/** Stores the graph whose nodes are looked up */
+	private final IndexedGraph<N, Double> graph;
+
+	/** Stores the range of costs covered by each bucket */
+	private final double delta;
+
+	/** Stores the pool that relaxes the edges */
+	private final ForkJoinPool pool;
+
+	/** Stores the edges of weight at most delta in CSR form */
+	private final Csr light;
+
+	/** Stores the edges of weight greater than delta in CSR form */
+	private final Csr heavy;
+
+	/** Stores the number of buckets in the ring, which spans the greatest weight */
+	private final int ring;
+
+	/** Stores the number of rounds of relaxation done by the last search */
+	private volatile int roundCount = 0;
+
+	// Abstraction Function:
+	// A DeltaStepping searches graph with buckets delta wide, relaxing edges on
+	// the threads of pool. The edges of graph leaving the node with id i are the
+	// edges of i in light, whose weights are at most delta, together with the
+	// edges of i in heavy, whose weights are greater.
+	//
+	// Representation Invariant:
+	// * graph, pool, light, heavy != null
+	// * delta > 0 and 2 <= ring <= graph.size() + 2
+	// * light and heavy each have graph.size() nodes
+
+	/**
+	 * Constructs a new search of graph with a delta of the greatest edge weight
+	 * divided by the mean number of edges per node, which balances the rounds of
+	 * relaxation against the edges relaxed more than once
+	 *
+	 * @param graph
+	 *            The graph to be searched
+	 * @param pool
+	 *            The pool whose threads relax the edges
+	 * @requires graph, pool != null && graph.isWeighted() && every edge of graph
+	 *           is non-negative and finite
+	 */
+	public DeltaStepping(IndexedGraph<N, Double> graph, ForkJoinPool pool) {
+		this(graph, defaultDelta(graph), pool);
+	}
+
+	/**
+	 * Constructs a new search of graph with buckets delta wide. A delta smaller
+	 * than the greatest edge weight divided by the number of nodes is raised to
+	 * that quotient, so the ring never holds more than graph.size() + 2 buckets
+	 *
+	 * @param graph
+	 *            The graph to be searched
+	 * @param delta
+	 *            The range of costs covered by each bucket
+	 * @param pool
+	 *            The pool whose threads relax the edges
+	 * @requires graph, pool != null && graph.isWeighted() && every edge of graph
+	 *           is non-negative and finite && delta > 0
+	 */
+	public DeltaStepping(IndexedGraph<N, Double> graph, double delta, ForkJoinPool pool) {
+		this.graph = graph;
+		this.pool = pool;
+		double greatest = 0.0;
+		for (int e = 0; e < graph.edgeCount(); e++) {
+			greatest = Math.max(greatest, graph.weight(e));
+		}
+		// a tiny delta would need a bucket for every delta up to the greatest weight
+		this.delta = Math.max(delta, greatest / Math.max(graph.size(), 1));
+		light = Csr.split(graph, this.delta, false);
+		heavy = Csr.split(graph, this.delta, true);
+		// every queued cost lies within the greatest weight of the bucket being emptied
+		ring = (int) Math.floor(greatest / this.delta) + 2;
+		checkRep();
+	}
+
+	/**
+	 * @return the range of costs covered by each bucket, after any raise made
+	 *         by the constructor
+	 */
+	public double getDelta() {
+		return delta;
+	}
+
+	/**
+	 * @return the number of rounds of parallel relaxation done by the last
+	 *         search, counting each round of light and of heavy edges
+	 */
+	public int getRoundCount() {
+		return roundCount;
+	}
+
+	/**
+	 * Finds the cost of the least-cost path from start to every node
+	 *
+	 * @param start
+	 *            The node from which every path begins
+	 * @requires start != null
+	 * @return an array holding, at the id of each node of the graph, the cost of
+	 *         the least-cost path from start to it, which is
+	 *         Double.POSITIVE_INFINITY if there is none. Every entry is infinite
+	 *         if start is not in the graph
+	 */
+	public double[] distancesFrom(N start) {
+		int n = graph.size();
+		AtomicLongArray cost = new AtomicLongArray(n);
+		long infinite = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+		for (int i = 0; i < n; i++) {
+			cost.set(i, infinite);
+		}
+		int source = graph.idOf(start);
+		if (source >= 0) {
+			roundCount = run(source, cost);
+		} else {
+			roundCount = 0;
+		}
+
+		double[] distance = new double[n];
+		for (int i = 0; i < n; i++) {
+			distance[i] = Double.longBitsToDouble(cost.get(i));
+		}
+		return distance;
+	}
+
+	/**
+	 * Empties the buckets in order, starting with source in the first
+	 *
+	 * @modifies cost
+	 * @return the number of rounds of relaxation
+	 */
+	private int run(int source, AtomicLongArray cost) {
+		int n = graph.size();
+		Buckets buckets = new Buckets(ring);
+		// stamps each node with the last round that took it, so no round takes a node twice
+		int[] taken = new int[n];
+		// stamps each node with the last bucket that held it, so its heavy edges are relaxed once
+		int[] held = new int[n];
+		int[] emptied = new int[Math.max(n, 1)];
+		int[] improved = new int[16];
+		AtomicInteger improvedCount = new AtomicInteger();
+		int rounds = 0;
+
+		cost.set(source, Double.doubleToRawLongBits(0.0));
+		buckets.add(0L, source);
+		long index = 0L;
+		while (!buckets.isEmpty()) {
+			index = buckets.next(index);
+			int bucket = (int) index + 1;
+			int emptiedCount = 0;
+			while (buckets.size(index) > 0) {
+				rounds++;
+				int[] frontier = buckets.take(index);
+				int count = 0;
+				long edges = 0;
+				for (int node : frontier) {
+					// skips repeats and nodes whose cost has since fallen into an earlier bucket
+					if (taken[node] != rounds && bucketOf(Double.longBitsToDouble(cost.get(node))) == index) {
+						taken[node] = rounds;
+						frontier[count++] = node;
+						edges += light.degree(node);
+						if (held[node] != bucket) {
+							held[node] = bucket;
+							emptied[emptiedCount++] = node;
+						}
+					}
+				}
+				improved = relax(light, frontier, count, edges, cost, improved, improvedCount);
+				gather(improved, improvedCount, cost, buckets);
+			}
+
+			// no node of the bucket can get any cheaper, so its heavy edges are relaxed once
+			long edges = 0;
+			for (int k = 0; k < emptiedCount; k++) {
+				edges += heavy.degree(emptied[k]);
+			}
+			if (edges > 0) {
+				rounds++;
+				improved = relax(heavy, emptied, emptiedCount, edges, cost, improved, improvedCount);
+				gather(improved, improvedCount, cost, buckets);
+			}
+		}
+		return rounds;
+	}
+
+	/**
+	 * Relaxes the edges in edges of the first count nodes of frontier in parallel
+	 *
+	 * @return an array holding every node whose cost was lowered, with repeats,
+	 *         in its first improvedCount entries; improved if it was big enough
+	 */
+	private int[] relax(Csr edges, int[] frontier, int count, long edgeCount, AtomicLongArray cost, int[] improved,
+			AtomicInteger improvedCount) {
+		if (improved.length < edgeCount)
+			improved = new int[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(edgeCount, improved.length * 2L))];
+		improvedCount.set(0);
+		Relax task = new Relax(edges, frontier, 0, count, cost, improved, improvedCount,
+				Math.max(NODES_PER_TASK, count / (4 * pool.getParallelism())));
+		if (count > NODES_PER_TASK) {
+			pool.invoke(task);
+		} else {
+			// a small round is not worth handing to the pool
+			task.compute();
+		}
+		return improved;
+	}
+
+	/**
+	 * Puts every node whose cost was lowered into the bucket for its new cost. A
+	 * node may be left in an earlier bucket too; it is skipped when that bucket
+	 * is emptied.
+	 *
+	 * @modifies buckets
+	 */
+	private void gather(int[] improved, AtomicInteger improvedCount, AtomicLongArray cost, Buckets buckets) {
+		int count = improvedCount.get();
+		for (int k = 0; k < count; k++) {
+			int node = improved[k];
+			buckets.add(bucketOf(Double.longBitsToDouble(cost.get(node))), node);
+		}
+	}
+
+	/**
+	 * @return the number of the bucket that holds a node of the given cost
+	 */
+	private long bucketOf(double nodeCost) {
+		return (long) Math.floor(nodeCost / delta);
+	}
+
+	/**
+	 * @return the greatest edge weight of graph divided by the mean number of
+	 *         edges per node, or 1 if that is not positive
+	 */
+	private static double defaultDelta(IndexedGraph<?, Double> graph) {
+		double greatest = 0.0;
+		for (int e = 0; e < graph.edgeCount(); e++) {
+			greatest = Math.max(greatest, graph.weight(e));
+		}
+		double degree = graph.size() == 0 ? 1.0 : Math.max(1.0, (double) graph.edgeCount() / graph.size());
+		double delta = greatest / degree;
+		return delta > 0.0 ? delta : 1.0;
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert (graph != null && pool != null && light != null && heavy != null);
+		assert (delta > 0.0) : "delta must be positive";
+		assert (ring >= 2) : "the ring must hold at least two buckets";
+		assert (ring <= graph.size() + 2) : "the ring cannot hold more buckets than nodes";
+		assert (light.size() == graph.size() && heavy.size() == graph.size())
+				: "every node must have its edges split";
+	}
+
+	/**
+	 * <b>Buckets</b> is a ring of growable lists of node ids, one for each
+	 * bucket that can hold a node while the lowest bucket is being emptied. A
+	 * node may sit in several buckets, or in one bucket more than once.
+	 */
+	private static class Buckets {
+		/** stores the ids in each slot of the ring */
+		final int[][] ids;
+
+		/** stores the number of ids in each slot */
+		final int[] sizes;
+
+		/** stores the number of ids in every slot */
+		int total = 0;
+
+		Buckets(int ring) {
+			ids = new int[ring][];
+			sizes = new int[ring];
+			for (int s = 0; s < ring; s++) {
+				ids[s] = new int[4];
+			}
+		}
+
+		/**
+		 * Adds node to the bucket with the given number
+		 */
+		void add(long index, int node) {
+			int s = (int) (index % ids.length);
+			if (sizes[s] == ids[s].length)
+				ids[s] = Arrays.copyOf(ids[s], ids[s].length * 2);
+			ids[s][sizes[s]++] = node;
+			total++;
+		}
+
+		/**
+		 * @return the number of ids in the bucket with the given number
+		 */
+		int size(long index) {
+			return sizes[(int) (index % ids.length)];
+		}
+
+		/**
+		 * Empties the bucket with the given number
+		 *
+		 * @return the ids that were in it
+		 */
+		int[] take(long index) {
+			int s = (int) (index % ids.length);
+			int[] taken = Arrays.copyOf(ids[s], sizes[s]);
+			total -= sizes[s];
+			sizes[s] = 0;
+			return taken;
+		}
+
+		/**
+		 * @requires !isEmpty()
+		 * @return the number of the first non-empty bucket at or after index
+		 */
+		long next(long index) {
+			while (size(index) == 0) {
+				index++;
+			}
+			return index;
+		}
+
+		/**
+		 * @return true if every bucket is empty, false otherwise
+		 */
+		boolean isEmpty() {
+			return total == 0;
+		}
+	}
+
+	/**
+	 * <b>Relax</b> relaxes the edges of a range of the nodes of one round,
+	 * splitting the range in half until it is no larger than the chunk size.
+	 * Each lowered cost is recorded in a shared array at a position claimed from
+	 * a shared counter.
+	 */
+	private static class Relax extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		/** stores the edges being relaxed */
+		private final Csr edges;
+
+		/** stores the nodes of the round */
+		private final int[] frontier;
+
+		/** stores the first node of the range */
+		private final int from;
+
+		/** stores one past the last node of the range */
+		private final int to;
+
+		/** stores the bits of the cost of every node */
+		private final AtomicLongArray cost;
+
+		/** stores every node whose cost was lowered */
+		private final int[] improved;
+
+		/** stores the number of entries of improved in use */
+		private final AtomicInteger improvedCount;
+
+		/** stores the greatest number of nodes relaxed without splitting */
+		private final int chunk;
+
+		Relax(Csr edges, int[] frontier, int from, int to, AtomicLongArray cost, int[] improved,
+				AtomicInteger improvedCount, int chunk) {
+			this.edges = edges;
+			this.frontier = frontier;
+			this.from = from;
+			this.to = to;
+			this.cost = cost;
+			this.improved = improved;
+			this.improvedCount = improvedCount;
+			this.chunk = chunk;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > chunk) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new Relax(edges, frontier, from, mid, cost, improved, improvedCount, chunk),
+						new Relax(edges, frontier, mid, to, cost, improved, improvedCount, chunk));
+				return;
+			}
+
+			for (int k = from; k < to; k++) {
+				int node = frontier[k];
+				double base = Double.longBitsToDouble(cost.get(node));
+				for (int e = edges.offsets[node]; e < edges.offsets[node + 1]; e++) {
+					int child = edges.targets[e];
+					long bits = Double.doubleToRawLongBits(base + edges.weights[e]);
+					// non-negative doubles compare the same way as their bits
+					long old = cost.get(child);
+					while (bits < old) {
+						if (cost.compareAndSet(child, old, bits)) {
+							improved[improvedCount.getAndIncrement()] = child;
+							break;
+						}
+						old = cost.get(child);
+					}
+				}
+			}
+		}
+	}
+}
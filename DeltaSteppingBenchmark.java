@@ -0,0 +1,205 @@
+package hw7;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import hw5.FrozenGraph;
+import hw5.Graph;
+
+/**
+ * <b>DeltaSteppingBenchmark</b> is a command line utility that measures how
+ * DeltaStepping scales with the number of threads on the Marvel dataset.<br>
+ * Usage: DeltaSteppingBenchmark [marvelFile] [sources] [maxThreads] [delta]
+ * <br>
+ * or: DeltaSteppingBenchmark -random [seeds] [maxThreads]
+ * <p>
+ * The distances from the same random characters to every other character are
+ * found first by DijkstraEngine.searchAll on one thread, and then by
+ * DeltaStepping on pools of 1, 2, 4 and so on up to maxThreads threads, which
+ * defaults to the number of processors. For each pool it prints the time per
+ * source, the speedup over one thread and over DijkstraEngine, and the number
+ * of sources whose distances differ from DijkstraEngine's. Without a delta the
+ * default of DeltaStepping is used.
+ * <p>
+ * With -random it instead checks DeltaStepping against DijkstraEngine on random
+ * graphs, a sparse and a dense one for each seed, with whole weights that tie
+ * often on even seeds and fractional weights on odd ones. Each graph is
+ * searched with the default delta, a tiny delta and a delta above every
+ * weight, on one thread and on maxThreads threads, and the number of searches
+ * whose distances differ is printed.
+ */
+public class DeltaSteppingBenchmark {
+
+	// Not an ADT
+
+	/** The number of start nodes searched in each random graph */
+	private static final int RANDOM_STARTS = 3;
+
+	public static void main(String[] args) throws MarvelParser2.MalformedDataException {
+		if (args.length > 0 && args[0].equals("-random")) {
+			int seeds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+			int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+			crossCheck(seeds, maxThreads);
+			return;
+		}
+		String marvelFile = args.length > 0 ? args[0] : "src/hw7/data/marvel.tsv";
+		int sources = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+		int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		double delta = args.length > 3 ? Double.parseDouble(args[3]) : 0.0;
+		if (!new File(marvelFile).exists()) {
+			System.out.println("Skipping Marvel: " + marvelFile + " not found");
+			return;
+		}
+
+		Set<String> characters = new HashSet<String>();
+		Map<String, List<String>> books = new HashMap<String, List<String>>();
+		MarvelParser2.parseData(marvelFile, characters, books);
+		FrozenGraph<String, Double> graph = MarvelPaths2.createWeightedGraph(characters, books).freeze();
+		System.out.println("Marvel: " + graph.size() + " characters, " + graph.edgeCount() + " edges, " + sources
+				+ " sources");
+
+		// a fixed seed keeps the sources the same from run to run
+		List<String> names = new ArrayList<String>(characters);
+		Collections.sort(names);
+		Random random = new Random(331);
+		List<String> starts = new ArrayList<String>(sources);
+		for (int i = 0; i < sources; i++) {
+			starts.add(names.get(random.nextInt(names.size())));
+		}
+
+		// finds the expected distances first, which also lets the JIT compile the search
+		DijkstraEngine<String> engine = new DijkstraEngine<String>(graph);
+		double[][] expected = new double[sources][graph.size()];
+		for (int s = 0; s < sources; s++) {
+			ShortestPathTree<String> tree = engine.searchAll(starts.get(s));
+			for (int i = 0; i < graph.size(); i++) {
+				expected[s][i] = tree.distanceTo(graph.nodeOf(i));
+			}
+		}
+		long before = System.nanoTime();
+		for (int s = 0; s < sources; s++) {
+			engine.searchAll(starts.get(s));
+		}
+		double sequential = (System.nanoTime() - before) / 1e6 / sources;
+		System.out.println(String.format("\t%-24s %8.2f ms per source", "DijkstraEngine", sequential));
+
+		double single = 0.0;
+		for (int threads = 1;; threads = Math.min(threads * 2, maxThreads)) {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			DeltaStepping<String> search = delta > 0.0 ? new DeltaStepping<String>(graph, delta, pool)
+					: new DeltaStepping<String>(graph, pool);
+			// checks the distances in an untimed pass, which also lets the JIT compile the search
+			int mismatches = 0;
+			long rounds = 0;
+			for (int s = 0; s < sources; s++) {
+				if (!Arrays.equals(search.distancesFrom(starts.get(s)), expected[s]))
+					mismatches++;
+				rounds += search.getRoundCount();
+			}
+			before = System.nanoTime();
+			for (int s = 0; s < sources; s++) {
+				search.distancesFrom(starts.get(s));
+			}
+			double elapsed = (System.nanoTime() - before) / 1e6 / sources;
+			pool.shutdown();
+			if (threads == 1) {
+				single = elapsed;
+				System.out.println(String.format("\tdelta %.6f", search.getDelta()));
+			}
+			System.out.println(String.format(
+					"\t%-24s %8.2f ms per source   %5.2fx one thread   %5.2fx Dijkstra   %6d rounds",
+					"DeltaStepping x" + threads, elapsed, single / elapsed, sequential / elapsed, rounds / sources));
+			if (mismatches > 0)
+				System.out.println("\t\t" + mismatches + " sources with different distances");
+			if (threads >= maxThreads)
+				break;
+		}
+	}
+
+	/**
+	 * Checks DeltaStepping against DijkstraEngine on random graphs and prints
+	 * the number of searches whose distances differ
+	 *
+	 * @param seeds
+	 *            The number of seeds, each of which makes a sparse and a dense
+	 *            graph
+	 * @param maxThreads
+	 *            The number of threads of the larger pool
+	 * @requires seeds >= 0 && maxThreads > 0
+	 */
+	private static void crossCheck(int seeds, int maxThreads) {
+		// each shape is a number of nodes and a number of edges leaving each node
+		int[][] shapes = { { 2000, 3 }, { 200, 60 } };
+		double[] deltas = { 0.0, 1e-9, 1e9 };
+		int searches = 0;
+		int mismatches = 0;
+		ForkJoinPool single = new ForkJoinPool(1);
+		ForkJoinPool pool = new ForkJoinPool(maxThreads);
+		for (int seed = 0; seed < seeds; seed++) {
+			for (int[] shape : shapes) {
+				Random random = new Random(seed * 31 + shape[0]);
+				FrozenGraph<Integer, Double> graph = randomGraph(shape[0], shape[1], seed % 2 == 0, random);
+				DijkstraEngine<Integer> engine = new DijkstraEngine<Integer>(graph);
+				for (int s = 0; s < RANDOM_STARTS; s++) {
+					Integer start = random.nextInt(shape[0]);
+					ShortestPathTree<Integer> tree = engine.searchAll(start);
+					double[] expected = new double[graph.size()];
+					for (int i = 0; i < graph.size(); i++) {
+						expected[i] = tree.distanceTo(graph.nodeOf(i));
+					}
+					for (double delta : deltas) {
+						for (ForkJoinPool p : new ForkJoinPool[] { single, pool }) {
+							DeltaStepping<Integer> search = delta > 0.0 ? new DeltaStepping<Integer>(graph, delta, p)
+									: new DeltaStepping<Integer>(graph, p);
+							searches++;
+							if (!Arrays.equals(search.distancesFrom(start), expected)) {
+								mismatches++;
+								System.out.println(String.format("	seed %d, %d nodes, delta %g, %d threads: mismatch",
+										seed, shape[0], search.getDelta(), p.getParallelism()));
+							}
+						}
+					}
+				}
+			}
+		}
+		single.shutdown();
+		pool.shutdown();
+		System.out.println("Random graphs: " + searches + " searches, " + mismatches + " with different distances");
+	}
+
+	/**
+	 * @param nodes
+	 *            The number of nodes, which are the Integers from 0
+	 * @param degree
+	 *            The number of edges leaving each node
+	 * @param whole
+	 *            Whether each weight is a whole number from 0 to 9, so that many
+	 *            paths tie, instead of a fraction from 0 to 10
+	 * @param random
+	 *            The source of the edges and weights
+	 * @requires nodes > 0 && degree >= 0 && random != null
+	 * @return a frozen graph in which each node has degree edges to random nodes
+	 */
+	private static FrozenGraph<Integer, Double> randomGraph(int nodes, int degree, boolean whole, Random random) {
+		Graph.Builder<Integer, Double> builder = new Graph.Builder<Integer, Double>(nodes, nodes * degree);
+		for (int i = 0; i < nodes; i++) {
+			builder.addNode(i);
+		}
+		for (int i = 0; i < nodes; i++) {
+			for (int d = 0; d < degree; d++) {
+				double weight = whole ? random.nextInt(10) : random.nextDouble() * 10.0;
+				builder.addEdge(i, random.nextInt(nodes), weight);
+			}
+		}
+		return builder.build().freeze();
+	}
+}
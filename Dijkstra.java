@@ -1,14 +1,24 @@
 package hw7;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
 
+import hw5.EdgeStorage;
 import hw5.Graph;
+import hw5.IndexedGraph;
+import hw5.SearchLimit;
+import hw5.SearchOutcome;
+import hw5.SearchStats;
+import hw5.WeightedGraph;
 
 /**
  * <b>Dijkstra</b> is a class containing only static methods that allows one to
@@ -43,9 +53,13 @@ public class Dijkstra {
 	 */
 	public static <N extends Comparable<N>, E extends Comparable<E>> Graph<N, Double>
 			createGraph(Set<N> nodes, Map<E, List<N>> edges) {
-		// formats the data so that it is easier to use
-		Map<List<N>, Integer> newEdges = formatData(edges);
-		Graph<N, Double> g = new Graph<N, Double>();
+		// counts the pairs by id so that no key or count is boxed
+		List<N> interned = new ArrayList<N>();
+		PairCounter counts = countPairs(edges, interned);
+
+		// searches only ever use the cheapest edge between two nodes
+		Graph.Builder<N, Double> g = new Graph.Builder<N, Double>(nodes.size(), counts.size())
+				.storage(EdgeStorage.MIN_ONLY);
 
 		// adds each node to graph
 		for (N node : nodes) {
@@ -53,15 +67,54 @@ public class Dijkstra {
 		}
 
 		// adds each edge to the graph
-		for (List<N> lst : newEdges.keySet()) {
-			g.addEdge(lst.get(0), lst.get(1), 1.0 / newEdges.get(lst));
+		for (int slot = 0; slot < counts.capacity(); slot++) {
+			long key = counts.keyAt(slot);
+			if (key != PairCounter.EMPTY) {
+				g.addEdge(interned.get(PairCounter.first(key)), interned.get(PairCounter.second(key)),
+						1.0 / counts.countAt(slot));
+			}
+		}
+		return g.build();
+	}
+
+	/**
+	 * Creates a new WeightedGraph with edges weighted as the multiplicative inverse
+	 * of the number of edges between a parent and child node.<br>
+	 * This is equivalent to createGraph except that the weights are stored as
+	 * primitives rather than as Double labels.
+	 * 
+	 * @param nodes
+	 *            A set of all the nodes to be added to the graph
+	 * @param edges
+	 *            A map containing the number of edges between a parent and child
+	 *            node
+	 * @requires nodes, edges != null
+	 * @return a new WeightedGraph where edges are weighted as the multiplicative
+	 *         inverse of the number of edges they would originally have.
+	 */
+	public static <N extends Comparable<N>, E extends Comparable<E>> WeightedGraph<N>
+			createWeightedGraph(Set<N> nodes, Map<E, List<N>> edges) {
+		List<N> interned = new ArrayList<N>();
+		PairCounter counts = countPairs(edges, interned);
+		WeightedGraph<N> g = new WeightedGraph<N>(nodes.size());
+		for (N node : nodes) {
+			g.addNode(node);
+		}
+		for (int slot = 0; slot < counts.capacity(); slot++) {
+			long key = counts.keyAt(slot);
+			if (key != PairCounter.EMPTY) {
+				g.addEdge(interned.get(PairCounter.first(key)), interned.get(PairCounter.second(key)),
+						1.0 / counts.countAt(slot));
+			}
 		}
 		return g;
 	}
 
 	/**
 	 * Implements Dijkstra's algorithm to find the least-cost path between two nodes
-	 * and returns this path as a list of edges.
+	 * and returns this path as a list of edges.<br>
+	 * This creates a new DijkstraEngine for every call. Callers that search the
+	 * same graph repeatedly can keep their own engine to reuse its arrays.
 	 * 
 	 * @param start
 	 *            The node from which the search begins
@@ -78,192 +131,377 @@ public class Dijkstra {
 	 *         Returns null if no path exists between start and dest.
 	 */
 	public static <N extends Comparable<N>> List<Edge<N, Double>> search(N start, N dest, Graph<N, Double> graph) {
-		// initializes variables necessary to carry out Dijkstra's algorithm
-		PriorityQueue<Path<N>> active = new PriorityQueue<Path<N>>();
-		Set<N> finished = new HashSet<N>();
-
-		// adds start node to the queue, indicated by an empty path and a cost of 0.0
-		active.add(new Path<N>(0.0, new ArrayList<Edge<N, Double>>()));
-
-		while (!active.isEmpty()) {
-			// allows us to access the cumulative cost of minPath later in algorithm
-			Path<N> minPathWrapper = active.remove();
-
-			// unwraps the current minimum path
-			List<Edge<N, Double>> minPath = minPathWrapper.path;
-
-			// if there are no entries in minPath it means it must be the path from start to
-			// itself, therefore we must have this special case
-			N minDest;
-			if (minPath.size() == 0) {
-				minDest = start;
-			} else {
-				minDest = minPath.get(minPath.size() - 1).getChild();
-			}
+		return search(start, dest, graph, null);
+	}
 
-			// if this is what we were looking for we can end here
-			if (minDest.equals(dest)) {
-				return minPath;
-			}
+	/**
+	 * Finds the least-cost path between two nodes as search does, recording the
+	 * work done by the search
+	 *
+	 * @param start
+	 *            The node from which the search begins
+	 * @param dest
+	 *            The node at which the search ends
+	 * @param graph
+	 *            The graph in which the search is taking place
+	 * @param stats
+	 *            The record the search adds its work to, or null to not record it
+	 * @requires start, dest, graph != null
+	 * @modifies stats
+	 * @return the path search would return
+	 */
+	public static <N extends Comparable<N>> List<Edge<N, Double>> search(N start, N dest, Graph<N, Double> graph,
+			SearchStats stats) {
+		DijkstraEngine<N> engine = new DijkstraEngine<N>(graph);
+		engine.setStats(stats);
+		return engine.search(start, dest);
+	}
 
-			// if not, then we make sure we haven't already visited this node
-			if (!finished.contains(minDest)) {
-				finished.add(minDest);
+	/**
+	 * Implements Dijkstra's algorithm on an IndexedGraph, such as a FrozenGraph or
+	 * a MappedGraph, to find the least-cost path between two nodes and returns
+	 * this path as a list of edges.<br>
+	 * This creates a new DijkstraEngine for every call. Callers that search the
+	 * same graph repeatedly can keep their own engine to reuse its arrays.
+	 *
+	 * @param start
+	 *            The node from which the search begins
+	 * @param dest
+	 *            The node at which the search ends
+	 * @param graph
+	 *            The weighted graph in which the search is taking place
+	 * @requires start, dest, graph != null && graph.isWeighted()
+	 * @return a list of edges representing the least-cost path between start and
+	 *         dest.<br>
+	 *         Returns an empty list if start == dest.<br>
+	 *         Returns null if no path exists between start and dest.
+	 */
+	public static <N extends Comparable<N>> List<Edge<N, Double>> search(N start, N dest,
+			IndexedGraph<N, Double> graph) {
+		return search(start, dest, graph, null);
+	}
 
-				// cycle through all the children and check if each child has yet to be visited
-				for (N child : graph.getChildren(minDest)) {
-					if (!finished.contains(child)) {
+	/**
+	 * Finds the least-cost path between two nodes of an IndexedGraph as search
+	 * does, recording the work done by the search
+	 *
+	 * @param start
+	 *            The node from which the search begins
+	 * @param dest
+	 *            The node at which the search ends
+	 * @param graph
+	 *            The weighted graph in which the search is taking place
+	 * @param stats
+	 *            The record the search adds its work to, or null to not record it
+	 * @requires start, dest, graph != null && graph.isWeighted()
+	 * @modifies stats
+	 * @return the path search would return
+	 */
+	public static <N extends Comparable<N>> List<Edge<N, Double>> search(N start, N dest,
+			IndexedGraph<N, Double> graph, SearchStats stats) {
+		DijkstraEngine<N> engine = new DijkstraEngine<N>(graph);
+		engine.setStats(stats);
+		return engine.search(start, dest);
+	}
 
-						// copies all the values into a newPath because of Java reference semantics
-						List<Edge<N, Double>> newPath = new ArrayList<Edge<N, Double>>();
-						for (Edge<N, Double> e : minPath) {
-							newPath.add(e);
-						}
+	/**
+	 * Finds the least-cost path between two nodes as search does, unless limit
+	 * stops the search first, so that a search for a distant or unreachable node
+	 * can be cut short
+	 *
+	 * @param start
+	 *            The node from which the search begins
+	 * @param dest
+	 *            The node at which the search ends
+	 * @param graph
+	 *            The graph in which the search is taking place
+	 * @param limit
+	 *            The bounds on the search
+	 * @requires start, dest, graph, limit != null
+	 * @return an outcome holding the path search would return if the search
+	 *         finished within limit, or else the bound that stopped it and the
+	 *         nodes of its frontier with the least cost
+	 */
+	public static <N extends Comparable<N>> SearchOutcome<List<Edge<N, Double>>, N> searchWithin(N start, N dest,
+			Graph<N, Double> graph, SearchLimit limit) {
+		return new DijkstraEngine<N>(graph).searchWithin(start, dest, limit);
+	}
 
-						// adds this newPath into the queue so it can be check against the others
-						double edgeCost = graph.getEdges(minDest, child).get(0);
-						active.add(minPathWrapper.add(new Edge<N, Double>(new Double(edgeCost), minDest, child)));
-					}
-				}
+	/**
+	 * Finds the least-cost path between two nodes of an IndexedGraph as search
+	 * does, unless limit stops the search first
+	 *
+	 * @param start
+	 *            The node from which the search begins
+	 * @param dest
+	 *            The node at which the search ends
+	 * @param graph
+	 *            The weighted graph in which the search is taking place
+	 * @param limit
+	 *            The bounds on the search
+	 * @requires start, dest, graph, limit != null && graph.isWeighted()
+	 * @return an outcome holding the path search would return if the search
+	 *         finished within limit, or else the bound that stopped it and the
+	 *         nodes of its frontier with the least cost
+	 */
+	public static <N extends Comparable<N>> SearchOutcome<List<Edge<N, Double>>, N> searchWithin(N start, N dest,
+			IndexedGraph<N, Double> graph, SearchLimit limit) {
+		return new DijkstraEngine<N>(graph).searchWithin(start, dest, limit);
+	}
+
+	/**
+	 * Finds the least-cost path for each of many pairs of nodes at once.<br>
+	 * The pairs are grouped by their start node and each distinct start is
+	 * searched once, stopping when every destination paired with it has been
+	 * settled. The searches are spread across the cores of the common
+	 * ForkJoinPool, each worker reusing one DijkstraEngine.
+	 *
+	 * @param pairs
+	 *            The start and destination of each path
+	 * @param graph
+	 *            The graph in which the searches take place
+	 * @requires pairs, graph != null && pairs has no null entries && graph is
+	 *           not modified until this returns
+	 * @return a list holding the least-cost path of each pair in the order the
+	 *         pairs were given, as search would return it
+	 */
+	public static <N extends Comparable<N>> List<List<Edge<N, Double>>> searchAll(
+			Collection<Pair<N, N>> pairs, Graph<N, Double> graph) {
+		return searchAll(pairs, graph, null);
+	}
+
+	/**
+	 * Finds the least-cost path for each of many pairs of nodes at once in an
+	 * IndexedGraph, such as a FrozenGraph or a MappedGraph. This is equivalent to
+	 * searchAll on a Graph.
+	 *
+	 * @param pairs
+	 *            The start and destination of each path
+	 * @param graph
+	 *            The weighted graph in which the searches take place
+	 * @requires pairs, graph != null && pairs has no null entries &&
+	 *           graph.isWeighted()
+	 * @return a list holding the least-cost path of each pair in the order the
+	 *         pairs were given, as search would return it
+	 */
+	public static <N extends Comparable<N>> List<List<Edge<N, Double>>> searchAll(
+			Collection<Pair<N, N>> pairs, IndexedGraph<N, Double> graph) {
+		return searchAll(pairs, null, graph);
+	}
+
+	/**
+	 * Groups pairs by start and searches the groups in parallel, in graph or else
+	 * in indexed
+	 */
+	private static <N extends Comparable<N>> List<List<Edge<N, Double>>> searchAll(
+			Collection<Pair<N, N>> pairs, Graph<N, Double> graph, IndexedGraph<N, Double> indexed) {
+		// remembers where each pair came from so the results keep their order
+		Map<N, List<Integer>> groups = new LinkedHashMap<N, List<Integer>>();
+		List<N> dests = new ArrayList<N>(pairs.size());
+		for (Pair<N, N> pair : pairs) {
+			List<Integer> group = groups.get(pair.getFirst());
+			if (group == null) {
+				group = new ArrayList<Integer>();
+				groups.put(pair.getFirst(), group);
 			}
+			group.add(dests.size());
+			dests.add(pair.getSecond());
 		}
-		// this means that no path exists between start and dest
-		return null;
+
+		List<Edge<N, Double>>[] results = newPaths(dests.size());
+		List<N> starts = new ArrayList<N>(groups.keySet());
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		// a few tasks per worker evens out groups that take longer than others
+		int chunk = Math.max(1, starts.size() / (4 * pool.getParallelism()));
+		pool.invoke(new Batch<N>(graph, indexed, starts, groups, dests, results, 0, starts.size(), chunk));
+		return Arrays.asList(results);
 	}
 
 	/**
+	 * @return a new array of count paths
+	 */
+	@SuppressWarnings("unchecked")
+	private static <N extends Comparable<N>> List<Edge<N, Double>>[] newPaths(int count) {
+		return (List<Edge<N, Double>>[]) new List<?>[count];
+	}
+
+	/**
+	 * Counts the number of edges between each ordered pair of distinct nodes,
+	 * giving each node an id in order of first appearance. The edges are counted
+	 * in parallel, each task counting its share of the lists into its own
+	 * PairCounter, and the partial counts are merged as the tasks finish.
+	 *
 	 * @param edges
 	 *            A map storing all the connections between nodes
-	 * @requires edges != null;
-	 * @return a map containing pairs of nodes as keys and the number of edges
-	 *         between these nodes as a value. Note that the edges are
-	 *         unidirectional so n1 --> n2 will have the same value as n2 --> n1
-	 *         despite having a different key.
+	 * @param interned
+	 *            The list that each node is appended to, so that the node with id
+	 *            i is interned.get(i)
+	 * @requires edges, interned != null && interned is empty
+	 * @modifies interned
+	 * @return a counter holding the number of edges between each pair of ids.
+	 *         Note that the edges are unidirectional so n1 --> n2 will have the
+	 *         same count as n2 --> n1 despite having a different key.
 	 */
-	private static <N extends Comparable<N>, E extends Comparable<E>> Map<List<N>, Integer> formatData(
-			Map<E, List<N>> edges) {
-		Map<List<N>, Integer> result = new HashMap<List<N>, Integer>();
-		for (E edge : edges.keySet()) {
-			List<N> nodes = edges.get(edge);
-			for (N n1 : nodes) {
-				for (N n2 : nodes) {
-					if (!n1.equals(n2)) {
-						List<N> e = new ArrayList<N>();
-						e.add(n1);
-						e.add(n2);
-						if (!result.containsKey(e)) {
-							result.put(e, 0);
-						}
-						result.put(e, result.get(e) + 1);
-					}
+	private static <N extends Comparable<N>, E extends Comparable<E>> PairCounter countPairs(
+			Map<E, List<N>> edges, List<N> interned) {
+		Map<N, Integer> ids = new HashMap<N, Integer>();
+		int[][] lists = new int[edges.size()][];
+		long pairs = 0;
+		int i = 0;
+		for (List<N> nodes : edges.values()) {
+			int[] list = new int[nodes.size()];
+			for (int k = 0; k < list.length; k++) {
+				Integer id = ids.get(nodes.get(k));
+				if (id == null) {
+					id = interned.size();
+					ids.put(nodes.get(k), id);
+					interned.add(nodes.get(k));
 				}
+				list[k] = id;
 			}
+			lists[i++] = list;
+			pairs += (long) list.length * list.length;
 		}
-		return result;
+
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		// splits the lists into a few tasks per worker by the number of pairs in each
+		long chunk = Math.max(1, pairs / (4 * pool.getParallelism()));
+		return pool.invoke(new PairCount(lists, 0, lists.length, chunk));
 	}
 
 	/**
-	 * <b>Path</b> is a private class that stores a path between nodes as successive
-	 * edges and the cost to get from the start to the end.<br>
-	 * It is necessary for Dijkstra's algorithm since it allows a more efficient
-	 * method to store these values in a PriorityQueue without having to delve into
-	 * Maps which can return things in the wrong order since sets have their own
-	 * order.
-	 * 
-	 * @param <N>
-	 *            Represents the type of node that is being stored in the edges of
-	 *            path
+	 * <b>Batch</b> searches a range of the start nodes of searchAll, splitting
+	 * the range in half until it is no larger than the chunk size and then
+	 * searching each start with one engine.
 	 */
-	private static class Path<N extends Comparable<N>> implements Comparable<Path<N>> {
-		/** stores the sum of all the edges in path */
-		final double val;
-
-		/** stores all the edges that make up a path from one node to another */
-		final List<Edge<N, Double>> path;
-
-		// Abstraction Function:
-		// A wrapper class that contains a list of edges, path, as well as a
-		// reference to the sum of all the edges in path, val.
-		//
-		// Representation Invariant:
-		// * val is non-negative
-		// * path is not null
-		// * path cannot contain a null edge
-
-		/** A boolean constant used to reduce checkRep time if not in testing mode */
-		private static final boolean TESTING_MODE = true;
-
-		/**
-		 * Constructs a new Path object with a specified val and path
-		 * 
-		 * @param val
-		 *            The sum of each edge in path
-		 * @param path
-		 *            A list of edges which forms a path
-		 * @requires path != null && val >= 0
-		 */
-		Path(double val, List<Edge<N, Double>> path) {
-			this.val = val;
-			this.path = new ArrayList<Edge<N, Double>>();
-			for (Edge<N, Double> e : path) {
-				this.path.add(e);
-			}
-			checkRep();
-		}
+	private static class Batch<N extends Comparable<N>> extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
 
-		/**
-		 * Returns a new list representing this + e
-		 * 
-		 * @param e
-		 *            The edge that is being added
-		 * @requires e != null
-		 * @return a new list which is a copy of this but has e added to the end.
-		 */
-		Path<N> add(Edge<N, Double> e) {
-			List<Edge<N, Double>> newPath = new ArrayList<Edge<N, Double>>();
-			for (Edge<N, Double> edge : path) {
-				newPath.add(edge);
-			}
-			newPath.add(e);
-			return new Path<N>(val + e.getLabel(), newPath);
+		/** stores the graph being searched, or null if indexed is searched instead */
+		private final Graph<N, Double> graph;
+
+		/** stores the indexed graph being searched, or null if graph is searched instead */
+		private final IndexedGraph<N, Double> indexed;
+
+		/** stores each distinct start node */
+		private final List<N> starts;
+
+		/** maps each start node to the positions of its pairs */
+		private final Map<N, List<Integer>> groups;
+
+		/** stores the destination of each pair */
+		private final List<N> dests;
+
+		/** stores the path of each pair once it is found */
+		private final List<Edge<N, Double>>[] results;
+
+		/** stores the first start of the range */
+		private final int from;
+
+		/** stores one past the last start of the range */
+		private final int to;
+
+		/** stores the greatest number of starts searched without splitting */
+		private final int chunk;
+
+		Batch(Graph<N, Double> graph, IndexedGraph<N, Double> indexed, List<N> starts, Map<N, List<Integer>> groups,
+				List<N> dests, List<Edge<N, Double>>[] results, int from, int to, int chunk) {
+			this.graph = graph;
+			this.indexed = indexed;
+			this.starts = starts;
+			this.groups = groups;
+			this.dests = dests;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+			this.chunk = chunk;
 		}
 
 		@Override
-		public int compareTo(Path<N> other) {
-			double delta = this.val - other.val;
-			if (delta > 0) {
-				return 1;
-			} else if (delta < 0) {
-				return -1;
+		protected void compute() {
+			if (to - from > chunk) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new Batch<N>(graph, indexed, starts, groups, dests, results, from, mid, chunk),
+						new Batch<N>(graph, indexed, starts, groups, dests, results, mid, to, chunk));
+				return;
 			}
-			return 0;
-		}
 
-		@Override
-		public boolean equals(Object obj) {
-			if (obj instanceof Path) {
-				Path<N> other = (Path<N>) obj;
-				return compareTo(other) == 0;
+			// an engine is not thread safe, so each task searches with its own
+			DijkstraEngine<N> engine = graph != null ? new DijkstraEngine<N>(graph) : new DijkstraEngine<N>(indexed);
+			for (int i = from; i < to; i++) {
+				List<Integer> group = groups.get(starts.get(i));
+				List<N> targets = new ArrayList<N>(group.size());
+				for (int k : group) {
+					targets.add(dests.get(k));
+				}
+				List<List<Edge<N, Double>>> paths = engine.searchEach(starts.get(i), targets);
+				// each pair belongs to exactly one group, so no two tasks write the same entry
+				for (int k = 0; k < group.size(); k++) {
+					results[group.get(k)] = paths.get(k);
+				}
 			}
-			return false;
 		}
+	}
 
-		@Override
-		public int hashCode() {
-			return (int) (val * 123);
+	/**
+	 * <b>PairCount</b> counts the pairs of a range of the id lists of
+	 * countPairs, splitting the range in half until it holds no more than the
+	 * chunk size of pairs and then merging the smaller of the two counts into
+	 * the larger.
+	 */
+	private static class PairCount extends RecursiveTask<PairCounter> {
+		private static final long serialVersionUID = 1L;
+
+		/** stores the ids of the nodes of each list */
+		private final int[][] lists;
+
+		/** stores the first list of the range */
+		private final int from;
+
+		/** stores one past the last list of the range */
+		private final int to;
+
+		/** stores the greatest number of pairs counted without splitting */
+		private final long chunk;
+
+		PairCount(int[][] lists, int from, int to, long chunk) {
+			this.lists = lists;
+			this.from = from;
+			this.to = to;
+			this.chunk = chunk;
 		}
 
-		/**
-		 * Checks that the representation invariant holds
-		 */
-		private void checkRep() {
-			assert (val >= 0) : "a path cannot have a negative value";
-			assert (path != null) : "path is null!";
-			if (TESTING_MODE) {
-				for (Edge<N, Double> e : path) {
-					assert (e != null) : "path contains a null edge";
+		@Override
+		protected PairCounter compute() {
+			long pairs = 0;
+			for (int i = from; i < to && pairs <= chunk; i++) {
+				pairs += (long) lists[i].length * lists[i].length;
+			}
+			if (to - from > 1 && pairs > chunk) {
+				int mid = (from + to) >>> 1;
+				PairCount right = new PairCount(lists, mid, to, chunk);
+				right.fork();
+				PairCounter left = new PairCount(lists, from, mid, chunk).compute();
+				PairCounter other = right.join();
+				if (left.size() < other.size()) {
+					other.addAll(left);
+					return other;
+				}
+				left.addAll(other);
+				return left;
+			}
+
+			PairCounter counts = new PairCounter((int) Math.min(pairs, 1 << 16));
+			for (int i = from; i < to; i++) {
+				int[] list = lists[i];
+				for (int n1 : list) {
+					for (int n2 : list) {
+						if (n1 != n2)
+							counts.add(PairCounter.pack(n1, n2), 1);
+					}
 				}
 			}
+			return counts;
 		}
 	}
-}
\ No newline at end of file
+}
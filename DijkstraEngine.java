@@ -0,0 +1,770 @@
+package hw7;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import hw5.Graph;
+import hw5.IdEdgeVisitor;
+import hw5.IndexedGraph;
+import hw5.SearchLimit;
+import hw5.SearchOutcome;
+import hw5.SearchStats;
+
+/**
+ * <b>DijkstraEngine<N></b> finds least-cost paths in a single weighted graph
+ * with Dijkstra's algorithm, or with A* when it is given a Heuristic.<br>
+ * Instead of queueing whole paths, it keeps the cost of the cheapest known path
+ * to each node and the node before it on that path in arrays indexed by node
+ * id, keeps the frontier in an IdQueue whose keys are lowered in place, and
+ * rebuilds the path once the destination is reached. The frontier is a binary
+ * heap unless another QueueStrategy is chosen when the engine is constructed.
+ * <p>
+ * An A* search orders the frontier by the cost to each node plus the
+ * heuristic's estimate of the cost from it to the destination. With a
+ * consistent heuristic it returns paths of the same least cost while settling
+ * fewer nodes, since nodes that lead away from the destination are put off.
+ * <p>
+ * The arrays are allocated once and reused by every search, and each search
+ * only resets the entries the previous one touched, so a search allocates
+ * memory in proportion to the length of the path it returns rather than the
+ * size of the graph. An engine is therefore not safe for use by more than one
+ * thread at a time.
+ * <p>
+ * An engine given a SearchStats records the work of every search into it.
+ * searchWithin bounds a search by a SearchLimit, so that a search for a
+ * distant or unreachable node can be stopped before it explores the graph.
+ *
+ * @param <N>
+ *            The object type of each node in the graph. N must extend Comparable
+ */
+public class DijkstraEngine<N extends Comparable<N>> {
+
+	/** Stores the graph being searched, or null if indexed is searched instead */
+	private final Graph<N, Double> graph;
+
+	/** Stores the indexed graph being searched, or null if graph is searched instead */
+	private final IndexedGraph<N, Double> indexed;
+
+	/** Stores the cost of the cheapest known path to each node */
+	private double[] cost;
+
+	/** Stores the id of the node before each node on its cheapest known path, or -1 */
+	private int[] previous;
+
+	/** Stores the weight of the edge from previous[i] to i */
+	private double[] weight;
+
+	/** Stores the heuristic estimate from each reached node to the destination */
+	private double[] estimate;
+
+	/** Stores the heuristic of the current search, or null for plain Dijkstra */
+	private Heuristic<? super N> heuristic = null;
+
+	/** Stores the destination of the current search */
+	private N dest = null;
+
+	/** Stores the ids of the nodes whose cost has been set by the current search */
+	private int[] touched;
+
+	/** Stores the number of ids in touched */
+	private int touchedCount = 0;
+
+	/** Stores the nodes whose cheapest path is known, keyed by id */
+	private final BitSet settled = new BitSet();
+
+	/** Stores the nodes that have been reached but not settled, keyed by their cost */
+	private final IdQueue frontier;
+
+	/** Stores the number of nodes settled by the last search */
+	private int settledCount = 0;
+
+	/** Stores the record of every search, or null if searches are not recorded */
+	private SearchStats stats = null;
+
+	/** Stores the limit of the current search, or null if it has none */
+	private SearchLimit limit = null;
+
+	/** Stores the bound that stopped the last search, or null if it finished */
+	private SearchLimit.Reason stopped = null;
+
+	/** Relaxes the edges of a Graph node; unused when searching an IndexedGraph */
+	private final Relaxer relaxer = new Relaxer();
+
+	// Abstraction Function:
+	// A DijkstraEngine searches graph, or indexed if graph is null. During a
+	// search, cost[i] is the cost of the cheapest known path from the start to
+	// the node with id i, reached through the edge from previous[i] of weight
+	// weight[i], and estimate[i] is the heuristic's estimate of the cost from
+	// it to dest. The path to every node in settled is known to be cheapest.
+	// Nodes leave frontier in order of cost plus estimate.
+	//
+	// Representation Invariant:
+	// * exactly one of graph and indexed is null
+	// * cost, previous, weight, estimate and touched all have the same length
+	// * cost[i] is infinite and previous[i] == -1 for every id i that is not in
+	//   touched[0..touchedCount), and every settled id is in touched
+
+	/**
+	 * Constructs a new engine that searches graph
+	 *
+	 * @param graph
+	 *            The graph to be searched
+	 * @requires graph != null && every edge of graph is non-negative
+	 */
+	public DijkstraEngine(Graph<N, Double> graph) {
+		this(graph, QueueStrategy.BINARY_HEAP);
+	}
+
+	/**
+	 * Constructs a new engine that searches graph, keeping its frontier in the
+	 * queue chosen by strategy
+	 *
+	 * @param graph
+	 *            The graph to be searched
+	 * @param strategy
+	 *            The kind of priority queue the frontier is kept in
+	 * @requires graph, strategy != null && every edge of graph is non-negative
+	 */
+	public DijkstraEngine(Graph<N, Double> graph, QueueStrategy strategy) {
+		this(graph, null, graph.idBound(), strategy);
+	}
+
+	/**
+	 * Constructs a new engine that searches an indexed graph, such as a
+	 * FrozenGraph or a MappedGraph
+	 *
+	 * @param graph
+	 *            The graph to be searched
+	 * @requires graph != null && graph.isWeighted() && every edge of graph is
+	 *           non-negative
+	 */
+	public DijkstraEngine(IndexedGraph<N, Double> graph) {
+		this(graph, QueueStrategy.BINARY_HEAP);
+	}
+
+	/**
+	 * Constructs a new engine that searches an indexed graph, keeping its
+	 * frontier in the queue chosen by strategy
+	 *
+	 * @param graph
+	 *            The graph to be searched
+	 * @param strategy
+	 *            The kind of priority queue the frontier is kept in
+	 * @requires graph, strategy != null && graph.isWeighted() && every edge of
+	 *           graph is non-negative
+	 */
+	public DijkstraEngine(IndexedGraph<N, Double> graph, QueueStrategy strategy) {
+		this(null, graph, graph.size(), strategy);
+	}
+
+	/**
+	 * Constructs a new engine with room for ids below capacity
+	 */
+	private DijkstraEngine(Graph<N, Double> graph, IndexedGraph<N, Double> indexed, int capacity,
+			QueueStrategy strategy) {
+		this.graph = graph;
+		this.indexed = indexed;
+		cost = new double[capacity];
+		previous = new int[capacity];
+		weight = new double[capacity];
+		estimate = new double[capacity];
+		touched = new int[capacity];
+		Arrays.fill(cost, Double.POSITIVE_INFINITY);
+		Arrays.fill(previous, -1);
+		if (strategy == QueueStrategy.BUCKETS) {
+			double[] range = weightRange();
+			frontier = strategy.newQueue(capacity, range[0], range[1]);
+		} else {
+			frontier = strategy.newQueue(capacity, 0.0, 0.0);
+		}
+		checkRep();
+	}
+
+	/**
+	 * Finds the least-cost path between two nodes and returns it as a list of
+	 * edges
+	 *
+	 * @param start
+	 *            The node from which the search begins
+	 * @param dest
+	 *            The node at which the search ends
+	 * @requires start, dest != null
+	 * @modifies this
+	 * @return a list of edges representing the least-cost path between start and
+	 *         dest.<br>
+	 *         Returns an empty list if start == dest.<br>
+	 *         Returns null if no path exists between start and dest.
+	 */
+	public List<Edge<N, Double>> search(N start, N dest) {
+		return search(start, dest, null);
+	}
+
+	/**
+	 * Finds the least-cost path between two nodes with an A* search guided by
+	 * heuristic and returns it as a list of edges
+	 *
+	 * @param start
+	 *            The node from which the search begins
+	 * @param dest
+	 *            The node at which the search ends
+	 * @param heuristic
+	 *            The estimate of the cost from each node to dest, or null to run
+	 *            plain Dijkstra
+	 * @requires start, dest != null && heuristic is consistent
+	 * @modifies this
+	 * @return a list of edges representing the least-cost path between start and
+	 *         dest.<br>
+	 *         Returns an empty list if start == dest.<br>
+	 *         Returns null if no path exists between start and dest.
+	 */
+	public List<Edge<N, Double>> search(N start, N dest, Heuristic<? super N> heuristic) {
+		if (stats == null) {
+			return find(start, dest, heuristic);
+		}
+		stats.begin();
+		try {
+			return find(start, dest, heuristic);
+		} finally {
+			stats.end();
+		}
+	}
+
+	/**
+	 * Finds the least-cost path between two nodes as search does, without
+	 * recording the search as a whole
+	 */
+	private List<Edge<N, Double>> find(N start, N dest, Heuristic<? super N> heuristic) {
+		reset();
+		this.heuristic = heuristic;
+		this.dest = dest;
+		if (start.equals(dest)) {
+			return new ArrayList<Edge<N, Double>>();
+		}
+		int source = idOf(start);
+		int target = idOf(dest);
+		if (source < 0 || target < 0) {
+			return null;
+		}
+
+		if (settleUntil(source, target)) {
+			return pathTo(source, target);
+		}
+
+		// this means that no path exists between start and dest
+		return null;
+	}
+
+	/**
+	 * Finds the least-cost path between two nodes as search does, unless limit
+	 * stops the search first
+	 *
+	 * @param start
+	 *            The node from which the search begins
+	 * @param dest
+	 *            The node at which the search ends
+	 * @param limit
+	 *            The bounds on the search
+	 * @requires start, dest, limit != null
+	 * @modifies this
+	 * @return an outcome holding the path search would return if the search
+	 *         finished within limit, or else the bound that stopped it and the
+	 *         nodes of its frontier with the least cost
+	 */
+	public SearchOutcome<List<Edge<N, Double>>, N> searchWithin(N start, N dest, SearchLimit limit) {
+		return searchWithin(start, dest, null, limit);
+	}
+
+	/**
+	 * Finds the least-cost path between two nodes with an A* search guided by
+	 * heuristic, unless limit stops the search first
+	 *
+	 * @param start
+	 *            The node from which the search begins
+	 * @param dest
+	 *            The node at which the search ends
+	 * @param heuristic
+	 *            The estimate of the cost from each node to dest, or null to run
+	 *            plain Dijkstra
+	 * @param limit
+	 *            The bounds on the search
+	 * @requires start, dest, limit != null && heuristic is consistent
+	 * @modifies this
+	 * @return an outcome holding the path search would return if the search
+	 *         finished within limit, or else the bound that stopped it and the
+	 *         nodes of its frontier with the least key
+	 */
+	public SearchOutcome<List<Edge<N, Double>>, N> searchWithin(N start, N dest, Heuristic<? super N> heuristic,
+			SearchLimit limit) {
+		this.limit = limit;
+		try {
+			List<Edge<N, Double>> path = search(start, dest, heuristic);
+			if (stopped == null) {
+				return SearchOutcome.complete(path, settledCount);
+			}
+
+			// the frontier is not needed again, so it is emptied in order of its keys
+			List<N> frontierNodes = new ArrayList<N>();
+			while (frontierNodes.size() < limit.getFrontierSize() && !frontier.isEmpty()) {
+				frontierNodes.add(nodeOf(frontier.poll()));
+			}
+			return SearchOutcome.stopped(stopped, frontierNodes, settledCount);
+		} finally {
+			this.limit = null;
+		}
+	}
+
+	/**
+	 * Finds the least-cost path between two nodes and returns it as a
+	 * PathResult, which holds the nodes of the path and the cost to each of them
+	 * without creating an Edge for each step
+	 *
+	 * @param start
+	 *            The node from which the search begins
+	 * @param dest
+	 *            The node at which the search ends
+	 * @requires start, dest != null
+	 * @modifies this
+	 * @return the least-cost path between start and dest.<br>
+	 *         Returns a path of start alone if start == dest.<br>
+	 *         Returns null if no path exists between start and dest.
+	 */
+	public PathResult<N> searchPath(N start, N dest) {
+		return searchPath(start, dest, null);
+	}
+
+	/**
+	 * Finds the least-cost path between two nodes with an A* search guided by
+	 * heuristic and returns it as a PathResult
+	 *
+	 * @param start
+	 *            The node from which the search begins
+	 * @param dest
+	 *            The node at which the search ends
+	 * @param heuristic
+	 *            The estimate of the cost from each node to dest, or null to run
+	 *            plain Dijkstra
+	 * @requires start, dest != null && heuristic is consistent
+	 * @modifies this
+	 * @return the least-cost path between start and dest.<br>
+	 *         Returns a path of start alone if start == dest.<br>
+	 *         Returns null if no path exists between start and dest.
+	 */
+	public PathResult<N> searchPath(N start, N dest, Heuristic<? super N> heuristic) {
+		if (stats == null) {
+			return findPath(start, dest, heuristic);
+		}
+		stats.begin();
+		try {
+			return findPath(start, dest, heuristic);
+		} finally {
+			stats.end();
+		}
+	}
+
+	/**
+	 * Finds the least-cost path between two nodes as searchPath does, without
+	 * recording the search as a whole
+	 */
+	private PathResult<N> findPath(N start, N dest, Heuristic<? super N> heuristic) {
+		reset();
+		this.heuristic = heuristic;
+		this.dest = dest;
+		if (start.equals(dest)) {
+			return new PathResult.Builder<N>(start, 0).build();
+		}
+		int source = idOf(start);
+		int target = idOf(dest);
+		if (source < 0 || target < 0 || !settleUntil(source, target)) {
+			// this means that no path exists between start and dest
+			return null;
+		}
+		return pathResultTo(source, target);
+	}
+
+	/**
+	 * Settles nodes in order of their key, starting from source, until target is
+	 * settled, the frontier runs out or the limit of the search stops it
+	 *
+	 * @requires source, target are ids of the graph && the state has been reset
+	 * @modifies this
+	 * @return true if target was settled
+	 */
+	private boolean settleUntil(int source, int target) {
+		reach(source, -1, 0.0, 0.0);
+		while (!frontier.isEmpty()) {
+			if (limit != null && (stopped = limit.exceeded(settledCount)) != null) {
+				return false;
+			}
+			int node = frontier.poll();
+			settled.set(node);
+			if (stats != null) {
+				stats.pop();
+				stats.settle();
+			}
+			settledCount++;
+			if (node == target) {
+				return true;
+			}
+			expand(node);
+		}
+		return false;
+	}
+
+	/**
+	 * Finds the least-cost paths from start to each of several destinations with
+	 * a single search, which stops once every destination has been settled
+	 *
+	 * @param start
+	 *            The node from which every path begins
+	 * @param dests
+	 *            The nodes at which the paths end
+	 * @requires start, dests != null && dests has no null entries
+	 * @modifies this
+	 * @return a list holding, for each destination in order, a list of edges
+	 *         representing the least-cost path between start and it. Each path is
+	 *         an empty list if the destination is start, and null if no path
+	 *         exists
+	 */
+	public List<List<Edge<N, Double>>> searchEach(N start, List<N> dests) {
+		if (stats == null) {
+			return findEach(start, dests);
+		}
+		stats.begin();
+		try {
+			return findEach(start, dests);
+		} finally {
+			stats.end();
+		}
+	}
+
+	/**
+	 * Finds the least-cost paths from start to each destination as searchEach
+	 * does, without recording the search as a whole
+	 */
+	private List<List<Edge<N, Double>>> findEach(N start, List<N> dests) {
+		reset();
+		this.heuristic = null;
+		this.dest = null;
+		int source = idOf(start);
+		int[] targets = new int[dests.size()];
+
+		// counts the distinct destinations that can still be reached
+		BitSet wanted = new BitSet();
+		int remaining = 0;
+		for (int i = 0; i < targets.length; i++) {
+			targets[i] = dests.get(i).equals(start) ? source : idOf(dests.get(i));
+			if (source >= 0 && targets[i] >= 0 && !wanted.get(targets[i])) {
+				wanted.set(targets[i]);
+				remaining++;
+			}
+		}
+
+		if (remaining > 0) {
+			reach(source, -1, 0.0, 0.0);
+		}
+		while (remaining > 0 && !frontier.isEmpty()) {
+			int node = frontier.poll();
+			settled.set(node);
+			if (stats != null) {
+				stats.pop();
+				stats.settle();
+			}
+			settledCount++;
+			if (wanted.get(node)) {
+				remaining--;
+			}
+			expand(node);
+		}
+
+		List<List<Edge<N, Double>>> paths = new ArrayList<List<Edge<N, Double>>>(targets.length);
+		for (int i = 0; i < targets.length; i++) {
+			if (dests.get(i).equals(start)) {
+				paths.add(new ArrayList<Edge<N, Double>>());
+			} else if (targets[i] >= 0 && source >= 0 && settled.get(targets[i])) {
+				paths.add(pathTo(source, targets[i]));
+			} else {
+				// this means that no path exists between start and this destination
+				paths.add(null);
+			}
+		}
+		return paths;
+	}
+
+	/**
+	 * Finds the least-cost path from start to every node that can be reached
+	 * from it
+	 *
+	 * @param start
+	 *            The node from which every path begins
+	 * @requires start != null
+	 * @modifies this
+	 * @return a ShortestPathTree holding the least-cost path from start to each
+	 *         node it reaches. If start is not in the graph the tree reaches only
+	 *         start itself
+	 */
+	public ShortestPathTree<N> searchAll(N start) {
+		if (stats == null) {
+			return findAll(start);
+		}
+		stats.begin();
+		try {
+			return findAll(start);
+		} finally {
+			stats.end();
+		}
+	}
+
+	/**
+	 * Finds the least-cost path from start to every node as searchAll does,
+	 * without recording the search as a whole
+	 */
+	private ShortestPathTree<N> findAll(N start) {
+		reset();
+		this.heuristic = null;
+		this.dest = null;
+		List<N> nodes = new ArrayList<N>();
+		int source = idOf(start);
+		if (source < 0) {
+			nodes.add(start);
+			return new ShortestPathTree<N>(start, nodes, new double[] { 0.0 }, new int[] { -1 }, new double[1]);
+		}
+
+		// records the order in which nodes are settled, which puts every node after the node before it
+		reach(source, -1, 0.0, 0.0);
+		int[] order = new int[touched.length];
+		while (!frontier.isEmpty()) {
+			int node = frontier.poll();
+			settled.set(node);
+			if (stats != null) {
+				stats.pop();
+				stats.settle();
+			}
+			order[settledCount++] = node;
+			expand(node);
+		}
+
+		// renumbers the settled nodes so the tree does not depend on the ids of the graph
+		double[] treeCost = new double[settledCount];
+		int[] treePrevious = new int[settledCount];
+		double[] treeWeight = new double[settledCount];
+		int[] rank = new int[order.length];
+		for (int k = 0; k < settledCount; k++) {
+			int node = order[k];
+			nodes.add(nodeOf(node));
+			treeCost[k] = cost[node];
+			treeWeight[k] = weight[node];
+			rank[node] = k;
+			treePrevious[k] = previous[node] < 0 ? -1 : rank[previous[node]];
+		}
+		return new ShortestPathTree<N>(start, nodes, treeCost, treePrevious, treeWeight);
+	}
+
+	/**
+	 * @return the number of nodes whose least-cost path was settled by the last
+	 *         search, including the destination if it was found
+	 */
+	public int getSettledCount() {
+		return settledCount;
+	}
+
+	/**
+	 * Makes every later search record its work into stats
+	 *
+	 * @param stats
+	 *            The record of the searches, or null to stop recording them
+	 * @modifies this
+	 */
+	public void setStats(SearchStats stats) {
+		this.stats = stats;
+	}
+
+	/**
+	 * Offers a cheaper path to every unsettled child of node
+	 *
+	 * @param node
+	 *            The id of the node being settled
+	 * @modifies this
+	 */
+	private void expand(int node) {
+		if (indexed != null) {
+			for (int e = indexed.firstEdge(node); e < indexed.endEdge(node); e++) {
+				relax(node, indexed.target(e), indexed.weight(e));
+			}
+		} else {
+			relaxer.parent = node;
+			graph.forEachEdgeById(node, relaxer);
+		}
+	}
+
+	/**
+	 * Records the path through the edge from parent to child if it is the
+	 * cheapest known path to child
+	 *
+	 * @modifies this
+	 */
+	private void relax(int parent, int child, double edgeWeight) {
+		if (stats != null)
+			stats.relax();
+		if (!settled.get(child)) {
+			double newCost = cost[parent] + edgeWeight;
+			if (newCost < cost[child]) {
+				reach(child, parent, edgeWeight, newCost);
+			}
+		}
+	}
+
+	/**
+	 * Records that node can be reached from parent at the given cost
+	 *
+	 * @requires newCost < cost[node]
+	 * @modifies this
+	 */
+	private void reach(int node, int parent, double edgeWeight, double newCost) {
+		if (cost[node] == Double.POSITIVE_INFINITY) {
+			touched[touchedCount++] = node;
+			// the estimate of a node never changes, so it is only computed once
+			estimate[node] = heuristic == null ? 0.0 : heuristic.estimate(nodeOf(node), dest);
+		}
+		cost[node] = newCost;
+		previous[node] = parent;
+		weight[node] = edgeWeight;
+		frontier.offer(node, newCost + estimate[node]);
+		if (stats != null)
+			stats.push(frontier.size());
+	}
+
+	/**
+	 * @return the path from source to target recorded in previous
+	 */
+	private List<Edge<N, Double>> pathTo(int source, int target) {
+		List<Edge<N, Double>> path = new ArrayList<Edge<N, Double>>();
+		for (int node = target; node != source; node = previous[node]) {
+			path.add(new Edge<N, Double>(weight[node], nodeOf(previous[node]), nodeOf(node)));
+		}
+		Collections.reverse(path);
+		return path;
+	}
+
+	/**
+	 * @return the path from source to target recorded in previous, with the cost
+	 *         to each node taken from the weights of its edges
+	 */
+	private PathResult<N> pathResultTo(int source, int target) {
+		int length = 0;
+		for (int node = target; node != source; node = previous[node]) {
+			length++;
+		}
+		int[] ids = new int[length];
+		for (int node = target, k = length - 1; node != source; node = previous[node], k--) {
+			ids[k] = node;
+		}
+		PathResult.Builder<N> builder = new PathResult.Builder<N>(nodeOf(source), length);
+		for (int k = 0; k < length; k++) {
+			builder.add(nodeOf(ids[k]), weight[ids[k]]);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Clears the state left by the previous search and makes room for any nodes
+	 * added to the graph since
+	 *
+	 * @modifies this
+	 */
+	private void reset() {
+		for (int i = 0; i < touchedCount; i++) {
+			int node = touched[i];
+			cost[node] = Double.POSITIVE_INFINITY;
+			previous[node] = -1;
+			settled.clear(node);
+		}
+		touchedCount = 0;
+		settledCount = 0;
+		stopped = null;
+		frontier.clear();
+
+		int bound = graph != null ? graph.idBound() : indexed.size();
+		if (bound > cost.length) {
+			int old = cost.length;
+			cost = Arrays.copyOf(cost, bound);
+			previous = Arrays.copyOf(previous, bound);
+			weight = Arrays.copyOf(weight, bound);
+			estimate = Arrays.copyOf(estimate, bound);
+			touched = Arrays.copyOf(touched, bound);
+			Arrays.fill(cost, old, bound, Double.POSITIVE_INFINITY);
+			Arrays.fill(previous, old, bound, -1);
+		}
+		checkRep();
+	}
+
+	/**
+	 * @return the least positive and the greatest edge weight of the graph, the
+	 *         first of which is 0 if there is no positive weight
+	 */
+	private double[] weightRange() {
+		final double[] range = new double[] { Double.POSITIVE_INFINITY, 0.0 };
+		if (indexed != null) {
+			for (int e = 0; e < indexed.edgeCount(); e++) {
+				double w = indexed.weight(e);
+				if (w > 0.0)
+					range[0] = Math.min(range[0], w);
+				range[1] = Math.max(range[1], w);
+			}
+		} else {
+			IdEdgeVisitor<Double> visitor = new IdEdgeVisitor<Double>() {
+				@Override
+				public void visit(int child, Double edgeLabel) {
+					if (edgeLabel > 0.0)
+						range[0] = Math.min(range[0], edgeLabel);
+					range[1] = Math.max(range[1], edgeLabel);
+				}
+			};
+			for (int id = 0; id < graph.idBound(); id++) {
+				graph.forEachEdgeById(id, visitor);
+			}
+		}
+		if (range[0] == Double.POSITIVE_INFINITY)
+			range[0] = 0.0;
+		return range;
+	}
+
+	/**
+	 * @return the id of node, or -1 if it is not in the graph
+	 */
+	private int idOf(N node) {
+		return graph != null ? graph.idOf(node) : indexed.idOf(node);
+	}
+
+	/**
+	 * @return the node with the given id
+	 */
+	private N nodeOf(int id) {
+		return graph != null ? graph.nodeOf(id) : indexed.nodeOf(id);
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert ((graph == null) != (indexed == null)) : "exactly one graph must be searched";
+		assert (cost.length == previous.length && cost.length == weight.length && cost.length == estimate.length
+				&& cost.length == touched.length) : "state arrays must have the same length";
+	}
+
+	/**
+	 * <b>Relaxer</b> is a private IdEdgeVisitor that relaxes each edge of the
+	 * Graph node being settled.
+	 */
+	private class Relaxer implements IdEdgeVisitor<Double> {
+		/** stores the id of the node being settled */
+		int parent;
+
+		@Override
+		public void visit(int child, Double edgeLabel) {
+			relax(parent, child, edgeLabel);
+		}
+	}
+}
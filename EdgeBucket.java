@@ -0,0 +1,373 @@
+package hw5;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <b>EdgeBucket<E></b> represents the mutable collection of edge labels between
+ * a single parent and child in a Graph. Each EdgeStorage constant creates a
+ * different kind of bucket.
+ * <p>
+ *
+ * @param <E>
+ *            The object type of each edge label. E must extend Comparable
+ */
+abstract class EdgeBucket<E extends Comparable<E>> {
+
+	/** Stores the id of the child at which every edge in the bucket terminates */
+	int target;
+
+	/**
+	 * @param edgeLabel
+	 *            The label being added
+	 * @requires edgeLabel != null
+	 * @modifies this
+	 * @return true if the bucket changed, false otherwise
+	 */
+	abstract boolean add(E edgeLabel);
+
+	/**
+	 * @param edgeLabel
+	 *            The label being removed
+	 * @requires edgeLabel != null
+	 * @modifies this
+	 * @return true if one copy of edgeLabel was removed, false if there was none
+	 */
+	abstract boolean remove(E edgeLabel);
+
+	/**
+	 * @param edgeLabel
+	 *            The label being looked up
+	 * @requires edgeLabel != null
+	 * @return true if the bucket holds edgeLabel, false otherwise
+	 */
+	abstract boolean contains(E edgeLabel);
+
+	/**
+	 * @return the number of edges in the bucket, counting duplicates
+	 */
+	abstract int size();
+
+	/**
+	 * @requires !isEmpty()
+	 * @return the least label in the bucket
+	 */
+	abstract E min();
+
+	/**
+	 * @return a new sorted list of every label in the bucket, including duplicates
+	 */
+	abstract List<E> sorted();
+
+	/**
+	 * Hands each edge in the bucket to visitor in no particular order
+	 *
+	 * @param child
+	 *            The node at which every edge in the bucket terminates
+	 * @param visitor
+	 *            The callback that is given each edge
+	 * @requires child, visitor != null
+	 */
+	abstract <N> void visit(N child, EdgeVisitor<? super N, ? super E> visitor);
+
+	/**
+	 * Hands each edge in the bucket to visitor in no particular order, identifying
+	 * the child by target
+	 *
+	 * @param visitor
+	 *            The callback that is given each edge
+	 * @requires visitor != null
+	 */
+	abstract void visit(IdEdgeVisitor<? super E> visitor);
+
+	/**
+	 * @return the estimated heap used by the bucket in bytes, excluding the
+	 *         labels themselves
+	 */
+	abstract long estimateBytes();
+
+	/**
+	 * @return true if there are no edges in the bucket, false otherwise
+	 */
+	boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * <b>ListBucket</b> keeps every label in insertion order, including duplicates.
+	 */
+	static class ListBucket<E extends Comparable<E>> extends EdgeBucket<E> {
+		/** Stores every label added to the bucket */
+		private final List<E> labels = new ArrayList<E>(1);
+
+		@Override
+		boolean add(E edgeLabel) {
+			return labels.add(edgeLabel);
+		}
+
+		@Override
+		boolean remove(E edgeLabel) {
+			return labels.remove(edgeLabel);
+		}
+
+		@Override
+		boolean contains(E edgeLabel) {
+			return labels.contains(edgeLabel);
+		}
+
+		@Override
+		int size() {
+			return labels.size();
+		}
+
+		@Override
+		E min() {
+			E min = labels.get(0);
+			for (int i = 1; i < labels.size(); i++) {
+				if (labels.get(i).compareTo(min) < 0)
+					min = labels.get(i);
+			}
+			return min;
+		}
+
+		@Override
+		List<E> sorted() {
+			List<E> lst = new ArrayList<E>(labels);
+			Collections.sort(lst);
+			return lst;
+		}
+
+		@Override
+		<N> void visit(N child, EdgeVisitor<? super N, ? super E> visitor) {
+			for (int i = 0; i < labels.size(); i++) {
+				visitor.visit(child, labels.get(i));
+			}
+		}
+
+		@Override
+		void visit(IdEdgeVisitor<? super E> visitor) {
+			for (int i = 0; i < labels.size(); i++) {
+				visitor.visit(target, labels.get(i));
+			}
+		}
+
+		@Override
+		long estimateBytes() {
+			// the bucket, the ArrayList and its backing array
+			return GraphStats.objectBytes(8) + GraphStats.objectBytes(12)
+					+ GraphStats.arrayBytes(Math.max(labels.size(), 1));
+		}
+	}
+
+	/**
+	 * <b>SetBucket</b> keeps each distinct label once and ignores duplicates.
+	 */
+	static class SetBucket<E extends Comparable<E>> extends EdgeBucket<E> {
+		/** Stores each distinct label added to the bucket */
+		private final Set<E> labels = new HashSet<E>(2);
+
+		@Override
+		boolean add(E edgeLabel) {
+			return labels.add(edgeLabel);
+		}
+
+		@Override
+		boolean remove(E edgeLabel) {
+			return labels.remove(edgeLabel);
+		}
+
+		@Override
+		boolean contains(E edgeLabel) {
+			return labels.contains(edgeLabel);
+		}
+
+		@Override
+		int size() {
+			return labels.size();
+		}
+
+		@Override
+		E min() {
+			return Collections.min(labels);
+		}
+
+		@Override
+		List<E> sorted() {
+			List<E> lst = new ArrayList<E>(labels);
+			Collections.sort(lst);
+			return lst;
+		}
+
+		@Override
+		<N> void visit(N child, EdgeVisitor<? super N, ? super E> visitor) {
+			for (E e : labels) {
+				visitor.visit(child, e);
+			}
+		}
+
+		@Override
+		void visit(IdEdgeVisitor<? super E> visitor) {
+			for (E e : labels) {
+				visitor.visit(target, e);
+			}
+		}
+
+		@Override
+		long estimateBytes() {
+			// the bucket, the HashSet and the HashMap behind it
+			return GraphStats.objectBytes(8) + GraphStats.objectBytes(4) + GraphStats.hashMapBytes(labels.size());
+		}
+	}
+
+	/**
+	 * <b>CountedBucket</b> keeps each distinct label once along with the number of
+	 * times it has been added.
+	 */
+	static class CountedBucket<E extends Comparable<E>> extends EdgeBucket<E> {
+		/** Maps each distinct label to how many copies of it are in the bucket */
+		private final Map<E, Integer> counts = new HashMap<E, Integer>(2);
+
+		/** Stores the total number of copies in the bucket */
+		private int size = 0;
+
+		@Override
+		boolean add(E edgeLabel) {
+			Integer count = counts.get(edgeLabel);
+			counts.put(edgeLabel, count == null ? 1 : count + 1);
+			size++;
+			return true;
+		}
+
+		@Override
+		boolean remove(E edgeLabel) {
+			Integer count = counts.get(edgeLabel);
+			if (count == null)
+				return false;
+			if (count == 1)
+				counts.remove(edgeLabel);
+			else
+				counts.put(edgeLabel, count - 1);
+			size--;
+			return true;
+		}
+
+		@Override
+		boolean contains(E edgeLabel) {
+			return counts.containsKey(edgeLabel);
+		}
+
+		@Override
+		int size() {
+			return size;
+		}
+
+		@Override
+		E min() {
+			return Collections.min(counts.keySet());
+		}
+
+		@Override
+		List<E> sorted() {
+			List<E> lst = new ArrayList<E>(size);
+			for (Map.Entry<E, Integer> entry : counts.entrySet()) {
+				for (int i = 0; i < entry.getValue(); i++) {
+					lst.add(entry.getKey());
+				}
+			}
+			Collections.sort(lst);
+			return lst;
+		}
+
+		@Override
+		<N> void visit(N child, EdgeVisitor<? super N, ? super E> visitor) {
+			for (Map.Entry<E, Integer> entry : counts.entrySet()) {
+				for (int i = 0; i < entry.getValue(); i++) {
+					visitor.visit(child, entry.getKey());
+				}
+			}
+		}
+
+		@Override
+		void visit(IdEdgeVisitor<? super E> visitor) {
+			for (Map.Entry<E, Integer> entry : counts.entrySet()) {
+				for (int i = 0; i < entry.getValue(); i++) {
+					visitor.visit(target, entry.getKey());
+				}
+			}
+		}
+
+		@Override
+		long estimateBytes() {
+			return GraphStats.objectBytes(12) + GraphStats.hashMapBytes(counts.size());
+		}
+	}
+
+	/**
+	 * <b>MinBucket</b> keeps only the least label that has been added.
+	 */
+	static class MinBucket<E extends Comparable<E>> extends EdgeBucket<E> {
+		/** Stores the least label added to the bucket, or null if it is empty */
+		private E min = null;
+
+		@Override
+		boolean add(E edgeLabel) {
+			if (min != null && min.compareTo(edgeLabel) <= 0)
+				return false;
+			min = edgeLabel;
+			return true;
+		}
+
+		@Override
+		boolean remove(E edgeLabel) {
+			if (min == null || !min.equals(edgeLabel))
+				return false;
+			min = null;
+			return true;
+		}
+
+		@Override
+		boolean contains(E edgeLabel) {
+			return min != null && min.equals(edgeLabel);
+		}
+
+		@Override
+		int size() {
+			return min == null ? 0 : 1;
+		}
+
+		@Override
+		E min() {
+			return min;
+		}
+
+		@Override
+		List<E> sorted() {
+			List<E> lst = new ArrayList<E>(1);
+			if (min != null)
+				lst.add(min);
+			return lst;
+		}
+
+		@Override
+		<N> void visit(N child, EdgeVisitor<? super N, ? super E> visitor) {
+			if (min != null)
+				visitor.visit(child, min);
+		}
+
+		@Override
+		void visit(IdEdgeVisitor<? super E> visitor) {
+			if (min != null)
+				visitor.visit(target, min);
+		}
+
+		@Override
+		long estimateBytes() {
+			return GraphStats.objectBytes(8);
+		}
+	}
+}
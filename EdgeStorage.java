@@ -0,0 +1,51 @@
+package hw5;
+
+/**
+ * <b>EdgeStorage</b> lists the ways a Graph can store the edges between each
+ * parent and child, so that each workload can choose the container that makes
+ * its most frequent operation cheap.
+ */
+public enum EdgeStorage {
+	/**
+	 * Keeps every edge in insertion order, including duplicates. Adding is O(1)
+	 * but containsEdge and removeEdge are linear in the number of edges between
+	 * the pair. This is the default.
+	 */
+	LIST,
+
+	/**
+	 * Keeps each distinct label once. Duplicate edges are ignored, and adding,
+	 * removing and containsEdge are all O(1).
+	 */
+	HASH_SET,
+
+	/**
+	 * Keeps each distinct label once together with how many times it was added,
+	 * so duplicate edges are counted rather than stored. Adding, removing one
+	 * copy and containsEdge are all O(1).
+	 */
+	COUNTED,
+
+	/**
+	 * Keeps only the least label ever added between the pair. Adding and finding
+	 * the least edge are O(1), which suits shortest-path searches that only ever
+	 * use the cheapest edge.
+	 */
+	MIN_ONLY;
+
+	/**
+	 * @return a new empty container of the kind this constant describes
+	 */
+	<E extends Comparable<E>> EdgeBucket<E> newBucket() {
+		switch (this) {
+		case HASH_SET:
+			return new EdgeBucket.SetBucket<E>();
+		case COUNTED:
+			return new EdgeBucket.CountedBucket<E>();
+		case MIN_ONLY:
+			return new EdgeBucket.MinBucket<E>();
+		default:
+			return new EdgeBucket.ListBucket<E>();
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package hw5;
+
+/**
+ * <b>EdgeVisitor<N,E></b> is a callback that is handed each outgoing edge of a
+ * node in turn by Graph.forEachEdge.<br>
+ * Edges are visited in no particular order, and a child is visited once for
+ * every edge that connects it to the parent.
+ *
+ * @param <N>
+ *            The object type of each node in the graph
+ * @param <E>
+ *            The object type of each edge in the graph
+ */
+public interface EdgeVisitor<N, E> {
+
+	/**
+	 * Called once for each edge leaving the node being visited
+	 *
+	 * @param child
+	 *            The node at which the edge terminates
+	 * @param edgeLabel
+	 *            The label of the edge
+	 */
+	void visit(N child, E edgeLabel);
+}
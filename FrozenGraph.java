@@ -0,0 +1,392 @@
+package hw5;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <b>FrozenGraph<N,E></b> represents an immutable snapshot of a Graph stored in
+ * compressed-sparse-row form.<br>
+ * Every node is given a dense integer id in ascending order of N, and the edges
+ * leaving the node with id i are stored at the indices firstEdge(i) (inclusive)
+ * to endEdge(i) (exclusive) of a set of flat arrays. Within each node the edges
+ * are sorted by child and then by label, so the first edge to a given child
+ * always carries the least label.<br>
+ * A FrozenGraph is created with Graph.freeze() and is intended for read-only
+ * query workloads once a graph has finished loading.
+ * <p>
+ *
+ * @param <N>
+ *            The object type of each node in the graph. N must extend Comparable
+ * @param <E>
+ *            The object type of each edge in the graph. E must extend Comparable
+ */
+
+public final class FrozenGraph<N extends Comparable<N>, E extends Comparable<E>> implements IndexedGraph<N, E> {
+
+	/** Maps each node id to the node it represents */
+	private final N[] nodes;
+
+	/** Maps each node to its id */
+	private final Map<N, Integer> ids;
+
+	/** Stores where the edges of each node begin; offsets[nodes.length] is the edge count */
+	private final int[] offsets;
+
+	/** Stores the id of the child at which each edge terminates */
+	private final int[] targets;
+
+	/** Stores the label of each edge, or null if the labels are only kept as weights */
+	private final E[] labels;
+
+	/** Stores the label of each edge as a primitive, or null if the labels are not numeric */
+	private final double[] weights;
+
+	// Abstraction function:
+	// FrozenGraph g represents a graph whose i-th node is nodes[i]. For every
+	// index k in [offsets[i], offsets[i + 1]) there is an edge from nodes[i] to
+	// nodes[targets[k]] with the label labels[k] (and the weight weights[k]
+	// when the graph is weighted). When labels is null the label of each edge
+	// is its weight.
+	//
+	// Representation Invariant for every FrozenGraph g:
+	// * nodes, ids, offsets, targets != null
+	// * labels and weights cannot both be null
+	// * nodes is sorted in ascending order and contains no null entries
+	// * ids.get(nodes[i]) == i for every i
+	// * offsets.length == nodes.length + 1 && offsets is non-decreasing
+	// * targets.length == offsets[nodes.length]
+	// * labels == null || labels.length == targets.length
+	// * weights == null || weights.length == targets.length
+
+	/** A boolean constant used to reduce checkRep time if not in testing mode */
+	private static final boolean TESTING_MODE = false;
+
+	/**
+	 * Constructs a new FrozenGraph from already compiled arrays. If every label
+	 * is a Double only the weights are kept, so a weighted graph holds one
+	 * double per edge rather than a boxed label as well
+	 *
+	 * @param nodes
+	 *            The nodes of the graph sorted in ascending order
+	 * @param offsets
+	 *            The index of the first edge of each node, followed by the edge count
+	 * @param targets
+	 *            The id of the child of each edge
+	 * @param labels
+	 *            The label of each edge
+	 * @requires nodes, offsets, targets, labels != null and they satisfy the
+	 *           representation invariant
+	 */
+	FrozenGraph(N[] nodes, int[] offsets, int[] targets, E[] labels) {
+		// Double labels are kept only as weights and boxed again when requested
+		this(nodes, offsets, targets, allDoubles(labels) ? null : labels, toWeights(labels));
+	}
+
+	/**
+	 * Constructs a new FrozenGraph from already compiled arrays
+	 *
+	 * @requires nodes, offsets, targets != null, labels and weights are not both
+	 *           null, and they satisfy the representation invariant
+	 */
+	private FrozenGraph(N[] nodes, int[] offsets, int[] targets, E[] labels, double[] weights) {
+		this.nodes = nodes;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.labels = labels;
+		this.weights = weights;
+
+		ids = new HashMap<N, Integer>(nodes.length * 2);
+		for (int i = 0; i < nodes.length; i++) {
+			ids.put(nodes[i], i);
+		}
+		checkRep();
+	}
+
+	/**
+	 * Creates a new FrozenGraph whose edges are labelled only by primitive weights
+	 *
+	 * @param nodes
+	 *            The nodes of the graph sorted in ascending order
+	 * @param offsets
+	 *            The index of the first edge of each node, followed by the edge count
+	 * @param targets
+	 *            The id of the child of each edge
+	 * @param weights
+	 *            The weight of each edge
+	 * @requires nodes, offsets, targets, weights != null and they satisfy the
+	 *           representation invariant
+	 * @return a FrozenGraph which boxes a weight only when its label is requested
+	 */
+	static <N extends Comparable<N>> FrozenGraph<N, Double> weighted(N[] nodes, int[] offsets, int[] targets,
+			double[] weights) {
+		return new FrozenGraph<N, Double>(nodes, offsets, targets, null, weights);
+	}
+
+	/**
+	 * @param labels
+	 *            The label of each edge
+	 * @return true if every label is a Double, so that its weight boxes back to
+	 *         an equal label
+	 */
+	private static boolean allDoubles(Object[] labels) {
+		for (Object label : labels) {
+			if (!(label instanceof Double)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param labels
+	 *            The label of each edge
+	 * @return the labels as primitives so searches can avoid unboxing, or null if
+	 *         any label is not numeric
+	 */
+	private static double[] toWeights(Object[] labels) {
+		double[] w = new double[labels.length];
+		for (int k = 0; k < labels.length; k++) {
+			if (!(labels[k] instanceof Number)) {
+				return null;
+			}
+			w[k] = ((Number) labels[k]).doubleValue();
+		}
+		return w;
+	}
+
+	/**
+	 * @return the number of nodes in the graph
+	 */
+	@Override
+	public int size() {
+		return nodes.length;
+	}
+
+	/**
+	 * @return the number of edges in the graph
+	 */
+	@Override
+	public int edgeCount() {
+		return targets.length;
+	}
+
+	/**
+	 * @return true if there are no nodes in this graph, false otherwise
+	 */
+	@Override
+	public boolean isEmpty() {
+		return nodes.length == 0;
+	}
+
+	/**
+	 * @return true if every edge label is numeric and therefore has a weight,
+	 *         false otherwise
+	 */
+	@Override
+	public boolean isWeighted() {
+		return weights != null;
+	}
+
+	/**
+	 * @param node
+	 *            The node that is being looked up
+	 * @requires node != null
+	 * @return the id of node, or -1 if node is not in the graph
+	 */
+	@Override
+	public int idOf(N node) {
+		Integer id = ids.get(node);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * @param id
+	 *            The id of the node that is being looked up
+	 * @requires 0 <= id < size()
+	 * @return the node with the given id
+	 */
+	@Override
+	public N nodeOf(int id) {
+		return nodes[id];
+	}
+
+	/**
+	 * @param id
+	 *            The id of the node whose edges are being looked up
+	 * @requires 0 <= id < size()
+	 * @return the index of the first edge leaving the node
+	 */
+	@Override
+	public int firstEdge(int id) {
+		return offsets[id];
+	}
+
+	/**
+	 * @param id
+	 *            The id of the node whose edges are being looked up
+	 * @requires 0 <= id < size()
+	 * @return one past the index of the last edge leaving the node
+	 */
+	@Override
+	public int endEdge(int id) {
+		return offsets[id + 1];
+	}
+
+	/**
+	 * @param edge
+	 *            The index of the edge
+	 * @requires 0 <= edge < edgeCount()
+	 * @return the id of the node at which the edge terminates
+	 */
+	@Override
+	public int target(int edge) {
+		return targets[edge];
+	}
+
+	/**
+	 * @param edge
+	 *            The index of the edge
+	 * @requires 0 <= edge < edgeCount()
+	 * @return the label of the edge
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public E label(int edge) {
+		if (labels == null)
+			return (E) Double.valueOf(weights[edge]);
+		return labels[edge];
+	}
+
+	/**
+	 * @param edge
+	 *            The index of the edge
+	 * @requires 0 <= edge < edgeCount() && isWeighted()
+	 * @return the label of the edge as a double
+	 */
+	@Override
+	public double weight(int edge) {
+		return weights[edge];
+	}
+
+	/**
+	 * Checks if node is stored in the graph
+	 *
+	 * @param node
+	 *            The node that is being looked up
+	 * @requires node != null
+	 * @return true if the graph contains this node, false otherwise
+	 */
+	@Override
+	public boolean containsNode(N node) {
+		return ids.containsKey(node);
+	}
+
+	/**
+	 * Checks if edge is stored in the graph
+	 *
+	 * @param parent
+	 *            The node from which the edge originates
+	 * @param child
+	 *            The node at which the edge terminates
+	 * @param edgeLabel
+	 *            The label of the edge
+	 * @requires parent, child, edgeLabel != null
+	 * @return true if the graph contains this edge, false otherwise
+	 */
+	public boolean containsEdge(N parent, N child, E edgeLabel) {
+		int p = idOf(parent);
+		int c = idOf(child);
+		if (p < 0 || c < 0)
+			return false;
+		for (int k = offsets[p]; k < offsets[p + 1]; k++) {
+			if (targets[k] == c && label(k).equals(edgeLabel))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return a sorted list containing the string representation of all the nodes
+	 *         stored in the graph
+	 */
+	public List<String> listNodes() {
+		List<String> lst = new ArrayList<String>();
+		for (N node : nodes) {
+			lst.add(node.toString());
+		}
+		Collections.sort(lst);
+		return lst;
+	}
+
+	/**
+	 * Returns a list containing all the child nodes of the given node
+	 *
+	 * @param node
+	 *            The node that is being looked up
+	 * @requires node != null
+	 * @return a sorted list containing all the child nodes of the given node.<br>
+	 *         Note: If node is not in graph, returns an empty list.
+	 */
+	public List<N> getChildren(N node) {
+		List<N> lst = new ArrayList<N>();
+		int id = idOf(node);
+		if (id < 0)
+			return lst;
+		for (int k = offsets[id]; k < offsets[id + 1]; k++) {
+			// edges to the same child are adjacent, so duplicates are skipped here
+			if (k == offsets[id] || targets[k] != targets[k - 1])
+				lst.add(nodes[targets[k]]);
+		}
+		return lst;
+	}
+
+	/**
+	 * Returns a list containing all the edges between parent and child
+	 *
+	 * @param parent
+	 *            The node from which the edges originate
+	 * @param child
+	 *            The node at which the edges terminate
+	 * @requires parent, child != null
+	 * @return a sorted list containing all the edges between parent and child.
+	 *         Returns an empty list if either parent or child are not in the graph
+	 */
+	public List<E> getEdges(N parent, N child) {
+		List<E> lst = new ArrayList<E>();
+		int p = idOf(parent);
+		int c = idOf(child);
+		if (p < 0 || c < 0)
+			return lst;
+		for (int k = offsets[p]; k < offsets[p + 1]; k++) {
+			if (targets[k] == c)
+				lst.add(label(k));
+		}
+		return lst;
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert (nodes != null && ids != null) : "node dictionary cannot be null";
+		assert (offsets != null && targets != null) : "edge arrays cannot be null";
+		assert (labels != null || weights != null) : "edges must have labels or weights";
+		assert (offsets.length == nodes.length + 1) : "every node must have an offset";
+		assert (labels == null || targets.length == labels.length) : "every edge must have a label";
+		assert (weights == null || targets.length == weights.length) : "every edge must have a weight";
+		if (TESTING_MODE) {
+			for (int i = 0; i < nodes.length; i++) {
+				assert (nodes[i] != null) : "null node";
+				assert (i == 0 || nodes[i - 1].compareTo(nodes[i]) < 0) : "nodes must be sorted";
+				assert (offsets[i] <= offsets[i + 1]) : "offsets must be non-decreasing";
+			}
+			for (int k = 0; k < targets.length; k++) {
+				assert (targets[k] >= 0 && targets[k] < nodes.length) : "edge points outside graph";
+				assert (labels == null || labels[k] != null) : "cannot have a null edge";
+			}
+		}
+	}
+}
@@ -8,7 +8,8 @@ import java.util.*;
  * Each edge is unidirectional so an edge from n1 to n2 is not equivalent to an
  * edge from n2 to n1.<br>
  * Each graph cannot store duplicate nodes. It does however support edges from
- * a node to itself and multiple, duplicate edges between nodes.
+ * a node to itself and, depending on the EdgeStorage it is constructed with,
+ * multiple, duplicate edges between nodes.
  * <p>
  * 
  * @param <N>
@@ -22,21 +23,91 @@ public class Graph<N extends Comparable<N>, E extends Comparable<E>> {
 	/** Stores all the nodes in the graph */
 	private Map<N, GraphNode> nodes;
 
+	/** Stores every node ever added at the index of its id, or null once removed */
+	private final List<GraphNode> byId;
+
+	/** Decides how the edges between each parent and child are stored */
+	private final EdgeStorage storage;
+
+	/** Whether each node also records the nodes with edges pointing to it */
+	private final boolean indexParents;
+
+	/** Counts the nodes that have been added to the graph */
+	private long nodesAdded = 0;
+
+	/** Counts the nodes that have been removed from the graph */
+	private long nodesRemoved = 0;
+
+	/** Counts the edges that have been added to the graph */
+	private long edgesAdded = 0;
+
+	/** Counts the edges that have been removed from the graph, including those of removed nodes */
+	private long edgesRemoved = 0;
+
 	// Abstraction function:
 	// Graph g, represents a graph with nodes stored in 'nodes'.
 	//
 	// Representation Invariant for every Graph g:
-	// * The nodes field must point to a useable object
+	// * The nodes and storage fields must point to useable objects
 	// * Nodes that are added to the graph cannot be null
+	// * No node has an edge to a node that is not in the graph
+	// * byId.get(gn.id) == gn for every gn in nodes, and every other entry of
+	//   byId is null. Ids are never reused
+	// * Every bucket in gn.edges stores the id of the child it leads to
+	// * nodesAdded, nodesRemoved, edgesAdded, edgesRemoved >= 0
+	// * If indexParents, n is in nodes.get(c).parents exactly when n has an
+	//   edge to c, otherwise every parents field is null
 
 	/** A boolean constant used to reduce checkRep time if not in testing mode */
 	private static final boolean TESTING_MODE = false;
 
 	/**
-	 * @effects Constructs a new empty graph.
+	 * @effects Constructs a new empty graph which keeps every edge between two
+	 *          nodes in a list, including duplicates.
 	 */
 	public Graph() {
+		this(EdgeStorage.LIST);
+	}
+
+	/**
+	 * @param storage
+	 *            How the edges between each parent and child are stored
+	 * @requires storage != null
+	 * @effects Constructs a new empty graph.
+	 */
+	public Graph(EdgeStorage storage) {
+		this(storage, false);
+	}
+
+	/**
+	 * @param storage
+	 *            How the edges between each parent and child are stored
+	 * @param indexParents
+	 *            Whether to maintain an index of incoming edges, which makes
+	 *            getParents and removeNode proportional to the degree of the node
+	 *            rather than the size of the graph
+	 * @requires storage != null
+	 * @effects Constructs a new empty graph.
+	 */
+	public Graph(EdgeStorage storage, boolean indexParents) {
+		this.storage = storage;
+		this.indexParents = indexParents;
 		nodes = new HashMap<N, GraphNode>();
+		byId = new ArrayList<GraphNode>();
+		checkRep();
+	}
+
+	/**
+	 * Constructs a new empty graph whose node map is sized to hold expectedNodes
+	 * without resizing. Used by Builder.
+	 * 
+	 * @requires storage != null && expectedNodes >= 0
+	 */
+	private Graph(EdgeStorage storage, boolean indexParents, int expectedNodes) {
+		this.storage = storage;
+		this.indexParents = indexParents;
+		nodes = new HashMap<N, GraphNode>(capacityFor(expectedNodes));
+		byId = new ArrayList<GraphNode>(expectedNodes);
 		checkRep();
 	}
 
@@ -61,20 +132,48 @@ public class Graph<N extends Comparable<N>, E extends Comparable<E>> {
 	}
 
 	/**
-	 * Removes node from the graph
+	 * Removes node from the graph along with every edge into or out of it.<br>
+	 * This takes time proportional to the in-degree plus the out-degree of node
+	 * if the graph indexes parents, and to the size of the graph otherwise.
 	 * 
 	 * @param node
 	 *            The node that is being removed
 	 * @requires node != null
 	 * @modifies this
-	 * @effects removes node from the graph
+	 * @effects removes node and all its edges from the graph
 	 * @return true if removed, false otherwise i.e. node not in graph
 	 */
 	public boolean removeNode(N node) {
 		if (!containsNode(node)) {
 			return false;
 		}
-		nodes.remove(node);
+		GraphNode removed = nodes.remove(node);
+		byId.set(removed.id, null);
+		nodesRemoved++;
+		for (EdgeBucket<E> bucket : removed.edges.values()) {
+			edgesRemoved += bucket.size();
+		}
+		if (indexParents) {
+			// only the nodes on either end of its edges can refer to it
+			for (N child : removed.edges.keySet()) {
+				GraphNode gn = nodes.get(child);
+				if (gn != null)
+					gn.parents.remove(node);
+			}
+			for (N parent : removed.parents) {
+				GraphNode gn = nodes.get(parent);
+				if (gn != null)
+					edgesRemoved += gn.edges.remove(node).size();
+			}
+		} else {
+			// without the index any node could have an edge to it
+			for (GraphNode gn : nodes.values()) {
+				EdgeBucket<E> bucket = gn.edges.remove(node);
+				if (bucket != null)
+					edgesRemoved += bucket.size();
+			}
+		}
+		checkRep();
 		return true;
 	}
 
@@ -94,7 +193,8 @@ public class Graph<N extends Comparable<N>, E extends Comparable<E>> {
 	 * @effects attempts to add edge between parent and child. Returns whether
 	 * 			it was successful
 	 * @return true if edge was added to graph, false otherwise (for example,
-	 * 			parent and child are not in the graph
+	 * 			parent and child are not in the graph, or the EdgeStorage of this
+	 * 			graph does not keep the edge)
 	 */
 	public boolean addEdge(N parent, N child, E edgeLabel) {
 		boolean added = nodes.get(parent).addEdge(child, edgeLabel);
@@ -168,6 +268,162 @@ public class Graph<N extends Comparable<N>, E extends Comparable<E>> {
 		return nodes.get(node).getChildren();
 	}
 	
+	/**
+	 * Returns a list containing all the nodes with an edge to the given node.<br>
+	 * This takes time proportional to the number of parents if the graph indexes
+	 * parents, and to the size of the graph otherwise.
+	 * 
+	 * @param node
+	 *            The node that is being looked up
+	 * @requires node != null
+	 * @return a sorted list containing all the parent nodes of the given node.<br>
+	 *         Note: If node is not in graph, returns an empty list.
+	 */
+	public List<N> getParents(N node) {
+		List<N> lst = new ArrayList<N>();
+		if (!containsNode(node))
+			return lst;
+		if (indexParents) {
+			lst.addAll(nodes.get(node).parents);
+		} else {
+			for (GraphNode gn : nodes.values()) {
+				if (gn.edges.containsKey(node))
+					lst.add(gn.val);
+			}
+		}
+		Collections.sort(lst);
+		return lst;
+	}
+	
+	/**
+	 * Hands every edge entering node to visitor, passing the parent each edge
+	 * originates from in place of the child. Edges are visited in no particular
+	 * order.
+	 * 
+	 * @param node
+	 *            The node whose incoming edges are being visited
+	 * @param visitor
+	 *            The callback that is given the parent and label of each edge
+	 * @requires node, visitor != null
+	 * @effects calls visitor.visit(parent, label) once for each edge entering
+	 *          node. Does nothing if node is not in the graph
+	 */
+	public void forEachParentEdge(N node, EdgeVisitor<? super N, ? super E> visitor) {
+		GraphNode target = nodes.get(node);
+		if (target == null)
+			return;
+		if (indexParents) {
+			for (N parent : target.parents) {
+				nodes.get(parent).edges.get(node).visit(parent, visitor);
+			}
+		} else {
+			for (GraphNode gn : nodes.values()) {
+				EdgeBucket<E> bucket = gn.edges.get(node);
+				if (bucket != null)
+					bucket.visit(gn.val, visitor);
+			}
+		}
+	}
+	
+	/**
+	 * Hands every edge leaving node to visitor without building intermediate
+	 * lists of children or labels. Unlike getChildren and getEdges the edges are
+	 * visited in no particular order.<br>
+	 * An iterator over the children of node is still created, and the HASH_SET
+	 * and COUNTED storages create one for each child as well. Only the LIST and
+	 * MIN_ONLY buckets are walked without allocating.
+	 * 
+	 * @param node
+	 *            The node whose edges are being visited
+	 * @param visitor
+	 *            The callback that is given the child and label of each edge
+	 * @requires node, visitor != null
+	 * @effects calls visitor.visit(child, label) once for each edge leaving node.
+	 *          Does nothing if node is not in the graph
+	 */
+	public void forEachEdge(N node, EdgeVisitor<? super N, ? super E> visitor) {
+		GraphNode gn = nodes.get(node);
+		if (gn != null)
+			gn.forEachEdge(visitor);
+	}
+	
+	/**
+	 * Hands every edge leaving the node with the given id to visitor, identifying
+	 * each child by its id. Together with idOf and nodeOf this lets algorithms
+	 * keep their per-node state in arrays indexed by id rather than in hash maps.
+	 * 
+	 * @param id
+	 *            The id of the node whose edges are being visited
+	 * @param visitor
+	 *            The callback that is given the child id and label of each edge
+	 * @requires visitor != null
+	 * @effects calls visitor.visit(childId, label) once for each edge leaving the
+	 *          node. Does nothing if no node in the graph has the given id
+	 */
+	public void forEachEdgeById(int id, IdEdgeVisitor<? super E> visitor) {
+		if (id < 0 || id >= byId.size())
+			return;
+		GraphNode gn = byId.get(id);
+		if (gn != null)
+			gn.forEachEdgeById(visitor);
+	}
+	
+	/**
+	 * Returns the dense integer id of node. Each node is given the next unused id
+	 * when it is added, and keeps it until it is removed. Ids of removed nodes are
+	 * not reused.
+	 * 
+	 * @param node
+	 *            The node that is being looked up
+	 * @requires node != null
+	 * @return the id of node, or -1 if node is not in the graph
+	 */
+	public int idOf(N node) {
+		GraphNode gn = nodes.get(node);
+		return gn == null ? -1 : gn.id;
+	}
+	
+	/**
+	 * @param id
+	 *            The id being looked up
+	 * @return the node with the given id, or null if no node in the graph has it
+	 */
+	public N nodeOf(int id) {
+		if (id < 0 || id >= byId.size())
+			return null;
+		GraphNode gn = byId.get(id);
+		return gn == null ? null : gn.val;
+	}
+	
+	/**
+	 * @return a number greater than every id that has been given out, which is the
+	 *         length an array indexed by id must have
+	 */
+	public int idBound() {
+		return byId.size();
+	}
+	
+	/**
+	 * Sorts part of an array of node ids into the natural order of the nodes they
+	 * identify. The sort is stable.
+	 * 
+	 * @param ids
+	 *            The array of ids
+	 * @param from
+	 *            The index of the first id to be sorted, inclusive
+	 * @param to
+	 *            The index of the last id to be sorted, exclusive
+	 * @requires ids != null && 0 <= from <= to <= ids.length && every id in the
+	 *           range belongs to a node in the graph
+	 * @modifies ids
+	 */
+	public void sortByNode(int[] ids, int from, int to) {
+		if (to - from < 2)
+			return;
+		int[] buffer = new int[to - from];
+		mergeSort(ids, buffer, from, to);
+	}
+	
 	/**
 	 * Returns a list containing all the edges between parent and child
 	 * 
@@ -185,6 +441,39 @@ public class Graph<N extends Comparable<N>, E extends Comparable<E>> {
 		return nodes.get(parent).getEdges(child);
 	}
 
+	/**
+	 * Returns the least label of all the edges between parent and child
+	 * 
+	 * @param parent
+	 * 			The node from which the edges originate
+	 * @param child
+	 * 			The node at which the edges terminate
+	 * @requires parent, child != null
+	 * @return the least edge between parent and child, or null if there is no
+	 * 		   such edge. This is O(1) when the graph uses EdgeStorage.MIN_ONLY
+	 */
+	public E getMinEdge(N parent, N child) {
+		GraphNode gn = nodes.get(parent);
+		if (gn == null || !gn.edges.containsKey(child))
+			return null;
+		return gn.edges.get(child).min();
+	}
+	
+	/**
+	 * @return how the edges between each parent and child are stored
+	 */
+	public EdgeStorage getEdgeStorage() {
+		return storage;
+	}
+	
+	/**
+	 * @return true if this graph maintains an index of incoming edges, false
+	 *         otherwise
+	 */
+	public boolean isParentIndexed() {
+		return indexParents;
+	}
+
 	/**
 	 * Checks if node is stored in the graph
 	 * 
@@ -220,14 +509,144 @@ public class Graph<N extends Comparable<N>, E extends Comparable<E>> {
 		return nodes.size() == 0;
 	}
 
+	/**
+	 * Reports the size and shape of this graph, an estimate of the heap it
+	 * retains and how many times it has been modified. This takes time
+	 * proportional to the size of the graph.
+	 *
+	 * @return a GraphStats describing the current contents of this graph
+	 */
+	public GraphStats<N> stats() {
+		// tallies in-degrees by id so that no node is looked up by value
+		int[] inDegrees = new int[byId.size()];
+		for (GraphNode gn : nodes.values()) {
+			for (EdgeBucket<E> bucket : gn.edges.values()) {
+				inDegrees[bucket.target] += bucket.size();
+			}
+		}
+
+		GraphStats<N> stats = new GraphStats<N>(nodesAdded, nodesRemoved, edgesAdded, edgesRemoved);
+		for (GraphNode gn : nodes.values()) {
+			int outDegree = 0;
+			for (EdgeBucket<E> bucket : gn.edges.values()) {
+				outDegree += bucket.size();
+				stats.recordPair(bucket.size(), GraphStats.MAP_ENTRY + bucket.estimateBytes());
+			}
+			// the node's entry and table slot in nodes, its slot in byId, the
+			// GraphNode itself and its edge map without the entries counted above
+			long bytes = GraphStats.MAP_ENTRY + 2 * GraphStats.REFERENCE + GraphStats.objectBytes(20)
+					+ GraphStats.hashMapBytes(gn.edges.size()) - (long) gn.edges.size() * GraphStats.MAP_ENTRY;
+			if (indexParents)
+				bytes += GraphStats.objectBytes(4) + GraphStats.hashMapBytes(gn.parents.size());
+			stats.recordNode(gn.val, outDegree, inDegrees[gn.id], bytes);
+		}
+		return stats.finish();
+	}
+
+	/**
+	 * Compiles the current contents of this graph into an immutable
+	 * compressed-sparse-row snapshot. Later changes to this graph are not
+	 * reflected in the snapshot.
+	 *
+	 * @return a FrozenGraph containing every node and edge currently in this graph
+	 */
+	@SuppressWarnings("unchecked")
+	public FrozenGraph<N, E> freeze() {
+		// assigns ids in ascending order so that sorted child lists stay sorted
+		List<N> sorted = new ArrayList<N>(nodes.keySet());
+		Collections.sort(sorted);
+		Map<N, Integer> ids = new HashMap<N, Integer>(sorted.size() * 2);
+		for (int i = 0; i < sorted.size(); i++) {
+			ids.put(sorted.get(i), i);
+		}
+
+		// counts the edges leaving each node to find where each row begins
+		int[] offsets = new int[sorted.size() + 1];
+		for (int i = 0; i < sorted.size(); i++) {
+			int degree = 0;
+			for (EdgeBucket<E> bucket : nodes.get(sorted.get(i)).edges.values()) {
+				degree += bucket.size();
+			}
+			offsets[i + 1] = offsets[i] + degree;
+		}
+
+		// fills each row in order of child and then label
+		N[] nodeArray = sorted.toArray((N[]) new Comparable<?>[sorted.size()]);
+		int[] targets = new int[offsets[sorted.size()]];
+		E[] labels = (E[]) new Comparable<?>[targets.length];
+		for (int i = 0; i < nodeArray.length; i++) {
+			GraphNode gn = nodes.get(nodeArray[i]);
+			int k = offsets[i];
+			for (N child : gn.getChildren()) {
+				int target = ids.get(child);
+				for (E e : gn.getEdges(child)) {
+					targets[k] = target;
+					labels[k] = e;
+					k++;
+				}
+			}
+		}
+		return new FrozenGraph<N, E>(nodeArray, offsets, targets, labels);
+	}
+
+	/**
+	 * Sorts ids[from, to) by node using buffer as scratch space
+	 * 
+	 * @requires buffer.length >= to - from
+	 * @modifies ids, buffer
+	 */
+	private void mergeSort(int[] ids, int[] buffer, int from, int to) {
+		if (to - from < 2)
+			return;
+		int mid = (from + to) >>> 1;
+		mergeSort(ids, buffer, from, mid);
+		mergeSort(ids, buffer, mid, to);
+		if (byId.get(ids[mid - 1]).val.compareTo(byId.get(ids[mid]).val) <= 0)
+			return;
+		System.arraycopy(ids, from, buffer, 0, to - from);
+		int i = 0;
+		int j = mid - from;
+		for (int k = from; k < to; k++) {
+			if (j >= to - from || (i < mid - from
+					&& byId.get(buffer[i]).val.compareTo(byId.get(buffer[j]).val) <= 0))
+				ids[k] = buffer[i++];
+			else
+				ids[k] = buffer[j++];
+		}
+	}
+
+	/**
+	 * @param expected
+	 *            The number of entries a HashMap is expected to hold
+	 * @return an initial capacity which lets the map hold expected entries
+	 *         without resizing
+	 */
+	private static int capacityFor(int expected) {
+		return Math.max(expected * 4 / 3 + 1, 1);
+	}
+
 	/**
 	 * Checks that the representation invariant holds
 	 */
 	private void checkRep() {
 		assert (nodes != null);
+		assert (byId != null);
+		assert (storage != null);
 		if (TESTING_MODE) {
 			for (N key : nodes.keySet()) {
-				assert (nodes.get(key) != null) : "null node";
+				GraphNode gn = nodes.get(key);
+				assert (gn != null) : "null node";
+				assert (byId.get(gn.id) == gn) : "id does not lead back to its node";
+				for (N child : gn.edges.keySet()) {
+					assert (nodes.containsKey(child)) : "edge to a node outside the graph";
+					assert (gn.edges.get(child).target == nodes.get(child).id) : "bucket has the wrong target id";
+					assert (!indexParents || nodes.get(child).parents.contains(key)) : "parent index is missing an edge";
+				}
+				if (indexParents) {
+					for (N parent : gn.parents) {
+						assert (nodes.get(parent).edges.containsKey(key)) : "parent index has a stale edge";
+					}
+				}
 			}
 		}
 	}
@@ -241,6 +660,181 @@ public class Graph<N extends Comparable<N>, E extends Comparable<E>> {
 		return nodes;
 	}
 
+	/**
+	 * <b>Builder</b> loads a large number of nodes and edges into a new Graph in
+	 * one pass.<br>
+	 * The graph's maps are sized up front from the expected node and edge counts,
+	 * nodes are added implicitly the first time an edge mentions them, and the
+	 * representation invariant is only checked once, by build().
+	 * <p>
+	 * 
+	 * @param <N>
+	 *            The object type of each node in the graph
+	 * @param <E>
+	 *            The object type of each edge in the graph
+	 */
+	public static class Builder<N extends Comparable<N>, E extends Comparable<E>> {
+		/** Stores how the edges between each parent and child will be stored */
+		private EdgeStorage storage = EdgeStorage.LIST;
+
+		/** Stores whether the graph will index parents */
+		private boolean indexParents = false;
+
+		/** Stores the number of nodes the graph is expected to hold */
+		private final int expectedNodes;
+
+		/** Stores the number of children each node is expected to have */
+		private final int expectedDegree;
+
+		/** Stores the graph being built, or null if it has not been started yet */
+		private Graph<N, E> graph = null;
+
+		/** Stores whether build() has already handed the graph over */
+		private boolean built = false;
+
+		// Abstraction Function:
+		// A Builder represents the partially loaded graph 'graph', which is
+		// created with storage and indexParents on the first call to addNode
+		// or addEdge.
+		//
+		// Representation Invariant:
+		// * storage != null && expectedNodes, expectedDegree >= 0
+		// * graph == null if built
+
+		/**
+		 * Constructs a new Builder for a graph of the given size
+		 * 
+		 * @param expectedNodes
+		 *            The number of nodes the graph is expected to hold
+		 * @param expectedEdges
+		 *            The number of edges the graph is expected to hold
+		 * @requires expectedNodes, expectedEdges >= 0
+		 */
+		public Builder(int expectedNodes, int expectedEdges) {
+			this.expectedNodes = expectedNodes;
+			this.expectedDegree = expectedNodes == 0 ? 0 : expectedEdges / expectedNodes;
+		}
+
+		/**
+		 * @param storage
+		 *            How the edges between each parent and child are stored
+		 * @requires storage != null
+		 * @modifies this
+		 * @return this Builder
+		 * @throws IllegalStateException
+		 *             if nodes or edges have already been added
+		 */
+		public Builder<N, E> storage(EdgeStorage storage) {
+			checkNotStarted();
+			this.storage = storage;
+			return this;
+		}
+
+		/**
+		 * @param indexParents
+		 *            Whether the graph maintains an index of incoming edges
+		 * @modifies this
+		 * @return this Builder
+		 * @throws IllegalStateException
+		 *             if nodes or edges have already been added
+		 */
+		public Builder<N, E> indexParents(boolean indexParents) {
+			checkNotStarted();
+			this.indexParents = indexParents;
+			return this;
+		}
+
+		/**
+		 * Adds node to the graph being built if it is not already present
+		 * 
+		 * @param node
+		 *            The node that is being added
+		 * @requires node != null
+		 * @modifies this
+		 * @return this Builder
+		 */
+		public Builder<N, E> addNode(N node) {
+			nodeFor(node);
+			return this;
+		}
+
+		/**
+		 * Adds an edge to the graph being built, adding parent and child first if
+		 * they are not already present
+		 * 
+		 * @param parent
+		 *            The node from which the edge originates
+		 * @param child
+		 *            The node at which the edge terminates
+		 * @param edgeLabel
+		 *            The label for the edge that is being added
+		 * @requires parent, child, edgeLabel != null
+		 * @modifies this
+		 * @return this Builder
+		 */
+		public Builder<N, E> addEdge(N parent, N child, E edgeLabel) {
+			Graph<N, E>.GraphNode gn = nodeFor(parent);
+			nodeFor(child);
+			gn.insert(child, edgeLabel);
+			return this;
+		}
+
+		/**
+		 * Finishes the graph. The Builder cannot be used afterwards.
+		 * 
+		 * @modifies this
+		 * @return the graph containing every node and edge that was added
+		 * @throws IllegalStateException
+		 *             if build() has already been called
+		 */
+		public Graph<N, E> build() {
+			Graph<N, E> result = graph();
+			graph = null;
+			built = true;
+			result.checkRep();
+			return result;
+		}
+
+		/**
+		 * @param node
+		 *            The node being looked up
+		 * @modifies this
+		 * @return the GraphNode storing node, which is created if necessary
+		 */
+		private Graph<N, E>.GraphNode nodeFor(N node) {
+			Graph<N, E> g = graph();
+			Graph<N, E>.GraphNode gn = g.nodes.get(node);
+			if (gn == null) {
+				gn = g.new GraphNode(node, expectedDegree);
+				g.nodes.put(node, gn);
+			}
+			return gn;
+		}
+
+		/**
+		 * @modifies this
+		 * @return the graph being built, which is created on the first call
+		 * @throws IllegalStateException
+		 *             if build() has already been called
+		 */
+		private Graph<N, E> graph() {
+			if (built)
+				throw new IllegalStateException("build() has already been called");
+			if (graph == null)
+				graph = new Graph<N, E>(storage, indexParents, expectedNodes);
+			return graph;
+		}
+
+		/**
+		 * @throws IllegalStateException
+		 *             if nodes or edges have already been added
+		 */
+		private void checkNotStarted() {
+			if (graph != null || built)
+				throw new IllegalStateException("the graph has already been started");
+		}
+	}
+
 	/**
 	 * <b>GraphNode</b> represents a mutable graph node which stores references to
 	 * its child nodes and all edges between them.<br>
@@ -252,8 +846,14 @@ public class Graph<N extends Comparable<N>, E extends Comparable<E>> {
 		/** Stores the nodes unique value */
 		N val;
 
+		/** Stores the nodes dense integer id, its index in byId */
+		final int id;
+
 		/** Stores all the values of this node's children and all the edges between them */
-		Map<N, List<E>> edges;
+		Map<N, EdgeBucket<E>> edges;
+
+		/** Stores the nodes with an edge to this node, or null if parents are not indexed */
+		Set<N> parents;
 
 		// Abstraction Function:
 		// GraphNode, gn, represents a single node in a graph with
@@ -261,8 +861,9 @@ public class Graph<N extends Comparable<N>, E extends Comparable<E>> {
 		// between this node and each child stored in edges.
 		//
 		// Representation Invariant:
-		// * No child can have an empty list of edges
+		// * No child can have an empty bucket of edges
 		// * val and edges cannot be null
+		// * parents is null exactly when the graph does not index parents
 		// * Child nodes and edges added to edges cannot be null
 
 		/**
@@ -274,10 +875,33 @@ public class Graph<N extends Comparable<N>, E extends Comparable<E>> {
 		 */
 		GraphNode(N val) {
 			this.val = val;
-			edges = new HashMap<N, List<E>>();
+			id = byId.size();
+			byId.add(this);
+			nodesAdded++;
+			edges = new HashMap<N, EdgeBucket<E>>();
+			parents = indexParents ? new HashSet<N>() : null;
 			checkRep();
 		}
 
+		/**
+		 * Constructs a new empty node with the value of val whose edge map is sized
+		 * to hold expectedDegree children without resizing
+		 * 
+		 * @param val
+		 *            The value stored in the node
+		 * @param expectedDegree
+		 *            The number of children the node is expected to have
+		 * @requires val != null && expectedDegree >= 0
+		 */
+		GraphNode(N val, int expectedDegree) {
+			this.val = val;
+			id = byId.size();
+			byId.add(this);
+			nodesAdded++;
+			edges = new HashMap<N, EdgeBucket<E>>(capacityFor(expectedDegree));
+			parents = indexParents ? new HashSet<N>(capacityFor(expectedDegree)) : null;
+		}
+
 		/**
 		 * Adds an edge between this and child
 		 * 
@@ -287,17 +911,44 @@ public class Graph<N extends Comparable<N>, E extends Comparable<E>> {
 		 *            The label for the edge
 		 * @requires child, edgeLabel != null
 		 * @modifies this
-		 * @effects adds a new edge between this and child. Duplicates are allowed
+		 * @effects adds a new edge between this and child. Whether duplicates are
+		 * 			kept depends on the EdgeStorage of the graph
 		 * @return true if edge was added, false otherwise
 		 */
 		boolean addEdge(N child, E edgeLabel) {
-			if (!edges.containsKey(child))
-				edges.put(child, new ArrayList<E>());
-			boolean added = edges.get(child).add(edgeLabel);
+			boolean added = insert(child, edgeLabel);
 			checkRep();
 			return added;
 		}
 
+		/**
+		 * Adds an edge between this and child without checking the representation
+		 * invariant, so that a Builder can check it once at the end
+		 * 
+		 * @requires child, edgeLabel != null && graph.contains(child)
+		 * @modifies this
+		 * @return true if edge was added, false otherwise
+		 */
+		boolean insert(N child, E edgeLabel) {
+			EdgeBucket<E> bucket = edges.get(child);
+			if (bucket == null) {
+				GraphNode target = nodes.get(child);
+				bucket = storage.newBucket();
+				bucket.target = target.id;
+				edges.put(child, bucket);
+				if (indexParents)
+					target.parents.add(val);
+			}
+			int before = bucket.size();
+			if (!bucket.add(edgeLabel))
+				return false;
+			edgesAdded++;
+			// a bucket that keeps only its least label replaces the old one, which
+			// is counted as removed so that the counts still agree with the graph
+			edgesRemoved += before + 1 - bucket.size();
+			return true;
+		}
+
 		/**
 		 * Removes an edge name edgeLabel between this and child
 		 * 
@@ -311,9 +962,16 @@ public class Graph<N extends Comparable<N>, E extends Comparable<E>> {
 		 * @return true if edge was removed, false otherwise i.e. no such edge exists
 		 */
 		boolean removeEdge(N child, E edgeLabel) {
+			if (!edges.containsKey(child))
+				return false;
 			boolean removed = edges.get(child).remove(edgeLabel);
-			if (edges.get(child).isEmpty())
+			if (removed)
+				edgesRemoved++;
+			if (edges.get(child).isEmpty()) {
 				edges.remove(child);
+				if (indexParents)
+					nodes.get(child).parents.remove(val);
+			}
 			checkRep();
 			return removed;
 		}
@@ -326,7 +984,7 @@ public class Graph<N extends Comparable<N>, E extends Comparable<E>> {
 		List<String> listChildren() {
 			List<String> lst = new ArrayList<String>();
 			for (N gn : edges.keySet()) {
-				for (E e : edges.get(gn)) {
+				for (E e : edges.get(gn).sorted()) {
 					if (e instanceof Double) {
 						lst.add(gn.toString() + String.format("(%.3f)", e));
 					} else {
@@ -350,6 +1008,33 @@ public class Graph<N extends Comparable<N>, E extends Comparable<E>> {
 			return lst;
 		}
 		
+		/**
+		 * Hands each edge of this to visitor in no particular order
+		 * 
+		 * @param visitor
+		 * 			The callback that is given the child and label of each edge
+		 * @requires visitor != null
+		 */
+		void forEachEdge(EdgeVisitor<? super N, ? super E> visitor) {
+			for (Map.Entry<N, EdgeBucket<E>> entry : edges.entrySet()) {
+				entry.getValue().visit(entry.getKey(), visitor);
+			}
+		}
+		
+		/**
+		 * Hands each edge of this to visitor in no particular order, identifying
+		 * each child by its id
+		 * 
+		 * @param visitor
+		 * 			The callback that is given the child id and label of each edge
+		 * @requires visitor != null
+		 */
+		void forEachEdgeById(IdEdgeVisitor<? super E> visitor) {
+			for (EdgeBucket<E> bucket : edges.values()) {
+				bucket.visit(visitor);
+			}
+		}
+		
 		/**
 		 * @param child
 		 * 			The node at which each edge terminates
@@ -357,12 +1042,9 @@ public class Graph<N extends Comparable<N>, E extends Comparable<E>> {
 		 * @return a sorted list of edges between this and child
 		 */
 		List<E> getEdges(N child) {
-			List<E> lst = new ArrayList<E>();
-			for (E e : edges.get(child)) {
-				lst.add(e);
-			}
-			Collections.sort(lst);
-			return lst;
+			if (!edges.containsKey(child))
+				return new ArrayList<E>();
+			return edges.get(child).sorted();
 		}
 		
 		/**
@@ -406,7 +1088,7 @@ public class Graph<N extends Comparable<N>, E extends Comparable<E>> {
 				for (N gn : edges.keySet()) {
 					assert (gn != null) : "child node cannot be null";
 					assert (!edges.get(gn).isEmpty()) : "cannot be a child node if share no edges";
-					for (E edge : edges.get(gn)) {
+					for (E edge : edges.get(gn).sorted()) {
 						assert (edge != null) : "cannot have a null edge";
 					}
 				}
@@ -0,0 +1,139 @@
+package hw5;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <b>GraphBenchmark</b> is a command line utility that measures the performance
+ * of the graph implementations in this package.<br>
+ * Usage: GraphBenchmark concurrent [nodes] [edgesPerNode] [millisPerRun]
+ * <p>
+ * The concurrent benchmark fills a ConcurrentGraph with random edges, then for
+ * 1 up to the number of available cores runs that many query threads for a
+ * fixed time while a single loader thread keeps adding and removing edges. It
+ * prints the query throughput of each run so scaling across cores can be seen.
+ */
+public class GraphBenchmark {
+
+	// Not an ADT
+
+	public static void main(String[] args) throws InterruptedException {
+		if (args.length == 0 || args[0].equals("concurrent")) {
+			int nodes = intArg(args, 1, 100000);
+			int degree = intArg(args, 2, 16);
+			int millis = intArg(args, 3, 2000);
+			concurrent(nodes, degree, millis);
+		} else {
+			System.out.println("Unknown benchmark: " + args[0]);
+		}
+	}
+
+	/**
+	 * Runs the concurrent read/write benchmark and prints its results
+	 *
+	 * @param nodeCount
+	 *            The number of nodes in the benchmark graph
+	 * @param degree
+	 *            The number of edges leaving each node
+	 * @param millis
+	 *            How long each run lasts in milliseconds
+	 */
+	private static void concurrent(int nodeCount, int degree, int millis) throws InterruptedException {
+		final ConcurrentGraph<Integer, Integer> graph = new ConcurrentGraph<Integer, Integer>();
+		final int n = nodeCount;
+		Random random = new Random(331);
+		for (int i = 0; i < n; i++) {
+			graph.addNode(i);
+		}
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < degree; j++) {
+				graph.addEdge(i, random.nextInt(n), random.nextInt(100));
+			}
+		}
+		System.out.println("ConcurrentGraph: " + n + " nodes, " + (long) n * degree + " edges");
+
+		int cores = Runtime.getRuntime().availableProcessors();
+		for (int threads = 1; threads <= cores; threads++) {
+			final AtomicBoolean running = new AtomicBoolean(true);
+			final AtomicLong reads = new AtomicLong();
+			final AtomicLong writes = new AtomicLong();
+			final AtomicLong visited = new AtomicLong();
+			final CountDownLatch done = new CountDownLatch(threads + 1);
+
+			// a single loader keeps mutating the graph while the readers run
+			Thread loader = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					Random r = new Random(1);
+					long count = 0;
+					while (running.get()) {
+						int parent = r.nextInt(n);
+						int child = r.nextInt(n);
+						graph.addEdge(parent, child, 100);
+						graph.removeEdge(parent, child, 100);
+						count += 2;
+					}
+					writes.addAndGet(count);
+					done.countDown();
+				}
+			});
+
+			for (int t = 0; t < threads; t++) {
+				final int seed = t;
+				new Thread(new Runnable() {
+					@Override
+					public void run() {
+						Random r = new Random(seed);
+						EdgeCounter counter = new EdgeCounter();
+						long count = 0;
+						while (running.get()) {
+							graph.forEachEdge(r.nextInt(n), counter);
+							graph.containsEdge(r.nextInt(n), r.nextInt(n), 0);
+							count += 2;
+						}
+						reads.addAndGet(count);
+						visited.addAndGet(counter.edges);
+						done.countDown();
+					}
+				}).start();
+			}
+			loader.start();
+			Thread.sleep(millis);
+			running.set(false);
+			done.await();
+
+			System.out.println(String.format("%2d query threads: %,14.0f reads/s %,14.0f edges/s %,12.0f writes/s",
+					threads, reads.get() * 1000.0 / millis, visited.get() * 1000.0 / millis,
+					writes.get() * 1000.0 / millis));
+		}
+	}
+
+	/**
+	 * @param args
+	 *            The command line arguments
+	 * @param index
+	 *            The position of the argument
+	 * @param otherwise
+	 *            The value used if the argument is missing
+	 * @return the argument at index as an int, or otherwise if it is missing
+	 */
+	private static int intArg(String[] args, int index, int otherwise) {
+		return args.length > index ? Integer.parseInt(args[index]) : otherwise;
+	}
+
+	/**
+	 * <b>EdgeCounter</b> is an EdgeVisitor that counts the edges it is handed so
+	 * the work done by each query is reported and cannot be optimized away.
+	 */
+	private static class EdgeCounter implements EdgeVisitor<Integer, Integer> {
+		/** stores how many edges have been visited */
+		long edges;
+
+		@Override
+		public void visit(Integer child, Integer edgeLabel) {
+			edges++;
+		}
+	}
+}
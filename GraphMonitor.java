@@ -0,0 +1,166 @@
+package hw5;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * <b>GraphMonitor</b> publishes the GraphStats of a Graph over JMX so that a
+ * running program can be inspected with tools such as jconsole.<br>
+ * The statistics are computed when the monitor is created and again whenever
+ * its refresh operation is invoked, since computing them walks the whole graph.
+ * <p>
+ * Graph is not thread-safe, so refresh should only be invoked while no other
+ * thread is modifying the graph.
+ */
+public class GraphMonitor implements GraphMonitorMBean {
+
+	/** Stores the graph being monitored */
+	private final Graph<?, ?> graph;
+
+	/** Stores the statistics computed by the last refresh */
+	private volatile GraphStats<?> stats;
+
+	// Abstraction Function:
+	// A GraphMonitor reports stats, the statistics of graph as of the last
+	// call to refresh().
+	//
+	// Representation Invariant:
+	// * graph, stats != null
+
+	/**
+	 * Constructs a new monitor for graph and computes its statistics
+	 *
+	 * @param graph
+	 *            The graph being monitored
+	 * @requires graph != null
+	 */
+	public GraphMonitor(Graph<?, ?> graph) {
+		this.graph = graph;
+		refresh();
+	}
+
+	/**
+	 * Creates a monitor for graph and registers it with the platform MBean server
+	 * under the name "hw5:type=Graph,name=" + name
+	 *
+	 * @param graph
+	 *            The graph being monitored
+	 * @param name
+	 *            The name the graph is listed under
+	 * @requires graph, name != null
+	 * @return the name the monitor was registered under
+	 * @throws JMException
+	 *             if name is not valid or is already registered
+	 */
+	public static ObjectName register(Graph<?, ?> graph, String name) throws JMException {
+		ObjectName objectName = new ObjectName("hw5:type=Graph,name=" + ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(new GraphMonitor(graph), objectName);
+		return objectName;
+	}
+
+	@Override
+	public void refresh() {
+		stats = graph.stats();
+	}
+
+	@Override
+	public int getNodeCount() {
+		return stats.getNodeCount();
+	}
+
+	@Override
+	public long getEdgeCount() {
+		return stats.getEdgeCount();
+	}
+
+	@Override
+	public long getPairCount() {
+		return stats.getPairCount();
+	}
+
+	@Override
+	public long getMultiEdgePairs() {
+		return stats.getMultiEdgePairs();
+	}
+
+	@Override
+	public long[] getOutDegreeHistogram() {
+		return stats.getOutDegreeHistogram();
+	}
+
+	@Override
+	public long[] getInDegreeHistogram() {
+		return stats.getInDegreeHistogram();
+	}
+
+	@Override
+	public int getMaxOutDegree() {
+		return stats.getMaxOutDegree();
+	}
+
+	@Override
+	public int getMaxInDegree() {
+		return stats.getMaxInDegree();
+	}
+
+	@Override
+	public String[] getMaxOutDegreeNodes() {
+		return toStrings(stats.getMaxOutDegreeNodes());
+	}
+
+	@Override
+	public String[] getMaxInDegreeNodes() {
+		return toStrings(stats.getMaxInDegreeNodes());
+	}
+
+	@Override
+	public long getEstimatedBytes() {
+		return stats.getEstimatedBytes();
+	}
+
+	@Override
+	public double getEstimatedBytesPerNode() {
+		return stats.getEstimatedBytesPerNode();
+	}
+
+	@Override
+	public double getEstimatedBytesPerEdge() {
+		return stats.getEstimatedBytesPerEdge();
+	}
+
+	@Override
+	public long getNodesAdded() {
+		return stats.getNodesAdded();
+	}
+
+	@Override
+	public long getNodesRemoved() {
+		return stats.getNodesRemoved();
+	}
+
+	@Override
+	public long getEdgesAdded() {
+		return stats.getEdgesAdded();
+	}
+
+	@Override
+	public long getEdgesRemoved() {
+		return stats.getEdgesRemoved();
+	}
+
+	/**
+	 * @param nodes
+	 *            A list of nodes
+	 * @return the string representation of each node, in the same order
+	 */
+	private static String[] toStrings(List<?> nodes) {
+		String[] result = new String[nodes.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = nodes.get(i).toString();
+		}
+		return result;
+	}
+}
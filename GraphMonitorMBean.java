@@ -0,0 +1,99 @@
+package hw5;
+
+/**
+ * <b>GraphMonitorMBean</b> is the JMX management interface of GraphMonitor.
+ * Each getter is exposed as a read-only attribute of the same name without the
+ * "get" prefix.
+ */
+public interface GraphMonitorMBean {
+
+	/**
+	 * Recomputes the statistics reported by the attributes of this bean
+	 */
+	void refresh();
+
+	/**
+	 * @return the number of nodes in the graph
+	 */
+	int getNodeCount();
+
+	/**
+	 * @return the number of edges in the graph, counting duplicates
+	 */
+	long getEdgeCount();
+
+	/**
+	 * @return the number of parent/child pairs joined by at least one edge
+	 */
+	long getPairCount();
+
+	/**
+	 * @return the number of parent/child pairs joined by more than one edge
+	 */
+	long getMultiEdgePairs();
+
+	/**
+	 * @return the out-degree histogram described by GraphStats
+	 */
+	long[] getOutDegreeHistogram();
+
+	/**
+	 * @return the in-degree histogram described by GraphStats
+	 */
+	long[] getInDegreeHistogram();
+
+	/**
+	 * @return the greatest number of edges leaving any node
+	 */
+	int getMaxOutDegree();
+
+	/**
+	 * @return the greatest number of edges entering any node
+	 */
+	int getMaxInDegree();
+
+	/**
+	 * @return the nodes with the greatest out-degree as strings
+	 */
+	String[] getMaxOutDegreeNodes();
+
+	/**
+	 * @return the nodes with the greatest in-degree as strings
+	 */
+	String[] getMaxInDegreeNodes();
+
+	/**
+	 * @return the estimated number of bytes of heap retained by the graph
+	 */
+	long getEstimatedBytes();
+
+	/**
+	 * @return the estimated heap retained per node, excluding its edges
+	 */
+	double getEstimatedBytesPerNode();
+
+	/**
+	 * @return the estimated heap retained per edge
+	 */
+	double getEstimatedBytesPerEdge();
+
+	/**
+	 * @return the number of nodes that have been added to the graph
+	 */
+	long getNodesAdded();
+
+	/**
+	 * @return the number of nodes that have been removed from the graph
+	 */
+	long getNodesRemoved();
+
+	/**
+	 * @return the number of edges that have been added to the graph
+	 */
+	long getEdgesAdded();
+
+	/**
+	 * @return the number of edges that have been removed from the graph
+	 */
+	long getEdgesRemoved();
+}
@@ -0,0 +1,353 @@
+package hw5;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <b>GraphSnapshot</b> is a class containing only static methods that save an
+ * IndexedGraph to a versioned binary file and load it back as a MappedGraph,
+ * so that a program can start without parsing its dataset again.<br>
+ * A snapshot is laid out as follows, with every number stored big-endian:
+ * <ol>
+ * <li>a header of six ints: MAGIC, VERSION, flags, the node count, the edge
+ * count and the number of distinct labels</li>
+ * <li>offsets: node count + 1 ints</li>
+ * <li>targets: edge count ints</li>
+ * <li>label indices: edge count ints, if flags has HAS_LABELS</li>
+ * <li>weights: edge count doubles, if flags has HAS_WEIGHTS</li>
+ * <li>the node dictionary, in id order, written by the node codec</li>
+ * <li>the label table, written by the label codec, if flags has HAS_LABELS</li>
+ * </ol>
+ * The fixed-size sections come first so that loading can map them in place
+ * without decoding them.
+ * <p>
+ * Another process may have a snapshot mapped while it is being replaced, so a
+ * snapshot is written to a temporary file beside it and then moved over it in
+ * one step. Readers keep the old file until they load again, and no reader
+ * ever sees a file that is only partly written.
+ */
+public class GraphSnapshot {
+
+	// Not an ADT
+
+	/** The first int of every snapshot file */
+	public static final int MAGIC = 0x47534e50;
+
+	/** The version of the format written by this class */
+	public static final int VERSION = 1;
+
+	/** Flag set when the snapshot stores a table of edge labels */
+	private static final int HAS_LABELS = 1;
+
+	/** Flag set when the snapshot stores a weight for every edge */
+	private static final int HAS_WEIGHTS = 2;
+
+	/** A codec that stores a String as its length in bytes followed by its UTF-8 bytes */
+	public static final SnapshotCodec<String> STRINGS = new SnapshotCodec<String>() {
+		@Override
+		public void write(String value, DataOutput out) throws IOException {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+
+		@Override
+		public String read(ByteBuffer in) throws IOException {
+			int length = in.getInt();
+			if (length < 0 || length > in.remaining())
+				throw new IOException("string length " + length + " does not fit in the snapshot");
+			byte[] bytes = new byte[length];
+			in.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+
+	/**
+	 * Writes graph to file, replacing anything already there. Each distinct label
+	 * is stored once in the label table. The snapshot is written to a temporary
+	 * file in the same directory, which is then atomically moved over file, so
+	 * file is never truncated or left partly written.
+	 *
+	 * @param graph
+	 *            The graph being saved
+	 * @param file
+	 *            The file the snapshot is written to
+	 * @param nodeCodec
+	 *            The codec used to write each node
+	 * @param labelCodec
+	 *            The codec used to write each distinct label, or null to store
+	 *            only the weight of each edge
+	 * @requires graph, file, nodeCodec != null
+	 * @throws IllegalArgumentException
+	 *             if labelCodec is null and graph is not weighted
+	 * @throws IOException
+	 *             if file cannot be written, or cannot be replaced atomically
+	 *             on this file system
+	 */
+	public static <N extends Comparable<N>, E extends Comparable<E>> void write(IndexedGraph<N, E> graph,
+			File file, SnapshotCodec<? super N> nodeCodec, SnapshotCodec<? super E> labelCodec) throws IOException {
+		if (labelCodec == null && !graph.isWeighted())
+			throw new IllegalArgumentException("an unweighted graph needs a label codec");
+
+		// gives each distinct label its index in the label table
+		Map<E, Integer> labelIds = new HashMap<E, Integer>();
+		List<E> table = new ArrayList<E>();
+		if (labelCodec != null) {
+			for (int k = 0; k < graph.edgeCount(); k++) {
+				E label = graph.label(k);
+				if (!labelIds.containsKey(label)) {
+					labelIds.put(label, table.size());
+					table.add(label);
+				}
+			}
+		}
+		int flags = (labelCodec != null ? HAS_LABELS : 0) | (graph.isWeighted() ? HAS_WEIGHTS : 0);
+
+		// a process that has the old snapshot mapped would crash if it were truncated in place
+		File target = file.getAbsoluteFile();
+		File temp = File.createTempFile(target.getName(), ".tmp", target.getParentFile());
+		boolean moved = false;
+		try {
+			writeTo(temp, graph, nodeCodec, labelCodec, table, labelIds, flags);
+			Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+			moved = true;
+		} finally {
+			if (!moved)
+				temp.delete();
+		}
+	}
+
+	/**
+	 * Writes the sections of a snapshot of graph to file
+	 *
+	 * @param table
+	 *            The distinct labels in the order they are stored
+	 * @param labelIds
+	 *            The index in table of each label
+	 * @param flags
+	 *            The flags of the snapshot
+	 * @throws IOException
+	 *             if file cannot be written
+	 */
+	private static <N extends Comparable<N>, E extends Comparable<E>> void writeTo(File file,
+			IndexedGraph<N, E> graph, SnapshotCodec<? super N> nodeCodec, SnapshotCodec<? super E> labelCodec,
+			List<E> table, Map<E, Integer> labelIds, int flags) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(flags);
+			out.writeInt(graph.size());
+			out.writeInt(graph.edgeCount());
+			out.writeInt(table.size());
+
+			for (int i = 0; i < graph.size(); i++) {
+				out.writeInt(graph.firstEdge(i));
+			}
+			out.writeInt(graph.edgeCount());
+			for (int k = 0; k < graph.edgeCount(); k++) {
+				out.writeInt(graph.target(k));
+			}
+			if ((flags & HAS_LABELS) != 0) {
+				for (int k = 0; k < graph.edgeCount(); k++) {
+					out.writeInt(labelIds.get(graph.label(k)));
+				}
+			}
+			if ((flags & HAS_WEIGHTS) != 0) {
+				for (int k = 0; k < graph.edgeCount(); k++) {
+					out.writeDouble(graph.weight(k));
+				}
+			}
+
+			for (int i = 0; i < graph.size(); i++) {
+				nodeCodec.write(graph.nodeOf(i), out);
+			}
+			if ((flags & HAS_LABELS) != 0) {
+				for (E label : table) {
+					labelCodec.write(label, out);
+				}
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Loads a snapshot which stores edge labels
+	 *
+	 * @param file
+	 *            The snapshot file
+	 * @param nodeCodec
+	 *            The codec the nodes were written with
+	 * @param labelCodec
+	 *            The codec the labels were written with
+	 * @requires file, nodeCodec, labelCodec != null
+	 * @return a graph that reads its edges from the mapped file
+	 * @throws IOException
+	 *             if file cannot be read, is not a snapshot of a supported
+	 *             version, is truncated or corrupt, or stores no labels
+	 */
+	public static <N extends Comparable<N>, E extends Comparable<E>> MappedGraph<N, E> load(File file,
+			SnapshotCodec<N> nodeCodec, SnapshotCodec<E> labelCodec) throws IOException {
+		return read(file, nodeCodec, labelCodec, HAS_LABELS);
+	}
+
+	/**
+	 * Loads a snapshot which stores edge weights, labelling each edge with its
+	 * weight. Any label table in the file is ignored.
+	 *
+	 * @param file
+	 *            The snapshot file
+	 * @param nodeCodec
+	 *            The codec the nodes were written with
+	 * @requires file, nodeCodec != null
+	 * @return a graph that reads its edges from the mapped file
+	 * @throws IOException
+	 *             if file cannot be read, is not a snapshot of a supported
+	 *             version, is truncated or corrupt, or stores no weights
+	 */
+	public static <N extends Comparable<N>> MappedGraph<N, Double> loadWeighted(File file,
+			SnapshotCodec<N> nodeCodec) throws IOException {
+		return read(file, nodeCodec, null, HAS_WEIGHTS);
+	}
+
+	/**
+	 * @param snapshot
+	 *            The snapshot file
+	 * @param source
+	 *            The dataset the snapshot was written from
+	 * @requires snapshot, source != null
+	 * @return true if snapshot exists and is at least as new as source, false
+	 *         otherwise
+	 */
+	public static boolean isCurrent(File snapshot, File source) {
+		return snapshot.isFile() && snapshot.lastModified() >= source.lastModified();
+	}
+
+	/**
+	 * Maps file into memory and decodes its dictionaries
+	 *
+	 * @param labelCodec
+	 *            The codec used to read the label table, or null if it is skipped
+	 * @param required
+	 *            The flags the snapshot must have
+	 * @return a graph that reads its edges from the mapped file
+	 * @throws IOException
+	 *             if the file cannot be loaded
+	 */
+	@SuppressWarnings("unchecked")
+	private static <N extends Comparable<N>, E extends Comparable<E>> MappedGraph<N, E> read(File file,
+			SnapshotCodec<N> nodeCodec, SnapshotCodec<E> labelCodec, int required) throws IOException {
+		MappedByteBuffer buffer;
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new IOException(file + " is too large to map");
+			// the mapping stays valid after the file is closed
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			raf.close();
+		}
+
+		try {
+			if (buffer.getInt() != MAGIC)
+				throw new IOException(file + " is not a graph snapshot");
+			int version = buffer.getInt();
+			if (version != VERSION)
+				throw new IOException(file + " has unsupported snapshot version " + version);
+			int flags = buffer.getInt();
+			if ((flags & required) != required)
+				throw new IOException(file + " does not store edge " + (required == HAS_LABELS ? "labels" : "weights"));
+			int nodeCount = buffer.getInt();
+			int edgeCount = buffer.getInt();
+			int labelCount = buffer.getInt();
+			// every label in the table is used by some edge, so there are no more labels than edges
+			if (nodeCount < 0 || edgeCount < 0 || labelCount < 0 || labelCount > edgeCount)
+				throw new IOException(file + " is corrupt: " + nodeCount + " nodes, " + edgeCount + " edges, "
+						+ labelCount + " labels");
+
+			IntBuffer offsets = ints(buffer, nodeCount + 1);
+			IntBuffer targets = ints(buffer, edgeCount);
+			IntBuffer labelIndex = (flags & HAS_LABELS) != 0 ? ints(buffer, edgeCount) : null;
+			DoubleBuffer weights = null;
+			if ((flags & HAS_WEIGHTS) != 0) {
+				ByteBuffer section = section(buffer, (long) edgeCount * 8);
+				weights = section.asDoubleBuffer();
+			}
+
+			N[] nodes = (N[]) new Comparable<?>[nodeCount];
+			for (int i = 0; i < nodeCount; i++) {
+				nodes[i] = nodeCodec.read(buffer);
+			}
+			E[] labelTable = null;
+			if (labelCodec != null) {
+				labelTable = (E[]) new Comparable<?>[labelCount];
+				for (int i = 0; i < labelCount; i++) {
+					labelTable[i] = labelCodec.read(buffer);
+				}
+			} else {
+				// the labels of a weighted load are its weights
+				labelIndex = null;
+			}
+			return new MappedGraph<N, E>(nodes, offsets, targets, labelIndex, labelTable, weights);
+		} catch (BufferUnderflowException e) {
+			throw new IOException(file + " is truncated", e);
+		} catch (IllegalArgumentException e) {
+			throw new IOException(file + " is truncated", e);
+		}
+	}
+
+	/**
+	 * @param buffer
+	 *            The buffer positioned at the start of the section
+	 * @param count
+	 *            The number of ints in the section
+	 * @modifies buffer
+	 * @return a view of the next count ints of buffer, after which buffer is
+	 *         positioned
+	 * @throws BufferUnderflowException
+	 *             if buffer has fewer than count ints remaining
+	 */
+	private static IntBuffer ints(ByteBuffer buffer, int count) {
+		return section(buffer, (long) count * 4).asIntBuffer();
+	}
+
+	/**
+	 * @param buffer
+	 *            The buffer positioned at the start of the section
+	 * @param bytes
+	 *            The length of the section in bytes
+	 * @modifies buffer
+	 * @return a view of the next bytes of buffer, after which buffer is positioned
+	 * @throws BufferUnderflowException
+	 *             if buffer has fewer than bytes remaining
+	 */
+	private static ByteBuffer section(ByteBuffer buffer, long bytes) {
+		if (bytes < 0 || bytes > buffer.remaining())
+			throw new BufferUnderflowException();
+		ByteBuffer section = buffer.slice();
+		section.limit((int) bytes);
+		buffer.position(buffer.position() + (int) bytes);
+		return section;
+	}
+}
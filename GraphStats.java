@@ -0,0 +1,388 @@
+package hw5;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <b>GraphStats<N></b> is an immutable report on the size and shape of a Graph
+ * at the moment Graph.stats() was called.<br>
+ * It counts nodes, edges and distinct parent/child pairs, summarizes the in-
+ * and out-degree of every node as a histogram, names the nodes of greatest
+ * degree, estimates how much heap the graph retains and records how many
+ * mutations the graph has seen since it was created.
+ * <p>
+ * Degree histograms have one bucket per power of two: bucket 0 counts the
+ * nodes of degree 0 and bucket i > 0 counts the nodes whose degree d satisfies
+ * 2^(i-1) <= d < 2^i.
+ * <p>
+ * Heap estimates assume a 64-bit JVM with compressed references, and only
+ * cover the structure of the graph. The node and label objects themselves are
+ * owned by the caller and are not counted.
+ *
+ * @param <N>
+ *            The object type of each node in the graph
+ */
+public final class GraphStats<N extends Comparable<N>> {
+
+	/** The greatest number of nodes listed as having the greatest degree */
+	public static final int MAX_LISTED_NODES = 10;
+
+	/** The size of an object header in bytes */
+	private static final int HEADER = 12;
+
+	/** The size of a reference in bytes */
+	static final int REFERENCE = 4;
+
+	/** The size of a HashMap entry in bytes */
+	static final int MAP_ENTRY = 32;
+
+	/** The size of an empty HashMap in bytes, excluding its table */
+	private static final int MAP = 48;
+
+	/** Stores the number of nodes */
+	private int nodeCount = 0;
+
+	/** Stores the number of edges, counting duplicates */
+	private long edgeCount = 0;
+
+	/** Stores the number of parent/child pairs joined by at least one edge */
+	private long pairCount = 0;
+
+	/** Stores the number of parent/child pairs joined by more than one edge */
+	private long multiEdgePairs = 0;
+
+	/** Stores the number of nodes in each out-degree bucket */
+	private final long[] outDegrees = new long[33];
+
+	/** Stores the number of nodes in each in-degree bucket */
+	private final long[] inDegrees = new long[33];
+
+	/** Stores the greatest out-degree of any node */
+	private int maxOutDegree = 0;
+
+	/** Stores the greatest in-degree of any node */
+	private int maxInDegree = 0;
+
+	/** Stores the nodes whose out-degree is maxOutDegree */
+	private final List<N> maxOutNodes = new ArrayList<N>();
+
+	/** Stores the nodes whose in-degree is maxInDegree */
+	private final List<N> maxInNodes = new ArrayList<N>();
+
+	/** Stores the estimated heap used by the nodes, excluding their edges */
+	private long nodeBytes = 0;
+
+	/** Stores the estimated heap used by the edges */
+	private long edgeBytes = 0;
+
+	/** Stores the number of nodes that had been added to the graph */
+	private final long nodesAdded;
+
+	/** Stores the number of nodes that had been removed from the graph */
+	private final long nodesRemoved;
+
+	/** Stores the number of edges that had been added to the graph */
+	private final long edgesAdded;
+
+	/** Stores the number of edges that had been removed from the graph */
+	private final long edgesRemoved;
+
+	// Abstraction Function:
+	// GraphStats s describes a graph of nodeCount nodes and edgeCount edges
+	// spread over pairCount parent/child pairs, whose degree distribution is
+	// outDegrees and inDegrees, and which has seen nodesAdded, nodesRemoved,
+	// edgesAdded and edgesRemoved mutations.
+	//
+	// Representation Invariant:
+	// * every count is non-negative and multiEdgePairs <= pairCount <= edgeCount
+	// * the buckets of outDegrees and of inDegrees each sum to nodeCount
+	// * maxOutNodes and maxInNodes are sorted and hold at most MAX_LISTED_NODES
+	//   nodes
+	//
+	// A GraphStats is only modified by Graph.stats() while it is being built.
+
+	/**
+	 * Constructs a new empty report with the given mutation counters. Used by
+	 * Graph.stats(), which then records every node and pair.
+	 */
+	GraphStats(long nodesAdded, long nodesRemoved, long edgesAdded, long edgesRemoved) {
+		this.nodesAdded = nodesAdded;
+		this.nodesRemoved = nodesRemoved;
+		this.edgesAdded = edgesAdded;
+		this.edgesRemoved = edgesRemoved;
+	}
+
+	/**
+	 * Records one node of the graph
+	 *
+	 * @param node
+	 *            The node
+	 * @param outDegree
+	 *            The number of edges leaving node
+	 * @param inDegree
+	 *            The number of edges entering node
+	 * @param bytes
+	 *            The estimated heap used by node, excluding its edges
+	 * @modifies this
+	 */
+	void recordNode(N node, int outDegree, int inDegree, long bytes) {
+		nodeCount++;
+		nodeBytes += bytes;
+		outDegrees[bucketOf(outDegree)]++;
+		inDegrees[bucketOf(inDegree)]++;
+		if (outDegree > maxOutDegree) {
+			maxOutDegree = outDegree;
+			maxOutNodes.clear();
+		}
+		if (outDegree == maxOutDegree)
+			maxOutNodes.add(node);
+		if (inDegree > maxInDegree) {
+			maxInDegree = inDegree;
+			maxInNodes.clear();
+		}
+		if (inDegree == maxInDegree)
+			maxInNodes.add(node);
+	}
+
+	/**
+	 * Records one parent/child pair of the graph
+	 *
+	 * @param edges
+	 *            The number of edges between the pair
+	 * @param bytes
+	 *            The estimated heap used by those edges
+	 * @requires edges > 0
+	 * @modifies this
+	 */
+	void recordPair(int edges, long bytes) {
+		pairCount++;
+		edgeCount += edges;
+		edgeBytes += bytes;
+		if (edges > 1)
+			multiEdgePairs++;
+	}
+
+	/**
+	 * Sorts and trims the lists of greatest-degree nodes once every node has been
+	 * recorded
+	 *
+	 * @modifies this
+	 * @return this report
+	 */
+	GraphStats<N> finish() {
+		trim(maxOutNodes);
+		trim(maxInNodes);
+		return this;
+	}
+
+	/**
+	 * @return the number of nodes in the graph
+	 */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * @return the number of edges in the graph, counting duplicates
+	 */
+	public long getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * @return the number of parent/child pairs joined by at least one edge
+	 */
+	public long getPairCount() {
+		return pairCount;
+	}
+
+	/**
+	 * @return the number of parent/child pairs joined by more than one edge
+	 */
+	public long getMultiEdgePairs() {
+		return multiEdgePairs;
+	}
+
+	/**
+	 * @return the out-degree histogram, without any empty buckets after the last
+	 *         non-empty one
+	 */
+	public long[] getOutDegreeHistogram() {
+		return histogram(outDegrees);
+	}
+
+	/**
+	 * @return the in-degree histogram, without any empty buckets after the last
+	 *         non-empty one
+	 */
+	public long[] getInDegreeHistogram() {
+		return histogram(inDegrees);
+	}
+
+	/**
+	 * @return the greatest number of edges leaving any node
+	 */
+	public int getMaxOutDegree() {
+		return maxOutDegree;
+	}
+
+	/**
+	 * @return the greatest number of edges entering any node
+	 */
+	public int getMaxInDegree() {
+		return maxInDegree;
+	}
+
+	/**
+	 * @return a sorted list of at most MAX_LISTED_NODES nodes with the greatest
+	 *         out-degree
+	 */
+	public List<N> getMaxOutDegreeNodes() {
+		return Collections.unmodifiableList(maxOutNodes);
+	}
+
+	/**
+	 * @return a sorted list of at most MAX_LISTED_NODES nodes with the greatest
+	 *         in-degree
+	 */
+	public List<N> getMaxInDegreeNodes() {
+		return Collections.unmodifiableList(maxInNodes);
+	}
+
+	/**
+	 * @return the estimated number of bytes of heap retained by the graph
+	 */
+	public long getEstimatedBytes() {
+		return nodeBytes + edgeBytes;
+	}
+
+	/**
+	 * @return the estimated heap retained per node, excluding the edges leaving
+	 *         it, or 0 if there are no nodes
+	 */
+	public double getEstimatedBytesPerNode() {
+		return nodeCount == 0 ? 0 : (double) nodeBytes / nodeCount;
+	}
+
+	/**
+	 * @return the estimated heap retained per edge, or 0 if there are no edges
+	 */
+	public double getEstimatedBytesPerEdge() {
+		return edgeCount == 0 ? 0 : (double) edgeBytes / edgeCount;
+	}
+
+	/**
+	 * @return the number of nodes that have been added to the graph
+	 */
+	public long getNodesAdded() {
+		return nodesAdded;
+	}
+
+	/**
+	 * @return the number of nodes that have been removed from the graph
+	 */
+	public long getNodesRemoved() {
+		return nodesRemoved;
+	}
+
+	/**
+	 * @return the number of edges that have been added to the graph. An edge
+	 *         that replaces a larger label under EdgeStorage.MIN_ONLY is counted
+	 *         as added and the label it replaces as removed
+	 */
+	public long getEdgesAdded() {
+		return edgesAdded;
+	}
+
+	/**
+	 * @return the number of edges that have been removed from the graph,
+	 *         including those removed along with a node or replaced under
+	 *         EdgeStorage.MIN_ONLY
+	 */
+	public long getEdgesRemoved() {
+		return edgesRemoved;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("nodes: %d, edges: %d, pairs: %d, multi-edge pairs: %d%n"
+				+ "out-degree: max %d %s, histogram %s%n"
+				+ "in-degree: max %d %s, histogram %s%n"
+				+ "estimated heap: %d bytes, %.1f per node, %.1f per edge%n"
+				+ "mutations: %d nodes added, %d removed, %d edges added, %d removed",
+				nodeCount, edgeCount, pairCount, multiEdgePairs,
+				maxOutDegree, maxOutNodes, Arrays.toString(getOutDegreeHistogram()),
+				maxInDegree, maxInNodes, Arrays.toString(getInDegreeHistogram()),
+				getEstimatedBytes(), getEstimatedBytesPerNode(), getEstimatedBytesPerEdge(),
+				nodesAdded, nodesRemoved, edgesAdded, edgesRemoved);
+	}
+
+	/**
+	 * @param bytes
+	 *            The size of the fields of an object in bytes
+	 * @return the size of the object including its header, rounded up to the
+	 *         8 byte alignment of the heap
+	 */
+	static long objectBytes(int bytes) {
+		return (HEADER + bytes + 7) & ~7L;
+	}
+
+	/**
+	 * @param length
+	 *            The length of an array of references
+	 * @return the size of the array in bytes
+	 */
+	static long arrayBytes(int length) {
+		return objectBytes(4 + length * REFERENCE);
+	}
+
+	/**
+	 * @param size
+	 *            The number of entries in a HashMap
+	 * @return the estimated size of the map, its table and its entries in bytes,
+	 *         assuming the default load factor
+	 */
+	static long hashMapBytes(int size) {
+		if (size == 0)
+			return MAP;
+		// the table is the least power of two which holds size entries at 75% full
+		int needed = (int) Math.ceil(size / 0.75);
+		int capacity = Math.max(16, Integer.highestOneBit(needed - 1) << 1);
+		return MAP + arrayBytes(capacity) + (long) size * MAP_ENTRY;
+	}
+
+	/**
+	 * @param degree
+	 *            A degree
+	 * @return the index of the histogram bucket counting nodes of that degree
+	 */
+	private static int bucketOf(int degree) {
+		return 32 - Integer.numberOfLeadingZeros(degree);
+	}
+
+	/**
+	 * @param buckets
+	 *            The buckets of a histogram
+	 * @return a copy of buckets up to and including its last non-empty bucket
+	 */
+	private static long[] histogram(long[] buckets) {
+		int length = buckets.length;
+		while (length > 0 && buckets[length - 1] == 0) {
+			length--;
+		}
+		return Arrays.copyOf(buckets, length);
+	}
+
+	/**
+	 * Sorts nodes and drops all but the first MAX_LISTED_NODES
+	 *
+	 * @modifies nodes
+	 */
+	private static <N extends Comparable<N>> void trim(List<N> nodes) {
+		Collections.sort(nodes);
+		if (nodes.size() > MAX_LISTED_NODES)
+			nodes.subList(MAX_LISTED_NODES, nodes.size()).clear();
+	}
+}
@@ -0,0 +1,26 @@
+package hw7;
+
+/**
+ * <b>Heuristic<N></b> estimates the cost of the cheapest path between two nodes
+ * so that DijkstraEngine can run an A* search, settling the nodes that look
+ * closest to the destination first.<br>
+ * For the search to still return least-cost paths the estimate must be
+ * consistent: it must never exceed the weight of an edge from a to b plus the
+ * estimate from b, and the estimate from a node to itself must be 0. A
+ * consistent estimate never overestimates the true cost.
+ *
+ * @param <N>
+ *            The object type of each node in the graph
+ */
+public interface Heuristic<N> {
+
+	/**
+	 * @param node
+	 *            The node the path begins at
+	 * @param dest
+	 *            The node the path ends at
+	 * @requires node, dest != null
+	 * @return a lower bound on the cost of any path from node to dest
+	 */
+	double estimate(N node, N dest);
+}
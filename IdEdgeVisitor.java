@@ -0,0 +1,24 @@
+package hw5;
+
+/**
+ * <b>IdEdgeVisitor<E></b> is a callback that is handed each outgoing edge of a
+ * node in turn by Graph.forEachEdgeById, identifying the child by its integer id
+ * rather than by the node itself.<br>
+ * Edges are visited in no particular order, and a child is visited once for
+ * every edge that connects it to the parent.
+ *
+ * @param <E>
+ *            The object type of each edge in the graph
+ */
+public interface IdEdgeVisitor<E> {
+
+	/**
+	 * Called once for each edge leaving the node being visited
+	 *
+	 * @param child
+	 *            The id of the node at which the edge terminates
+	 * @param edgeLabel
+	 *            The label of the edge
+	 */
+	void visit(int child, E edgeLabel);
+}
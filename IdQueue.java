@@ -0,0 +1,69 @@
+package hw7;
+
+/**
+ * <b>IdQueue</b> represents a mutable priority queue of integer ids, each with
+ * a double key, in which an id appears at most once and the key of an id
+ * already in the queue can be lowered in place.<br>
+ * It is the frontier of a DijkstraEngine, which can be given any of the
+ * implementations listed by QueueStrategy.
+ * <p>
+ * Some implementations are monotone: they require that no key offered is less
+ * than the last key polled. Dijkstra's algorithm, and A* with a consistent
+ * heuristic, only ever offer such keys.
+ */
+public interface IdQueue {
+
+	/**
+	 * Adds id to the queue with the given key, or lowers its key if it is already
+	 * in the queue with a greater key
+	 *
+	 * @param id
+	 *            The id being added
+	 * @param key
+	 *            The key of id
+	 * @requires id >= 0 && key is not NaN
+	 * @modifies this
+	 * @return true if id was added or its key lowered, false otherwise i.e. id is
+	 *         already in the queue with a key no greater than key
+	 */
+	public boolean offer(int id, double key);
+
+	/**
+	 * Removes the id with the least key
+	 *
+	 * @requires !isEmpty()
+	 * @modifies this
+	 * @return the id that had the least key
+	 */
+	public int poll();
+
+	/**
+	 * @requires !isEmpty()
+	 * @return the least key in the queue
+	 */
+	public double peekKey();
+
+	/**
+	 * @param id
+	 *            The id being looked up
+	 * @return true if id is in the queue, false otherwise
+	 */
+	public boolean contains(int id);
+
+	/**
+	 * @return the number of ids in the queue
+	 */
+	public int size();
+
+	/**
+	 * @return true if the queue is empty, false otherwise
+	 */
+	public boolean isEmpty();
+
+	/**
+	 * Removes every id from the queue
+	 *
+	 * @modifies this
+	 */
+	public void clear();
+}
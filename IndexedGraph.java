@@ -0,0 +1,106 @@
+package hw5;
+
+/**
+ * <b>IndexedGraph<N,E></b> is a read-only graph whose nodes are numbered with
+ * dense integer ids from 0 to size() - 1 and whose edges are numbered from 0 to
+ * edgeCount() - 1, so that searches can keep their state in arrays.<br>
+ * The edges leaving the node with id i are numbered firstEdge(i) (inclusive) to
+ * endEdge(i) (exclusive), sorted by child and then by label, so the first edge
+ * to a given child always carries the least label.
+ * <p>
+ * FrozenGraph keeps its arrays on the heap, while MappedGraph reads them
+ * straight from a memory-mapped GraphSnapshot file.
+ *
+ * @param <N>
+ *            The object type of each node in the graph. N must extend Comparable
+ * @param <E>
+ *            The object type of each edge in the graph. E must extend Comparable
+ */
+public interface IndexedGraph<N extends Comparable<N>, E extends Comparable<E>> {
+
+	/**
+	 * @return the number of nodes in the graph
+	 */
+	int size();
+
+	/**
+	 * @return the number of edges in the graph
+	 */
+	int edgeCount();
+
+	/**
+	 * @return true if there are no nodes in this graph, false otherwise
+	 */
+	boolean isEmpty();
+
+	/**
+	 * @return true if every edge has a weight, false otherwise
+	 */
+	boolean isWeighted();
+
+	/**
+	 * @param node
+	 *            The node that is being looked up
+	 * @requires node != null
+	 * @return the id of node, or -1 if node is not in the graph
+	 */
+	int idOf(N node);
+
+	/**
+	 * @param id
+	 *            The id of the node that is being looked up
+	 * @requires 0 <= id < size()
+	 * @return the node with the given id
+	 */
+	N nodeOf(int id);
+
+	/**
+	 * @param id
+	 *            The id of the node whose edges are being looked up
+	 * @requires 0 <= id < size()
+	 * @return the index of the first edge leaving the node
+	 */
+	int firstEdge(int id);
+
+	/**
+	 * @param id
+	 *            The id of the node whose edges are being looked up
+	 * @requires 0 <= id < size()
+	 * @return one past the index of the last edge leaving the node
+	 */
+	int endEdge(int id);
+
+	/**
+	 * @param edge
+	 *            The index of the edge
+	 * @requires 0 <= edge < edgeCount()
+	 * @return the id of the node at which the edge terminates
+	 */
+	int target(int edge);
+
+	/**
+	 * @param edge
+	 *            The index of the edge
+	 * @requires 0 <= edge < edgeCount()
+	 * @return the label of the edge
+	 */
+	E label(int edge);
+
+	/**
+	 * @param edge
+	 *            The index of the edge
+	 * @requires 0 <= edge < edgeCount() && isWeighted()
+	 * @return the label of the edge as a double
+	 */
+	double weight(int edge);
+
+	/**
+	 * Checks if node is stored in the graph
+	 *
+	 * @param node
+	 *            The node that is being looked up
+	 * @requires node != null
+	 * @return true if the graph contains this node, false otherwise
+	 */
+	boolean containsNode(N node);
+}
@@ -0,0 +1,198 @@
+package hw7;
+
+import java.util.Arrays;
+
+/**
+ * <b>IndexedHeap</b> represents a mutable binary min-heap of integer ids, each
+ * with a double key, that supports lowering the key of an id already in the
+ * heap.<br>
+ * Because each id appears at most once, a search that lowers keys in place
+ * never leaves stale entries behind, and the heap never holds more entries
+ * than there are ids.
+ * <p>
+ * The heap grows as needed to hold larger ids. Ties between equal keys are
+ * broken arbitrarily. Unlike the other IdQueue implementations it is not
+ * monotone, so any key may be offered at any time.
+ */
+public final class IndexedHeap implements IdQueue {
+
+	/** Stores the ids in the heap in heap order */
+	private int[] heap;
+
+	/** Stores the index of each id in heap, or -1 if the id is not in the heap */
+	private int[] position;
+
+	/** Stores the key of each id in the heap */
+	private double[] keys;
+
+	/** Stores the number of ids in the heap */
+	private int size = 0;
+
+	// Abstraction Function:
+	// An IndexedHeap represents the set of ids heap[0..size) where the key of
+	// id i is keys[i].
+	//
+	// Representation Invariant:
+	// * 0 <= size <= heap.length and position.length == keys.length
+	// * position[heap[k]] == k for every k < size, and every other entry of
+	//   position is -1
+	// * keys[heap[(k - 1) / 2]] <= keys[heap[k]] for every 0 < k < size
+
+	/** A boolean constant used to reduce checkRep time if not in testing mode */
+	private static final boolean TESTING_MODE = false;
+
+	/**
+	 * Constructs a new empty heap with room for the ids 0 to capacity - 1
+	 *
+	 * @param capacity
+	 *            One more than the greatest id expected
+	 * @requires capacity >= 0
+	 */
+	public IndexedHeap(int capacity) {
+		heap = new int[Math.max(capacity, 1)];
+		position = new int[Math.max(capacity, 1)];
+		keys = new double[Math.max(capacity, 1)];
+		Arrays.fill(position, -1);
+		checkRep();
+	}
+
+	@Override
+	public boolean offer(int id, double key) {
+		if (id >= position.length)
+			grow(id + 1);
+		int k = position[id];
+		if (k < 0) {
+			k = size++;
+			heap[k] = id;
+			position[id] = k;
+		} else if (key >= keys[id]) {
+			return false;
+		}
+		keys[id] = key;
+		siftUp(k);
+		checkRep();
+		return true;
+	}
+
+	@Override
+	public int poll() {
+		int min = heap[0];
+		position[min] = -1;
+		size--;
+		if (size > 0) {
+			heap[0] = heap[size];
+			position[heap[0]] = 0;
+			siftDown(0);
+		}
+		checkRep();
+		return min;
+	}
+
+	@Override
+	public double peekKey() {
+		return keys[heap[0]];
+	}
+
+	@Override
+	public boolean contains(int id) {
+		return id >= 0 && id < position.length && position[id] >= 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes every id from the heap. This takes time proportional to the number
+	 * of ids in the heap, not its capacity.
+	 *
+	 * @modifies this
+	 */
+	@Override
+	public void clear() {
+		for (int k = 0; k < size; k++) {
+			position[heap[k]] = -1;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Moves the id at index k up until its parent's key is no greater
+	 *
+	 * @modifies this
+	 */
+	private void siftUp(int k) {
+		int id = heap[k];
+		double key = keys[id];
+		while (k > 0) {
+			int parent = (k - 1) >>> 1;
+			int p = heap[parent];
+			if (keys[p] <= key)
+				break;
+			heap[k] = p;
+			position[p] = k;
+			k = parent;
+		}
+		heap[k] = id;
+		position[id] = k;
+	}
+
+	/**
+	 * Moves the id at index k down until neither child's key is less
+	 *
+	 * @modifies this
+	 */
+	private void siftDown(int k) {
+		int id = heap[k];
+		double key = keys[id];
+		int half = size >>> 1;
+		while (k < half) {
+			int child = 2 * k + 1;
+			int right = child + 1;
+			if (right < size && keys[heap[right]] < keys[heap[child]])
+				child = right;
+			int c = heap[child];
+			if (key <= keys[c])
+				break;
+			heap[k] = c;
+			position[c] = k;
+			k = child;
+		}
+		heap[k] = id;
+		position[id] = k;
+	}
+
+	/**
+	 * Makes room for the ids 0 to capacity - 1
+	 *
+	 * @requires capacity > position.length
+	 * @modifies this
+	 */
+	private void grow(int capacity) {
+		int length = Math.max(capacity, position.length * 2);
+		int old = position.length;
+		heap = Arrays.copyOf(heap, length);
+		position = Arrays.copyOf(position, length);
+		keys = Arrays.copyOf(keys, length);
+		Arrays.fill(position, old, length, -1);
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert (size >= 0 && size <= heap.length) : "size out of range";
+		if (TESTING_MODE) {
+			for (int k = 0; k < size; k++) {
+				assert (position[heap[k]] == k) : "position does not match heap";
+				assert (k == 0 || keys[heap[(k - 1) / 2]] <= keys[heap[k]]) : "heap order violated";
+			}
+		}
+	}
+}
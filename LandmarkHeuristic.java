@@ -0,0 +1,256 @@
+package hw7;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import hw5.IndexedGraph;
+
+/**
+ * <b>LandmarkHeuristic<N></b> estimates the cost of the cheapest path between
+ * two nodes from their precomputed distances to and from a few landmark nodes,
+ * so that graphs without coordinates can still be searched with A*.<br>
+ * By the triangle inequality, the cost of a path from v to t is at least
+ * d(L, t) - d(L, v) and at least d(v, L) - d(t, L) for every landmark L. The
+ * estimate is the greatest of these bounds, which is consistent, so
+ * DijkstraEngine still returns least-cost paths. Nodes that cannot reach t
+ * according to these distances are estimated at Double.POSITIVE_INFINITY.
+ * <p>
+ * The landmarks are chosen either as the nodes of greatest degree or by
+ * repeatedly taking the node farthest from every landmark chosen so far, which
+ * tends to place them around the edge of the graph where the bounds are
+ * tightest. Preprocessing runs two searches per landmark, and the distances
+ * are kept in primitive arrays with the entries of each node side by side.
+ *
+ * @param <N>
+ *            The object type of each node in the graph. N must extend Comparable
+ */
+public final class LandmarkHeuristic<N extends Comparable<N>> implements Heuristic<N> {
+
+	/** Stores the graph whose nodes are estimated */
+	private final IndexedGraph<N, Double> graph;
+
+	/** Stores the id of each landmark */
+	private final int[] landmarks;
+
+	/** Stores the distance from each landmark to each node */
+	private final double[] from;
+
+	/** Stores the distance from each node to each landmark */
+	private final double[] to;
+
+	// Abstraction Function:
+	// A LandmarkHeuristic estimates paths in graph using the landmarks with ids
+	// landmarks[0 .. k), where k = landmarks.length. The cost of the cheapest
+	// path from landmark j to the node with id i is from[i * k + j], and the
+	// cost of the cheapest path back is to[i * k + j]; both are infinite if
+	// there is no such path.
+	//
+	// Representation Invariant:
+	// * graph, landmarks, from, to != null
+	// * from.length == to.length == graph.size() * landmarks.length
+	// * 0 <= landmarks[j] < graph.size() for every j
+
+	/**
+	 * Constructs a new heuristic from computed distances, which are kept, not
+	 * copied
+	 */
+	private LandmarkHeuristic(IndexedGraph<N, Double> graph, int[] landmarks, double[] from, double[] to) {
+		this.graph = graph;
+		this.landmarks = landmarks;
+		this.from = from;
+		this.to = to;
+		checkRep();
+	}
+
+	/**
+	 * Creates a heuristic whose landmarks are chosen one at a time as the node
+	 * farthest from every landmark chosen so far, starting from a random node.
+	 * Nodes that no chosen landmark can reach count as the farthest, so every
+	 * component of the graph gets a landmark while there are enough of them.
+	 *
+	 * @param graph
+	 *            The graph the heuristic will be used to search
+	 * @param count
+	 *            The number of landmarks
+	 * @param random
+	 *            The source of the first landmark
+	 * @requires graph, random != null && graph.isWeighted() && count > 0 && every
+	 *           edge of graph is non-negative
+	 * @return a heuristic with min(count, graph.size()) landmarks
+	 */
+	public static <N extends Comparable<N>> LandmarkHeuristic<N> farthest(IndexedGraph<N, Double> graph, int count,
+			Random random) {
+		Csr forward = Csr.of(graph);
+		Csr backward = Csr.reverse(graph);
+		int n = graph.size();
+		int k = Math.min(count, n);
+		int[] landmarks = new int[k];
+		double[] from = new double[n * k];
+		double[] to = new double[n * k];
+
+		// stores the distance from the nearest landmark so far to each node
+		double[] nearest = new double[n];
+		Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+		int next = n == 0 ? 0 : random.nextInt(n);
+		for (int j = 0; j < k; j++) {
+			landmarks[j] = next;
+			double[] distance = distances(forward, next);
+			fill(from, distance, j, k);
+			fill(to, distances(backward, next), j, k);
+
+			// the next landmark is the node whose nearest landmark is farthest away
+			double farthest = -1.0;
+			for (int i = 0; i < n; i++) {
+				nearest[i] = Math.min(nearest[i], distance[i]);
+				if (nearest[i] > farthest && !isLandmark(landmarks, j + 1, i)) {
+					farthest = nearest[i];
+					next = i;
+				}
+			}
+		}
+		return new LandmarkHeuristic<N>(graph, landmarks, from, to);
+	}
+
+	/**
+	 * Creates a heuristic whose landmarks are the nodes with the most edges
+	 * leaving them
+	 *
+	 * @param graph
+	 *            The graph the heuristic will be used to search
+	 * @param count
+	 *            The number of landmarks
+	 * @requires graph != null && graph.isWeighted() && count > 0 && every edge of
+	 *           graph is non-negative
+	 * @return a heuristic with min(count, graph.size()) landmarks
+	 */
+	public static <N extends Comparable<N>> LandmarkHeuristic<N> highestDegree(IndexedGraph<N, Double> graph,
+			int count) {
+		Csr forward = Csr.of(graph);
+		Csr backward = Csr.reverse(graph);
+		int n = graph.size();
+		int k = Math.min(count, n);
+		int[] landmarks = new int[k];
+		double[] from = new double[n * k];
+		double[] to = new double[n * k];
+
+		// selects the k greatest degrees, breaking ties by the lower id
+		for (int j = 0; j < k; j++) {
+			int best = -1;
+			for (int i = 0; i < n; i++) {
+				if (!isLandmark(landmarks, j, i)
+						&& (best < 0 || forward.degree(i) > forward.degree(best))) {
+					best = i;
+				}
+			}
+			landmarks[j] = best;
+			fill(from, distances(forward, best), j, k);
+			fill(to, distances(backward, best), j, k);
+		}
+		return new LandmarkHeuristic<N>(graph, landmarks, from, to);
+	}
+
+	/**
+	 * @return the number of landmarks
+	 */
+	public int getLandmarkCount() {
+		return landmarks.length;
+	}
+
+	/**
+	 * @param index
+	 *            The position of the landmark
+	 * @requires 0 <= index < getLandmarkCount()
+	 * @return the landmark at index
+	 */
+	public N getLandmark(int index) {
+		return graph.nodeOf(landmarks[index]);
+	}
+
+	@Override
+	public double estimate(N node, N dest) {
+		int v = graph.idOf(node);
+		int t = graph.idOf(dest);
+		if (v < 0 || t < 0 || v == t) {
+			return 0.0;
+		}
+		int k = landmarks.length;
+		double bound = 0.0;
+		for (int j = 0; j < k; j++) {
+			double fromV = from[v * k + j];
+			double fromT = from[t * k + j];
+			double toV = to[v * k + j];
+			double toT = to[t * k + j];
+			// a landmark that reaches v but not t proves that v cannot reach t, and
+			// so does a landmark that t reaches but v does not
+			if (fromV != Double.POSITIVE_INFINITY) {
+				if (fromT == Double.POSITIVE_INFINITY)
+					return Double.POSITIVE_INFINITY;
+				bound = Math.max(bound, fromT - fromV);
+			}
+			if (toT != Double.POSITIVE_INFINITY) {
+				if (toV == Double.POSITIVE_INFINITY)
+					return Double.POSITIVE_INFINITY;
+				bound = Math.max(bound, toV - toT);
+			}
+		}
+		return bound;
+	}
+
+	/**
+	 * Copies the distances of one landmark into column j of a table with k
+	 * columns
+	 */
+	private static void fill(double[] table, double[] distance, int j, int k) {
+		for (int i = 0; i < distance.length; i++) {
+			table[i * k + j] = distance[i];
+		}
+	}
+
+	/**
+	 * @return true if node is one of the first count landmarks, false otherwise
+	 */
+	private static boolean isLandmark(int[] landmarks, int count, int node) {
+		for (int j = 0; j < count; j++) {
+			if (landmarks[j] == node)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert (graph != null && landmarks != null && from != null && to != null);
+		assert (from.length == graph.size() * landmarks.length && to.length == from.length)
+				: "every node must have a distance to and from every landmark";
+	}
+
+	/**
+	 * @param edges
+	 *            The edges to search
+	 * @param source
+	 *            The id of the node the search begins at
+	 * @requires edges != null && 0 <= source < edges.size()
+	 * @return the cost of the cheapest path from source to every node along
+	 *         edges, which is infinite for nodes that cannot be reached
+	 */
+	private static double[] distances(Csr edges, int source) {
+		double[] distance = new double[edges.size()];
+		Arrays.fill(distance, Double.POSITIVE_INFINITY);
+		IndexedHeap frontier = new IndexedHeap(distance.length);
+		distance[source] = 0.0;
+		frontier.offer(source, 0.0);
+		while (!frontier.isEmpty()) {
+			int node = frontier.poll();
+			for (int e = edges.offsets[node]; e < edges.offsets[node + 1]; e++) {
+				double cost = distance[node] + edges.weights[e];
+				if (cost < distance[edges.targets[e]]) {
+					distance[edges.targets[e]] = cost;
+					frontier.offer(edges.targets[e], cost);
+				}
+			}
+		}
+		return distance;
+	}
+}
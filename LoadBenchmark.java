@@ -0,0 +1,224 @@
+package hw8;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import hw5.Graph;
+import hw5.GraphSnapshot;
+import hw5.WeightedGraph;
+import hw6.MarvelPaths;
+import hw7.Dijkstra;
+import hw7.Edge;
+import hw7.MarvelParser2;
+
+/**
+ * <b>LoadBenchmark</b> is a command line utility that measures how long it takes
+ * to load the campus and Marvel datasets into a graph, comparing one call per
+ * node and edge against the bulk loading paths.<br>
+ * Usage: LoadBenchmark [campusPathsFile] [marvelFile] [repetitions]
+ * <p>
+ * Each file is parsed once up front so only graph construction is timed. Each
+ * dataset is also saved to a temporary GraphSnapshot so that mapping it back in
+ * can be compared against building it. A dataset whose file cannot be found is
+ * skipped. The GraphStats of each loaded graph are printed so the heap cost of
+ * each storage choice can be compared.
+ */
+public class LoadBenchmark {
+
+	// Not an ADT
+
+	public static void main(String[] args) throws MarvelParser2.MalformedDataException, IOException {
+		String campusFile = args.length > 0 ? args[0] : "src/hw8/data/campus_paths.dat";
+		String marvelFile = args.length > 1 ? args[1] : "src/hw7/data/marvel.tsv";
+		int repetitions = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+		if (new File(campusFile).exists()) {
+			campus(campusFile, repetitions);
+		} else {
+			System.out.println("Skipping campus: " + campusFile + " not found");
+		}
+		if (new File(marvelFile).exists()) {
+			marvel(marvelFile, repetitions);
+		} else {
+			System.out.println("Skipping Marvel: " + marvelFile + " not found");
+		}
+	}
+
+	/**
+	 * Times loading the campus paths
+	 *
+	 * @param fileName
+	 *            The campus paths file
+	 * @param repetitions
+	 *            The number of times each load is repeated
+	 */
+	private static void campus(String fileName, int repetitions) throws IOException {
+		final List<Edge<CampusPoint, Double>> paths = new ArrayList<Edge<CampusPoint, Double>>();
+		CampusParser.parsePaths(fileName, paths);
+		System.out.println("Campus: " + paths.size() + " paths");
+
+		time("per-call Graph", repetitions, new Runnable() {
+			@Override
+			public void run() {
+				Graph<CampusPoint, Double> g = new Graph<CampusPoint, Double>();
+				for (Edge<CampusPoint, Double> e : paths) {
+					if (!g.containsNode(e.getParent()))
+						g.addNode(e.getParent());
+					if (!g.containsNode(e.getChild()))
+						g.addNode(e.getChild());
+					g.addEdge(e.getParent(), e.getChild(), e.getLabel());
+				}
+			}
+		});
+		time("Graph.Builder", repetitions, new Runnable() {
+			@Override
+			public void run() {
+				Graph.Builder<CampusPoint, Double> g = new Graph.Builder<CampusPoint, Double>(paths.size(),
+						paths.size());
+				for (Edge<CampusPoint, Double> e : paths) {
+					g.addEdge(e.getParent(), e.getChild(), e.getLabel());
+				}
+				g.build();
+			}
+		});
+		time("pre-sized WeightedGraph", repetitions, new Runnable() {
+			@Override
+			public void run() {
+				WeightedGraph<CampusPoint> g = new WeightedGraph<CampusPoint>(paths.size());
+				for (Edge<CampusPoint, Double> e : paths) {
+					g.addNode(e.getParent());
+					g.addNode(e.getChild());
+					g.addEdge(e.getParent(), e.getChild(), e.getLabel());
+				}
+				g.freeze();
+			}
+		});
+
+		Graph.Builder<CampusPoint, Double> built = new Graph.Builder<CampusPoint, Double>(paths.size(), paths.size());
+		for (Edge<CampusPoint, Double> e : paths) {
+			built.addEdge(e.getParent(), e.getChild(), e.getLabel());
+		}
+		System.out.println("Graph.Builder graph:\n" + built.build().stats());
+
+		WeightedGraph<CampusPoint> g = new WeightedGraph<CampusPoint>(paths.size());
+		for (Edge<CampusPoint, Double> e : paths) {
+			g.addNode(e.getParent());
+			g.addNode(e.getChild());
+			g.addEdge(e.getParent(), e.getChild(), e.getLabel());
+		}
+		final File snapshot = File.createTempFile("campus", ".snapshot");
+		snapshot.deleteOnExit();
+		GraphSnapshot.write(g.freeze(), snapshot, CampusParser.POINTS, null);
+		time("GraphSnapshot.loadWeighted", repetitions, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					GraphSnapshot.loadWeighted(snapshot, CampusParser.POINTS);
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Times loading the Marvel dataset
+	 *
+	 * @param fileName
+	 *            The Marvel dataset file
+	 * @param repetitions
+	 *            The number of times each load is repeated
+	 */
+	private static void marvel(String fileName, int repetitions)
+			throws MarvelParser2.MalformedDataException, IOException {
+		final Set<String> characters = new HashSet<String>();
+		final Map<String, List<String>> books = new HashMap<String, List<String>>();
+		MarvelParser2.parseData(fileName, characters, books);
+		final Map<String, Set<String>> bookSets = new HashMap<String, Set<String>>();
+		for (String book : books.keySet()) {
+			bookSets.put(book, new HashSet<String>(books.get(book)));
+		}
+		System.out.println("Marvel: " + characters.size() + " characters, " + books.size() + " books");
+
+		time("per-call Graph (BFS)", repetitions, new Runnable() {
+			@Override
+			public void run() {
+				Graph<String, String> g = new Graph<String, String>();
+				for (String character : characters) {
+					g.addNode(character);
+				}
+				for (String book : bookSets.keySet()) {
+					for (String char1 : bookSets.get(book)) {
+						for (String char2 : bookSets.get(book)) {
+							if (!char1.equals(char2) && !g.containsEdge(char1, char2, book)) {
+								g.addEdge(char1, char2, book);
+							}
+						}
+					}
+				}
+			}
+		});
+		time("MarvelPaths.createGraph", repetitions, new Runnable() {
+			@Override
+			public void run() {
+				MarvelPaths.createGraph(characters, bookSets);
+			}
+		});
+		time("Dijkstra.createGraph", repetitions, new Runnable() {
+			@Override
+			public void run() {
+				Dijkstra.createGraph(characters, books);
+			}
+		});
+
+		System.out.println("MarvelPaths.createGraph graph:\n" + MarvelPaths.createGraph(characters, bookSets).stats());
+		System.out.println("Dijkstra.createGraph graph:\n" + Dijkstra.createGraph(characters, books).stats());
+
+		final File snapshot = File.createTempFile("marvel", ".snapshot");
+		snapshot.deleteOnExit();
+		GraphSnapshot.write(MarvelPaths.createGraph(characters, bookSets).freeze(), snapshot, GraphSnapshot.STRINGS,
+				GraphSnapshot.STRINGS);
+		time("GraphSnapshot.load", repetitions, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					GraphSnapshot.load(snapshot, GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Runs load once to warm up and then repetitions more times, printing the
+	 * fastest and average time
+	 *
+	 * @param name
+	 *            The name printed alongside the results
+	 * @param repetitions
+	 *            The number of timed runs
+	 * @param load
+	 *            The work being timed
+	 */
+	private static void time(String name, int repetitions, Runnable load) {
+		load.run();
+		long best = Long.MAX_VALUE;
+		long total = 0;
+		for (int i = 0; i < repetitions; i++) {
+			long start = System.nanoTime();
+			load.run();
+			long elapsed = System.nanoTime() - start;
+			best = Math.min(best, elapsed);
+			total += elapsed;
+		}
+		System.out.println(String.format("\t%-28s best %8.2f ms   mean %8.2f ms", name, best / 1e6,
+				total / 1e6 / Math.max(repetitions, 1)));
+	}
+}
@@ -0,0 +1,178 @@
+package hw5;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <b>MappedGraph<N,E></b> represents an immutable graph whose edges are read
+ * directly from a memory-mapped GraphSnapshot file.<br>
+ * Only the node dictionary and the table of distinct edge labels are decoded
+ * when the snapshot is loaded. The offsets, targets, label indices and weights
+ * of the edges stay in the mapped file and are paged in by the operating
+ * system as searches touch them, so loading takes time proportional to the
+ * number of nodes rather than the number of edges.
+ * <p>
+ * A MappedGraph is created with GraphSnapshot.load or GraphSnapshot.loadWeighted.
+ *
+ * @param <N>
+ *            The object type of each node in the graph. N must extend Comparable
+ * @param <E>
+ *            The object type of each edge in the graph. E must extend Comparable
+ */
+
+public final class MappedGraph<N extends Comparable<N>, E extends Comparable<E>> implements IndexedGraph<N, E> {
+
+	/** Maps each node id to the node it represents */
+	private final N[] nodes;
+
+	/** Maps each node to its id */
+	private final Map<N, Integer> ids;
+
+	/** Stores where the edges of each node begin; offsets.get(nodes.length) is the edge count */
+	private final IntBuffer offsets;
+
+	/** Stores the id of the child at which each edge terminates */
+	private final IntBuffer targets;
+
+	/** Stores the index into labelTable of each edge label, or null if labels are only kept as weights */
+	private final IntBuffer labelIndex;
+
+	/** Stores each distinct edge label once, or null if labels are only kept as weights */
+	private final E[] labelTable;
+
+	/** Stores the weight of each edge, or null if the graph is not weighted */
+	private final DoubleBuffer weights;
+
+	// Abstraction function:
+	// MappedGraph g represents a graph whose i-th node is nodes[i]. For every
+	// index k in [offsets.get(i), offsets.get(i + 1)) there is an edge from
+	// nodes[i] to nodes[targets.get(k)] with the label
+	// labelTable[labelIndex.get(k)] (and the weight weights.get(k) when the
+	// graph is weighted). When labelIndex is null the label of each edge is its
+	// weight.
+	//
+	// Representation Invariant for every MappedGraph g:
+	// * nodes, ids, offsets, targets != null
+	// * labelIndex and weights cannot both be null
+	// * labelIndex and labelTable are either both null or both non-null
+	// * nodes is sorted in ascending order and contains no null entries
+	// * ids.get(nodes[i]) == i for every i
+	// * offsets.limit() == nodes.length + 1 && offsets is non-decreasing
+	// * targets.limit() == offsets.get(nodes.length)
+	// * labelIndex == null || labelIndex.limit() == targets.limit()
+	// * weights == null || weights.limit() == targets.limit()
+
+	/** A boolean constant used to reduce checkRep time if not in testing mode */
+	private static final boolean TESTING_MODE = false;
+
+	/**
+	 * Constructs a new MappedGraph over the sections of a loaded snapshot
+	 *
+	 * @requires the arguments satisfy the representation invariant
+	 */
+	MappedGraph(N[] nodes, IntBuffer offsets, IntBuffer targets, IntBuffer labelIndex, E[] labelTable,
+			DoubleBuffer weights) {
+		this.nodes = nodes;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.labelIndex = labelIndex;
+		this.labelTable = labelTable;
+		this.weights = weights;
+
+		ids = new HashMap<N, Integer>(nodes.length * 2);
+		for (int i = 0; i < nodes.length; i++) {
+			ids.put(nodes[i], i);
+		}
+		checkRep();
+	}
+
+	@Override
+	public int size() {
+		return nodes.length;
+	}
+
+	@Override
+	public int edgeCount() {
+		return targets.limit();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return nodes.length == 0;
+	}
+
+	@Override
+	public boolean isWeighted() {
+		return weights != null;
+	}
+
+	@Override
+	public int idOf(N node) {
+		Integer id = ids.get(node);
+		return id == null ? -1 : id;
+	}
+
+	@Override
+	public N nodeOf(int id) {
+		return nodes[id];
+	}
+
+	@Override
+	public int firstEdge(int id) {
+		return offsets.get(id);
+	}
+
+	@Override
+	public int endEdge(int id) {
+		return offsets.get(id + 1);
+	}
+
+	@Override
+	public int target(int edge) {
+		return targets.get(edge);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E label(int edge) {
+		if (labelIndex == null)
+			return (E) Double.valueOf(weights.get(edge));
+		return labelTable[labelIndex.get(edge)];
+	}
+
+	@Override
+	public double weight(int edge) {
+		return weights.get(edge);
+	}
+
+	@Override
+	public boolean containsNode(N node) {
+		return ids.containsKey(node);
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert (nodes != null && ids != null) : "node dictionary cannot be null";
+		assert (offsets != null && targets != null) : "edge arrays cannot be null";
+		assert (labelIndex != null || weights != null) : "edges must have labels or weights";
+		assert ((labelIndex == null) == (labelTable == null)) : "label indices need a label table";
+		assert (offsets.limit() == nodes.length + 1) : "every node must have an offset";
+		assert (labelIndex == null || targets.limit() == labelIndex.limit()) : "every edge must have a label";
+		assert (weights == null || targets.limit() == weights.limit()) : "every edge must have a weight";
+		if (TESTING_MODE) {
+			for (int i = 0; i < nodes.length; i++) {
+				assert (nodes[i] != null) : "null node";
+				assert (i == 0 || nodes[i - 1].compareTo(nodes[i]) < 0) : "nodes must be sorted";
+				assert (offsets.get(i) <= offsets.get(i + 1)) : "offsets must be non-decreasing";
+			}
+			for (int k = 0; k < targets.limit(); k++) {
+				assert (targets.get(k) >= 0 && targets.get(k) < nodes.length) : "edge points outside graph";
+				assert (labelIndex == null || labelTable[labelIndex.get(k)] != null) : "cannot have a null edge";
+			}
+		}
+	}
+}
@@ -1,16 +1,25 @@
 package hw6;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Scanner;
 import java.util.Set;
 
+import hw5.EdgeStorage;
+import hw5.FrozenGraph;
 import hw5.Graph;
+import hw5.GraphSnapshot;
+import hw5.IdEdgeVisitor;
+import hw5.IndexedGraph;
+import hw5.SearchLimit;
+import hw5.SearchOutcome;
+import hw5.SearchStats;
 
 /**
  *  <b>MarvelPaths</b> allows a user to create a graph of strings using the MarvelParser class
@@ -22,21 +31,11 @@ public class MarvelPaths {
 	// Not an ADT
 	
 	public static void main(String[] args) {
-		Map<String, Set<String>> books = new HashMap<String, Set<String>>();
-		Set<String> characters = new HashSet<String>();
-		
 		Scanner console = new Scanner(System.in);
 		
 		System.out.print("Which file would you like to construct a file from? ");
 		String fileName = console.next();
-		try {
-			MarvelParser.parseData("src/hw6/data/" + fileName,
-					characters, books);
-		} catch (Exception e) {
-			System.out.println("File not found. Please end program and try again, making sure you typed that correctly.");
-		}
-		
-		Graph<String, String> g = createGraph(characters, books);
+		IndexedGraph<String, String> g = loadGraph("src/hw6/data/" + fileName);
 		
 		System.out.println("You can now search for paths between characters using BFS.");
 		String start = getInput(console, "Start");
@@ -46,6 +45,46 @@ public class MarvelPaths {
 		
 	}
 	
+	/**
+	 * Loads the graph of a dataset. If a binary snapshot saved next to the dataset
+	 * is at least as new as it, the snapshot is memory-mapped instead of parsing
+	 * the dataset again. Otherwise the dataset is parsed and a new snapshot is
+	 * saved for the next start.
+	 * 
+	 * @param fileName
+	 * 			The dataset being loaded
+	 * @return a read-only graph of the dataset, which is empty if the dataset
+	 * 		   could not be parsed
+	 */
+	private static IndexedGraph<String, String> loadGraph(String fileName) {
+		File snapshot = new File(fileName + ".snapshot");
+		if (GraphSnapshot.isCurrent(snapshot, new File(fileName))) {
+			try {
+				return GraphSnapshot.load(snapshot, GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+			} catch (IOException e) {
+				// the snapshot is unreadable, so it is rebuilt from the dataset below
+			}
+		}
+		
+		Map<String, Set<String>> books = new HashMap<String, Set<String>>();
+		Set<String> characters = new HashSet<String>();
+		try {
+			MarvelParser.parseData(fileName, characters, books);
+		} catch (Exception e) {
+			System.out.println("File not found. Please end program and try again, making sure you typed that correctly.");
+			return createGraph(characters, books).freeze();
+		}
+		
+		// the graph is only queried from here on, so it is compiled into a compact snapshot
+		FrozenGraph<String, String> g = createGraph(characters, books).freeze();
+		try {
+			GraphSnapshot.write(g, snapshot, GraphSnapshot.STRINGS, GraphSnapshot.STRINGS);
+		} catch (IOException e) {
+			// the snapshot only speeds up the next start, so the graph is still usable
+		}
+		return g;
+	}
+	
 	/**
 	 * @param characters
 	 * 			Set of nodes to be added to the graph
@@ -55,7 +94,16 @@ public class MarvelPaths {
 	 */
 	public static Graph<String, String> createGraph(Set<String> characters,
 			Map<String, Set<String>> books) {
-		Graph<String, String> g = new Graph<String, String>();
+		// every book links each pair of its characters in both directions
+		int edgeCount = 0;
+		for (Set<String> cast : books.values()) {
+			edgeCount += cast.size() * (cast.size() - 1);
+		}
+		
+		// each book connects a pair of characters at most once, so the edges are kept
+		// in hash sets which ignore duplicates in O(1)
+		Graph.Builder<String, String> g = new Graph.Builder<String, String>(characters.size(), edgeCount)
+				.storage(EdgeStorage.HASH_SET);
 		Set<String> edges = books.keySet();
 		for (String character : characters) {
 			g.addNode(character);
@@ -63,13 +111,13 @@ public class MarvelPaths {
 		for (String book : edges) {
 			for (String char1 : books.get(book)) {
 				for (String char2 : books.get(book)) {
-					if (!char1.equals(char2) && !g.containsEdge(char1, char2, book)) {
+					if (!char1.equals(char2)) {
 						g.addEdge(char1, char2, book);
 					}
 				}
 			}
 		}
-		return g;
+		return g.build();
 	}
 	
 	/**
@@ -88,46 +136,601 @@ public class MarvelPaths {
 	 * 		   Note: returns null if no path exists.
 	 */
 	public static Map<String, List<String>> search(String start, String dest, Graph<String, String> graph) {
-		Queue<String> nodeQueue = new LinkedList<String>();
-		Map<String, Map<String, List<String>>> paths = new HashMap<String, Map<String, List<String>>>();
-		
-		nodeQueue.add(start);
-		paths.put(start, new HashMap<String, List<String>>());
-		
-		while (!nodeQueue.isEmpty()) {
-			String next = nodeQueue.remove();
-			if (next.equals(dest)) {
-				return paths.get(next);
-			}
-			for (String child : graph.getChildren(next)) {
-				if (!paths.containsKey(child)) {
-					
-					// creates a copy of the path to parent of child
-					Map<String, List<String>> newPath = new HashMap<String, List<String>>();
-					Map<String, List<String>> edges = paths.get(next);
-					for (String edge : edges.keySet()) {
-						newPath.put(edge, edges.get(edge));
-					}
-					
-					// creates a parent/child pair to add to the map of edges
+		return search(start, dest, graph, null);
+	}
+	
+	/**
+	 * Searches for a path from a start node to a destination node as search
+	 * does, recording the work done by the search
+	 * 
+	 * @param start
+	 * 			The start node in the search
+	 * @param dest
+	 * 			The destination node in the search
+	 * @param graph
+	 * 			The graph which is being searched
+	 * @param stats
+	 * 			The record the search adds its work to, or null to not record it
+	 * @modifies stats
+	 * @return the path search would return
+	 */
+	public static Map<String, List<String>> search(String start, String dest, Graph<String, String> graph,
+			SearchStats stats) {
+		if (stats == null) {
+			return find(start, dest, graph, null, null).getPath();
+		}
+		stats.begin();
+		try {
+			return find(start, dest, graph, stats, null).getPath();
+		} finally {
+			stats.end();
+		}
+	}
+	
+	/**
+	 * Searches for a path from a start node to a destination node as search
+	 * does, unless limit stops the search first, so that a search between
+	 * characters with no path can be cut short before it explores the whole
+	 * component of start
+	 * 
+	 * @param start
+	 * 			The start node in the search
+	 * @param dest
+	 * 			The destination node in the search
+	 * @param graph
+	 * 			The graph which is being searched
+	 * @param limit
+	 * 			The bounds on the search
+	 * @return an outcome holding the path search would return if the search finished
+	 * 		   within limit, or else the bound that stopped it and the nodes it would
+	 * 		   have visited next
+	 */
+	public static SearchOutcome<Map<String, List<String>>, String> searchWithin(String start, String dest,
+			Graph<String, String> graph, SearchLimit limit) {
+		return searchWithin(start, dest, graph, limit, null);
+	}
+	
+	/**
+	 * Searches for a path from a start node to a destination node as
+	 * searchWithin does, recording the work done by the search
+	 * 
+	 * @param start
+	 * 			The start node in the search
+	 * @param dest
+	 * 			The destination node in the search
+	 * @param graph
+	 * 			The graph which is being searched
+	 * @param limit
+	 * 			The bounds on the search
+	 * @param stats
+	 * 			The record the search adds its work to, or null to not record it
+	 * @modifies stats
+	 * @return the outcome searchWithin would return
+	 */
+	public static SearchOutcome<Map<String, List<String>>, String> searchWithin(String start, String dest,
+			Graph<String, String> graph, SearchLimit limit, SearchStats stats) {
+		if (stats == null) {
+			return find(start, dest, graph, null, limit);
+		}
+		stats.begin();
+		try {
+			return find(start, dest, graph, stats, limit);
+		} finally {
+			stats.end();
+		}
+	}
+	
+	/**
+	 * Searches for a path as searchWithin does, recording the work of each step
+	 * but not the search as a whole into stats unless it is null, and never
+	 * stopping if limit is null
+	 */
+	private static SearchOutcome<Map<String, List<String>>, String> find(String start, String dest,
+			Graph<String, String> graph, SearchStats stats, SearchLimit limit) {
+		if (start.equals(dest)) {
+			return SearchOutcome.complete(new HashMap<String, List<String>>(), 0);
+		}
+		int source = graph.idOf(start);
+		int target = graph.idOf(dest);
+		if (source < 0 || target < 0) {
+			return SearchOutcome.complete(null, 0);
+		}
+		
+		// the search state is kept in arrays indexed by node id, and each node only
+		// records the node and title it was discovered from rather than a whole path
+		Discoverer found = new Discoverer(graph.idBound());
+		found.stats = stats;
+		found.from[source] = source;
+		found.nodeQueue[found.tail++] = source;
+		if (stats != null)
+			stats.push(1);
+		int head = 0;
+		
+		while (head < found.tail) {
+			SearchLimit.Reason reason = limit == null ? null : limit.exceeded(head);
+			if (reason != null) {
+				List<String> frontier = new ArrayList<String>();
+				for (int k = head; k < found.tail && frontier.size() < limit.getFrontierSize(); k++) {
+					frontier.add(graph.nodeOf(found.nodeQueue[k]));
+				}
+				return SearchOutcome.stopped(reason, frontier, head);
+			}
+			int next = found.nodeQueue[head++];
+			if (stats != null) {
+				stats.pop();
+				stats.settle();
+			}
+			if (next == target) {
+				// walks back from dest and then adds each parent/child pair to the
+				// path in order from start, so repeated titles overwrite each other
+				// in the same order as when each path was copied from its parent
+				List<Integer> nodes = new ArrayList<Integer>();
+				for (int node = target; node != source; node = found.from[node]) {
+					nodes.add(node);
+				}
+				Map<String, List<String>> path = new HashMap<String, List<String>>();
+				for (int i = nodes.size() - 1; i >= 0; i--) {
+					int node = nodes.get(i);
 					List<String> edgeValue = new ArrayList<String>();
-					edgeValue.add(next);
-					edgeValue.add(child);
-					
-					// adds the lexicographically least title as the edge and
-					// previous parent/child pair as the values to show a new
-					// edge in the path
-					newPath.put(graph.getEdges(next, child).get(0), edgeValue);
-					
-					// updates paths to represent the path to child
-					paths.put(child, newPath);
-					nodeQueue.add(child);
+					edgeValue.add(graph.nodeOf(found.from[node]));
+					edgeValue.add(graph.nodeOf(node));
+					path.put(found.title[node], edgeValue);
 				}
+				return SearchOutcome.complete(path, head);
 			}
+			
+			// queues the children discovered from next in sorted order, each with the
+			// lexicographically least title connecting them
+			int discovered = found.tail;
+			found.parent = next;
+			found.head = head;
+			graph.forEachEdgeById(next, found);
+			graph.sortByNode(found.nodeQueue, discovered, found.tail);
 		}
 		
-		// if no path exists returns null
-		return null;
+		// if no path exists the outcome is complete but holds null
+		return SearchOutcome.complete(null, head);
+	}
+	
+	/**
+	 * Searches for a path from a start node to a destination
+	 * node via breadth-first search (BFS) on an IndexedGraph, such as a
+	 * FrozenGraph or a MappedGraph.
+	 * Children are visited in the same sorted order as the Graph version of
+	 * this search, so both return the same path.
+	 * 
+	 * @param start
+	 * 			The start node in the search
+	 * @param dest
+	 * 			The destination node in the search
+	 * @param graph
+	 * 			The indexed graph which is being searched
+	 * @return a map with edges as the keys and a list of nodes as the values. Index 0 of each
+	 * 		   list represents the parent and index 1 represents the child. The map represents
+	 * 		   the path from start to dest.<br>
+	 * 		   Note: returns null if no path exists.
+	 */
+	public static Map<String, List<String>> search(String start, String dest, IndexedGraph<String, String> graph) {
+		return search(start, dest, graph, null);
+	}
+	
+	/**
+	 * Searches for a path from a start node to a destination node as search
+	 * does, recording the work done by the search
+	 * 
+	 * @param start
+	 * 			The start node in the search
+	 * @param dest
+	 * 			The destination node in the search
+	 * @param graph
+	 * 			The indexed graph which is being searched
+	 * @param stats
+	 * 			The record the search adds its work to, or null to not record it
+	 * @modifies stats
+	 * @return the path search would return
+	 */
+	public static Map<String, List<String>> search(String start, String dest, IndexedGraph<String, String> graph,
+			SearchStats stats) {
+		if (stats == null) {
+			return find(start, dest, graph, null, null, null).getPath();
+		}
+		stats.begin();
+		try {
+			return find(start, dest, graph, stats, null, null).getPath();
+		} finally {
+			stats.end();
+		}
+	}
+	
+	/**
+	 * Searches for a path from a start node to a destination node as search
+	 * does, unless limit stops the search first, so that a search between
+	 * characters with no path can be cut short before it explores the whole
+	 * component of start
+	 * 
+	 * @param start
+	 * 			The start node in the search
+	 * @param dest
+	 * 			The destination node in the search
+	 * @param graph
+	 * 			The indexed graph which is being searched
+	 * @param limit
+	 * 			The bounds on the search
+	 * @return an outcome holding the path search would return if the search finished
+	 * 		   within limit, or else the bound that stopped it and the nodes it would
+	 * 		   have visited next
+	 */
+	public static SearchOutcome<Map<String, List<String>>, String> searchWithin(String start, String dest,
+			IndexedGraph<String, String> graph, SearchLimit limit) {
+		return searchWithin(start, dest, graph, limit, null);
+	}
+	
+	/**
+	 * Searches for a path from a start node to a destination node as
+	 * searchWithin does, recording the work done by the search
+	 * 
+	 * @param start
+	 * 			The start node in the search
+	 * @param dest
+	 * 			The destination node in the search
+	 * @param graph
+	 * 			The indexed graph which is being searched
+	 * @param limit
+	 * 			The bounds on the search
+	 * @param stats
+	 * 			The record the search adds its work to, or null to not record it
+	 * @modifies stats
+	 * @return the outcome searchWithin would return
+	 */
+	public static SearchOutcome<Map<String, List<String>>, String> searchWithin(String start, String dest,
+			IndexedGraph<String, String> graph, SearchLimit limit, SearchStats stats) {
+		if (stats == null) {
+			return find(start, dest, graph, null, limit, null);
+		}
+		stats.begin();
+		try {
+			return find(start, dest, graph, stats, limit, null);
+		} finally {
+			stats.end();
+		}
+	}
+	
+	/**
+	 * Searches for a path from a start node to a destination node with a
+	 * bidirectional breadth-first search, which returns the same path as search
+	 * while visiting far fewer nodes when start and dest are far apart.<br>
+	 * A search from each end expands one level at a time, always the side with
+	 * the smaller frontier, until the two meet. Every node on a shortest path
+	 * is then marked by walking back from the meeting nodes through the levels
+	 * of each side, and the path is found by a breadth-first search from start
+	 * that visits only the marked nodes. A node's first neighbour one level
+	 * closer to start is always marked too, so this search discovers each
+	 * marked node from the same parent, and by the same book, as a full search
+	 * would, which keeps the lexicographically least titles of search.
+	 * 
+	 * @param start
+	 * 			The start node in the search
+	 * @param dest
+	 * 			The destination node in the search
+	 * @param graph
+	 * 			The indexed graph which is being searched
+	 * @requires graph is symmetric, so that every edge from a to b has an edge from b to a
+	 * 			 with the same title, as the graphs made by createGraph are
+	 * @return the path search would return
+	 */
+	public static Map<String, List<String>> searchBidirectional(String start, String dest,
+			IndexedGraph<String, String> graph) {
+		return searchBidirectional(start, dest, graph, null);
+	}
+	
+	/**
+	 * Searches for a path from a start node to a destination node as
+	 * searchBidirectional does, recording the work done by the search
+	 * 
+	 * @param start
+	 * 			The start node in the search
+	 * @param dest
+	 * 			The destination node in the search
+	 * @param graph
+	 * 			The indexed graph which is being searched
+	 * @param stats
+	 * 			The record the search adds its work to, or null to not record it
+	 * @requires graph is symmetric
+	 * @modifies stats
+	 * @return the path search would return
+	 */
+	public static Map<String, List<String>> searchBidirectional(String start, String dest,
+			IndexedGraph<String, String> graph, SearchStats stats) {
+		if (stats == null) {
+			return findBidirectional(start, dest, graph, null);
+		}
+		stats.begin();
+		try {
+			return findBidirectional(start, dest, graph, stats);
+		} finally {
+			stats.end();
+		}
+	}
+	
+	/**
+	 * Searches for a path as searchBidirectional does, recording the work of each
+	 * step but not the search as a whole into stats unless it is null
+	 */
+	private static Map<String, List<String>> findBidirectional(String start, String dest,
+			IndexedGraph<String, String> graph, SearchStats stats) {
+		if (start.equals(dest)) {
+			return new HashMap<String, List<String>>();
+		}
+		int source = graph.idOf(start);
+		int target = graph.idOf(dest);
+		if (source < 0 || target < 0) {
+			return null;
+		}
+		
+		// expands the smaller frontier a level at a time until the sides meet
+		Side forward = new Side(graph.size(), source);
+		Side backward = new Side(graph.size(), target);
+		boolean met = false;
+		while (!met) {
+			if (forward.layer == forward.tail || backward.layer == backward.tail) {
+				// if no path exists returns null
+				return null;
+			}
+			if (forward.tail - forward.layer <= backward.tail - backward.layer) {
+				met = forward.expand(graph, backward, stats);
+			} else {
+				met = backward.expand(graph, forward, stats);
+			}
+		}
+		
+		// the nodes reached by both sides lie on every shortest path through them,
+		// and a neighbour one level closer to either end of a node on a shortest
+		// path is on a shortest path too
+		boolean[] onPath = new boolean[graph.size()];
+		for (int k = 0; k < forward.tail; k++) {
+			int node = forward.queue[k];
+			onPath[node] = backward.depth[node] >= 0;
+		}
+		forward.markCloser(graph, onPath);
+		backward.markCloser(graph, onPath);
+		return find(start, dest, graph, stats, null, onPath).getPath();
+	}
+	
+	/**
+	 * Searches for a path as searchWithin does, recording the work of each step
+	 * but not the search as a whole into stats unless it is null, never
+	 * stopping if limit is null, and visiting only the nodes marked in onPath
+	 * unless it is null
+	 */
+	private static SearchOutcome<Map<String, List<String>>, String> find(String start, String dest,
+			IndexedGraph<String, String> graph, SearchStats stats, SearchLimit limit, boolean[] onPath) {
+		if (start.equals(dest)) {
+			return SearchOutcome.complete(new HashMap<String, List<String>>(), 0);
+		}
+		int source = graph.idOf(start);
+		int target = graph.idOf(dest);
+		if (source < 0 || target < 0) {
+			return SearchOutcome.complete(null, 0);
+		}
+		
+		// via[i] is the edge used to discover node i, or -1 if it is undiscovered
+		int[] via = new int[graph.size()];
+		int[] from = new int[graph.size()];
+		Arrays.fill(via, -1);
+		int[] nodeQueue = new int[graph.size()];
+		int head = 0;
+		int tail = 0;
+		
+		nodeQueue[tail++] = source;
+		via[source] = graph.edgeCount(); // marks start as discovered without an edge
+		if (stats != null)
+			stats.push(1);
+		
+		while (head < tail) {
+			SearchLimit.Reason reason = limit == null ? null : limit.exceeded(head);
+			if (reason != null) {
+				List<String> frontier = new ArrayList<String>();
+				for (int k = head; k < tail && frontier.size() < limit.getFrontierSize(); k++) {
+					frontier.add(graph.nodeOf(nodeQueue[k]));
+				}
+				return SearchOutcome.stopped(reason, frontier, head);
+			}
+			int next = nodeQueue[head++];
+			if (stats != null) {
+				stats.pop();
+				stats.settle();
+			}
+			if (next == target) {
+				// walks back from dest and then adds each parent/child pair to the
+				// path in order from start, just as the Graph version would
+				List<Integer> nodes = new ArrayList<Integer>();
+				for (int node = target; node != source; node = from[node]) {
+					nodes.add(node);
+				}
+				Map<String, List<String>> path = new HashMap<String, List<String>>();
+				for (int i = nodes.size() - 1; i >= 0; i--) {
+					int node = nodes.get(i);
+					List<String> edgeValue = new ArrayList<String>();
+					edgeValue.add(graph.nodeOf(from[node]));
+					edgeValue.add(graph.nodeOf(node));
+					path.put(graph.label(via[node]), edgeValue);
+				}
+				return SearchOutcome.complete(path, head);
+			}
+			for (int e = graph.firstEdge(next); e < graph.endEdge(next); e++) {
+				int child = graph.target(e);
+				if (stats != null)
+					stats.relax();
+				
+				// the first edge to each child has the lexicographically least title
+				if (via[child] < 0 && (onPath == null || onPath[child])) {
+					via[child] = e;
+					from[child] = next;
+					nodeQueue[tail++] = child;
+					if (stats != null)
+						stats.push(tail - head);
+				}
+			}
+		}
+		
+		// if no path exists the outcome is complete but holds null
+		return SearchOutcome.complete(null, head);
+	}
+	
+	/**
+	 * <b>Discoverer</b> is a private IdEdgeVisitor that discovers each child of
+	 * the node being expanded which has not been discovered before, remembering
+	 * the node it was discovered from and the lexicographically least title of
+	 * the books connecting them, and appends it to the queue.
+	 */
+	private static class Discoverer implements IdEdgeVisitor<String> {
+		/** from[i] is the id of the node i was discovered from, or -1 if undiscovered */
+		final int[] from;
+		
+		/** title[i] is the least title of the books connecting from[i] to i */
+		final String[] title;
+		
+		/** stores the ids of the discovered nodes in the order they are expanded */
+		final int[] nodeQueue;
+		
+		/** stores the number of ids in nodeQueue */
+		int tail = 0;
+		
+		/** stores the id of the node that is currently being expanded */
+		int parent;
+		
+		/** stores the index in nodeQueue of the next node to be expanded */
+		int head = 0;
+		
+		/** stores the record of the search, or null if it is not recorded */
+		SearchStats stats = null;
+		
+		/**
+		 * @param idBound
+		 * 			The bound on the ids of the graph being searched
+		 * @requires idBound >= 0
+		 */
+		Discoverer(int idBound) {
+			from = new int[idBound];
+			title = new String[idBound];
+			nodeQueue = new int[idBound];
+			Arrays.fill(from, -1);
+		}
+		
+		@Override
+		public void visit(int child, String edgeLabel) {
+			if (stats != null)
+				stats.relax();
+			if (from[child] < 0) {
+				from[child] = parent;
+				title[child] = edgeLabel;
+				nodeQueue[tail++] = child;
+				if (stats != null)
+					stats.push(tail - head);
+			} else if (from[child] == parent && child != parent && edgeLabel.compareTo(title[child]) < 0) {
+				// each node is only expanded once, so child was discovered from parent
+				// during this expansion and its title can still be improved
+				title[child] = edgeLabel;
+			}
+		}
+	}
+	
+	/**
+	 * <b>Side</b> is one half of a bidirectional breadth-first search. It keeps
+	 * the level of each node it has reached and the nodes themselves in the
+	 * order they were reached, so that each level is a contiguous run of the
+	 * queue.
+	 */
+	private static class Side {
+		/** depth[i] is the level at which node i was reached, or -1 if it was not */
+		final int[] depth;
+		
+		/** stores the ids of the nodes reached, in order of their level */
+		final int[] queue;
+		
+		/** stores the index in queue of the first node of the outermost level */
+		int layer = 0;
+		
+		/** stores the number of ids in queue */
+		int tail = 0;
+		
+		/**
+		 * @param size
+		 * 			The number of nodes in the graph being searched
+		 * @param root
+		 * 			The id of the node the side starts from
+		 * @requires 0 <= root < size
+		 */
+		Side(int size, int root) {
+			depth = new int[size];
+			queue = new int[size];
+			Arrays.fill(depth, -1);
+			depth[root] = 0;
+			queue[tail++] = root;
+		}
+		
+		/**
+		 * Reaches every neighbour of the outermost level that has not been
+		 * reached, making them the new outermost level
+		 * 
+		 * @param graph
+		 * 			The graph being searched
+		 * @param other
+		 * 			The other side of the search
+		 * @param stats
+		 * 			The record of the search, or null if it is not recorded
+		 * @modifies this, stats
+		 * @return true if other has reached any node of the new level
+		 */
+		boolean expand(IndexedGraph<String, String> graph, Side other, SearchStats stats) {
+			boolean met = false;
+			int end = tail;
+			for (int k = layer; k < end; k++) {
+				int node = queue[k];
+				if (stats != null) {
+					stats.pop();
+					stats.settle();
+				}
+				for (int e = graph.firstEdge(node); e < graph.endEdge(node); e++) {
+					int child = graph.target(e);
+					if (stats != null)
+						stats.relax();
+					if (depth[child] < 0) {
+						depth[child] = depth[node] + 1;
+						queue[tail++] = child;
+						if (stats != null)
+							stats.push(tail - k - 1);
+						met |= other.depth[child] >= 0;
+					}
+				}
+			}
+			layer = end;
+			return met;
+		}
+		
+		/**
+		 * Marks every node this side reached that is a level closer to its root
+		 * than a marked node and next to it, working outwards in
+		 * 
+		 * @param graph
+		 * 			The graph being searched
+		 * @param onPath
+		 * 			The marked nodes
+		 * @modifies onPath
+		 */
+		void markCloser(IndexedGraph<String, String> graph, boolean[] onPath) {
+			// the queue is in order of level, so every level is marked before the one inside it
+			for (int k = tail - 1; k > 0; k--) {
+				int node = queue[k];
+				if (onPath[node]) {
+					for (int e = graph.firstEdge(node); e < graph.endEdge(node); e++) {
+						int child = graph.target(e);
+						if (depth[child] == depth[node] - 1)
+							onPath[child] = true;
+					}
+				}
+			}
+		}
 	}
 	
 	/**
@@ -153,7 +756,7 @@ public class MarvelPaths {
 	 * @param g
 	 * 			The graph that is being searched
 	 */
-	private static void printResults(String start, String dest, Graph<String, String> g) {
+	private static void printResults(String start, String dest, IndexedGraph<String, String> g) {
 		if (!g.containsNode(start) || !g.containsNode(dest)) {
 			// if start was not in the original dataset
 			if (!g.containsNode(start)) {
@@ -169,7 +772,7 @@ public class MarvelPaths {
 			System.out.println("path from " + start + " to " + dest + ":");
 		} else {
 			// only do the heavy work if necessary
-			Map<String, List<String>> path = MarvelPaths.search(start, dest, g);
+			Map<String, List<String>> path = MarvelPaths.searchBidirectional(start, dest, g);
 			System.out.println("path from " + start + " to " + dest + ":");
 			if (path == null) {
 			System.out.println("No path found");
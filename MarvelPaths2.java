@@ -5,6 +5,8 @@ import java.util.Map;
 import java.util.Set;
 
 import hw5.Graph;
+import hw5.IndexedGraph;
+import hw5.WeightedGraph;
 
 /**
  * <b>MarvelPaths2</b> allows a user to call Dijkstra's search algorithm while
@@ -39,6 +41,26 @@ public class MarvelPaths2 {
 		return Dijkstra.createGraph(characters, books);
 	}
 
+	/**
+	 * Creates a new WeightedGraph with edges weighted as the multiplicative inverse
+	 * of the number of times two characters appear, storing each weight as a
+	 * primitive double.<br>
+	 * Call freeze() on the result to search it with Dijkstra's algorithm.
+	 * 
+	 * @param characters
+	 *            A set of all the character nodes to be added to the graph
+	 * @param books
+	 *            A map containing all the characters that appear in specific marvel
+	 *            comic books
+	 * @requires characters, books != null
+	 * @return a new WeightedGraph where edges are weighted as the multiplicative
+	 *         inverse of the number of times two characters appear in the same book.
+	 */
+	public static WeightedGraph<String> createWeightedGraph(Set<String> characters,
+			Map<String, List<String>> books) {
+		return Dijkstra.createWeightedGraph(characters, books);
+	}
+
 	/**
 	 * Allows the user to call Dijkstra's search algorithm to find the least-cost path
 	 * between two character nodes and returns this path as a list of Edges.
@@ -58,4 +80,25 @@ public class MarvelPaths2 {
 	public static List<Edge<String, Double>> search(String start, String dest, Graph<String, Double> graph) {
 		return Dijkstra.search(start, dest, graph);
 	}
+
+	/**
+	 * Allows the user to call Dijkstra's search algorithm on an IndexedGraph, such
+	 * as a FrozenGraph or a MappedGraph, to find the least-cost path between two
+	 * character nodes and returns this path as a list of Edges.
+	 * 
+	 * @param start
+	 *            The character from which the search begins
+	 * @param dest
+	 *            The character at which the search ends
+	 * @param graph
+	 *            The indexed graph in which the search is taking place
+	 * @requires start, dest, graph != null
+	 * @return a list of edges representing the least-cost path between start and
+	 *         dest.<br>
+	 *         Returns an empty list if start == dest.<br>
+	 *         Returns null if no path exists between start and dest.
+	 */
+	public static List<Edge<String, Double>> search(String start, String dest, IndexedGraph<String, Double> graph) {
+		return Dijkstra.search(start, dest, graph);
+	}
 }
@@ -0,0 +1,79 @@
+package hw7;
+
+/**
+ * <b>Pair</b> represents an immutable ordered pair of two values, such as the
+ * start and destination of a search.
+ *
+ * @param <A>
+ *            The object type of the first value
+ * @param <B>
+ *            The object type of the second value
+ */
+public final class Pair<A, B> {
+	/** Stores the first value */
+	private final A first;
+
+	/** Stores the second value */
+	private final B second;
+
+	// Abstraction Function:
+	// A Pair represents the ordered pair (first, second).
+	//
+	// Representation Invariant:
+	// * first and second cannot be null
+
+	/**
+	 * Creates a new pair
+	 *
+	 * @param first
+	 *            The first value
+	 * @param second
+	 *            The second value
+	 * @requires first, second != null
+	 */
+	public Pair(A first, B second) {
+		this.first = first;
+		this.second = second;
+		checkRep();
+	}
+
+	/**
+	 * @return the first value of this pair
+	 */
+	public A getFirst() {
+		return first;
+	}
+
+	/**
+	 * @return the second value of this pair
+	 */
+	public B getSecond() {
+		return second;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof Pair<?, ?>))
+			return false;
+		Pair<?, ?> other = (Pair<?, ?>) obj;
+		return first.equals(other.first) && second.equals(other.second);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * first.hashCode() + second.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return "(" + first + ", " + second + ")";
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert (first != null) : "first is null";
+		assert (second != null) : "second is null";
+	}
+}
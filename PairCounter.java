@@ -0,0 +1,171 @@
+package hw7;
+
+import java.util.Arrays;
+
+/**
+ * <b>PairCounter</b> represents a mutable count of ordered pairs of
+ * non-negative int ids, stored in an open-addressing hash table of primitive
+ * arrays so that counting a pair allocates nothing.<br>
+ * Each pair is packed into a single long key, with the first id in the high 32
+ * bits. The table uses linear probing and doubles once it is two thirds full.
+ */
+final class PairCounter {
+
+	/** The key that marks an empty slot, which no pair of non-negative ids packs to */
+	static final long EMPTY = -1L;
+
+	/** Stores the key held in each slot, or EMPTY */
+	private long[] keys;
+
+	/** Stores the count of the key in each slot */
+	private int[] counts;
+
+	/** Stores the number of keys in the table */
+	private int size = 0;
+
+	// Abstraction Function:
+	// A PairCounter maps the pair (first(keys[i]), second(keys[i])) to
+	// counts[i] for every slot i where keys[i] != EMPTY.
+	//
+	// Representation Invariant:
+	// * keys.length == counts.length and is a power of two
+	// * size is the number of slots that are not EMPTY and 3 * size <= 2 *
+	//   keys.length
+	// * every key is found by probing forward from the slot it hashes to without
+	//   crossing an empty slot
+
+	/**
+	 * Constructs a new empty counter
+	 *
+	 * @param expected
+	 *            The number of distinct pairs expected, used to size the table
+	 * @requires expected >= 0
+	 */
+	PairCounter(int expected) {
+		int capacity = Integer.highestOneBit(Math.max(expected * 3 / 2, 8) - 1) << 1;
+		keys = new long[capacity];
+		counts = new int[capacity];
+		Arrays.fill(keys, EMPTY);
+	}
+
+	/**
+	 * @return the key of the ordered pair (first, second)
+	 * @requires first, second >= 0
+	 */
+	static long pack(int first, int second) {
+		return ((long) first << 32) | second;
+	}
+
+	/**
+	 * @return the first id of the pair packed into key
+	 */
+	static int first(long key) {
+		return (int) (key >>> 32);
+	}
+
+	/**
+	 * @return the second id of the pair packed into key
+	 */
+	static int second(long key) {
+		return (int) key;
+	}
+
+	/**
+	 * Adds amount to the count of key
+	 *
+	 * @requires key != EMPTY && amount > 0
+	 * @modifies this
+	 */
+	void add(long key, int amount) {
+		int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+		while (keys[slot] != EMPTY) {
+			if (keys[slot] == key) {
+				counts[slot] += amount;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		counts[slot] = amount;
+		size++;
+		if (3 * size > 2 * keys.length)
+			grow();
+	}
+
+	/**
+	 * Adds every count of other to this counter
+	 *
+	 * @requires other != null
+	 * @modifies this
+	 */
+	void addAll(PairCounter other) {
+		for (int slot = 0; slot < other.keys.length; slot++) {
+			if (other.keys[slot] != EMPTY)
+				add(other.keys[slot], other.counts[slot]);
+		}
+	}
+
+	/**
+	 * @return the number of distinct pairs counted
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return the number of slots, which keyAt and countAt accept
+	 */
+	int capacity() {
+		return keys.length;
+	}
+
+	/**
+	 * @requires 0 <= slot < capacity()
+	 * @return the key in slot, or EMPTY if it holds none
+	 */
+	long keyAt(int slot) {
+		return keys[slot];
+	}
+
+	/**
+	 * @requires 0 <= slot < capacity() && keyAt(slot) != EMPTY
+	 * @return the count of the key in slot
+	 */
+	int countAt(int slot) {
+		return counts[slot];
+	}
+
+	/**
+	 * Doubles the table, reinserting every key
+	 */
+	private void grow() {
+		long[] oldKeys = keys;
+		int[] oldCounts = counts;
+		keys = new long[oldKeys.length * 2];
+		counts = new int[oldKeys.length * 2];
+		Arrays.fill(keys, EMPTY);
+		int mask = keys.length - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY) {
+				int slot = hash(oldKeys[i]) & mask;
+				while (keys[slot] != EMPTY) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				counts[slot] = oldCounts[i];
+			}
+		}
+	}
+
+	/**
+	 * @return a well mixed hash of key, since the ids of a pair are small and
+	 *         sequential
+	 */
+	private static int hash(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		return (int) key;
+	}
+}
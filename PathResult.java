@@ -0,0 +1,285 @@
+package hw7;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <b>PathResult<N></b> represents an immutable path through a weighted graph
+ * as the sequence of nodes it visits together with the cost of the path from
+ * its first node to each of them.<br>
+ * The costs are kept as a primitive prefix sum, so the total cost of the path
+ * and the cost of any part of it are found in O(1) without walking its edges,
+ * and no Edge objects or boxed weights are allocated unless edges() is used,
+ * which creates each Edge only as it is read.
+ * <p>
+ * Nodes are numbered from 0, the start, to size() - 1, the destination, and
+ * edge k runs from node k to node k + 1. The weight of each edge is kept as it
+ * was given, apart from the prefix sum, so it is exact rather than the
+ * difference of the costs at its ends.
+ *
+ * @param <N>
+ *            The object type of each node in the path. N must extend Comparable
+ */
+public final class PathResult<N extends Comparable<N>> {
+
+	/** Stores the nodes of the path in order */
+	private final List<N> nodes;
+
+	/** Stores the weight of each edge */
+	private final double[] weights;
+
+	/** Stores the cost of the path from the start to each node */
+	private final double[] prefix;
+
+	// Abstraction Function:
+	// A PathResult represents the path nodes.get(0), nodes.get(1), ...,
+	// nodes.get(nodes.size() - 1), on which the edge from nodes.get(k) to
+	// nodes.get(k + 1) weighs weights[k] and the cost from nodes.get(0) to
+	// nodes.get(k) is prefix[k].
+	//
+	// Representation Invariant:
+	// * nodes, weights, prefix != null and nodes has no null entries
+	// * nodes.size() == prefix.length == weights.length + 1
+	// * prefix[0] == 0 and prefix[k + 1] == prefix[k] + weights[k] for every k
+	// * weights[k] >= 0 for every k
+
+	/** A boolean constant used to reduce checkRep time if not in testing mode */
+	private static final boolean TESTING_MODE = false;
+
+	/**
+	 * Constructs a new path from a filled list and arrays, which are kept, not
+	 * copied
+	 */
+	private PathResult(List<N> nodes, double[] weights, double[] prefix) {
+		this.nodes = Collections.unmodifiableList(nodes);
+		this.weights = weights;
+		this.prefix = prefix;
+		checkRep();
+	}
+
+	/**
+	 * Creates a path from a list of edges, such as one returned by a search
+	 *
+	 * @param start
+	 *            The node the path begins at
+	 * @param edges
+	 *            The edges of the path in order
+	 * @requires start, edges != null && edges has no null entries && the first
+	 *           edge leaves start and every other edge leaves the child of the
+	 *           edge before it && every weight is non-negative
+	 * @return the path that begins at start and follows edges
+	 */
+	public static <N extends Comparable<N>> PathResult<N> of(N start, List<Edge<N, Double>> edges) {
+		Builder<N> builder = new Builder<N>(start, edges.size());
+		for (Edge<N, Double> e : edges) {
+			builder.add(e.getChild(), e.getLabel());
+		}
+		return builder.build();
+	}
+
+	/**
+	 * @return the number of nodes on the path, which is one more than the number
+	 *         of edges
+	 */
+	public int size() {
+		return nodes.size();
+	}
+
+	/**
+	 * @return the number of edges on the path
+	 */
+	public int edgeCount() {
+		return nodes.size() - 1;
+	}
+
+	/**
+	 * @return the node the path begins at
+	 */
+	public N getStart() {
+		return nodes.get(0);
+	}
+
+	/**
+	 * @return the node the path ends at
+	 */
+	public N getDest() {
+		return nodes.get(nodes.size() - 1);
+	}
+
+	/**
+	 * @param k
+	 *            The position of the node on the path
+	 * @requires 0 <= k < size()
+	 * @return the node at position k
+	 */
+	public N nodeAt(int k) {
+		return nodes.get(k);
+	}
+
+	/**
+	 * @return an unmodifiable list of the nodes of the path in order
+	 */
+	public List<N> getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * @return the total cost of the path
+	 */
+	public double getTotalCost() {
+		return prefix[prefix.length - 1];
+	}
+
+	/**
+	 * @param k
+	 *            The position of the node on the path
+	 * @requires 0 <= k < size()
+	 * @return the cost of the path from the start to the node at position k
+	 */
+	public double distanceTo(int k) {
+		return prefix[k];
+	}
+
+	/**
+	 * @param from
+	 *            The position of the node the part begins at
+	 * @param to
+	 *            The position of the node the part ends at
+	 * @requires 0 <= from <= to < size()
+	 * @return the cost of the part of the path between the two positions
+	 */
+	public double distance(int from, int to) {
+		return prefix[to] - prefix[from];
+	}
+
+	/**
+	 * @param k
+	 *            The position of the edge on the path
+	 * @requires 0 <= k < edgeCount()
+	 * @return the weight of the edge from the node at position k to the next
+	 */
+	public double weightOf(int k) {
+		return weights[k];
+	}
+
+	/**
+	 * @return an unmodifiable list of the edges of the path in order, each of
+	 *         which is created when it is read
+	 */
+	public List<Edge<N, Double>> edges() {
+		return new AbstractList<Edge<N, Double>>() {
+			@Override
+			public Edge<N, Double> get(int k) {
+				if (k < 0 || k >= edgeCount())
+					throw new IndexOutOfBoundsException("edge " + k + " of " + edgeCount());
+				return new Edge<N, Double>(weightOf(k), nodes.get(k), nodes.get(k + 1));
+			}
+
+			@Override
+			public int size() {
+				return edgeCount();
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		return nodes + " (cost " + getTotalCost() + ")";
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert (nodes != null && weights != null && prefix != null);
+		assert (nodes.size() == prefix.length && prefix.length >= 1) : "every node must have a cost";
+		assert (weights.length == prefix.length - 1) : "every edge must have a weight";
+		assert (prefix[0] == 0.0) : "the path must begin at no cost";
+		if (TESTING_MODE) {
+			for (int k = 0; k + 1 < prefix.length; k++) {
+				assert (nodes.get(k) != null) : "a path cannot visit null";
+				assert (weights[k] >= 0.0) : "a weight cannot be negative";
+				assert (prefix[k + 1] == prefix[k] + weights[k]) : "each cost must add the weight before it";
+			}
+		}
+	}
+
+	/**
+	 * <b>Builder</b> collects the nodes of a path one at a time, from the start
+	 * to the destination, summing their costs as it goes.
+	 *
+	 * @param <N>
+	 *            The object type of each node in the path. N must extend
+	 *            Comparable
+	 */
+	public static class Builder<N extends Comparable<N>> {
+		/** Stores the nodes added so far */
+		private final List<N> nodes;
+
+		/** Stores the weight of each edge added so far */
+		private double[] weights;
+
+		/** Stores the cost from the start to each node added so far */
+		private double[] prefix;
+
+		// Abstraction Function:
+		// A Builder represents the path nodes.get(0), ..., nodes.get(n - 1), where
+		// n = nodes.size(), on which the edge into nodes.get(k + 1) weighs
+		// weights[k] and the cost to nodes.get(k) is prefix[k].
+		//
+		// Representation Invariant:
+		// * nodes, weights, prefix != null and 1 <= nodes.size() <= prefix.length
+		// * weights.length == prefix.length - 1
+
+		/**
+		 * Constructs a new Builder for a path that begins at start
+		 *
+		 * @param start
+		 *            The node the path begins at
+		 * @param expectedEdges
+		 *            The number of edges the path is expected to have
+		 * @requires start != null && expectedEdges >= 0
+		 */
+		public Builder(N start, int expectedEdges) {
+			nodes = new ArrayList<N>(expectedEdges + 1);
+			weights = new double[expectedEdges];
+			prefix = new double[expectedEdges + 1];
+			nodes.add(start);
+		}
+
+		/**
+		 * Extends the path by an edge from its last node to node
+		 *
+		 * @param node
+		 *            The node the edge leads to
+		 * @param weight
+		 *            The weight of the edge
+		 * @requires node != null && weight >= 0
+		 * @modifies this
+		 * @return this Builder
+		 */
+		public Builder<N> add(N node, double weight) {
+			int k = nodes.size();
+			if (k == prefix.length) {
+				weights = Arrays.copyOf(weights, prefix.length * 2 - 1);
+				prefix = Arrays.copyOf(prefix, prefix.length * 2);
+			}
+			weights[k - 1] = weight;
+			prefix[k] = prefix[k - 1] + weight;
+			nodes.add(node);
+			return this;
+		}
+
+		/**
+		 * @return the path built so far. The Builder can go on to build longer
+		 *         paths without changing it
+		 */
+		public PathResult<N> build() {
+			return new PathResult<N>(new ArrayList<N>(nodes), Arrays.copyOf(weights, nodes.size() - 1),
+					Arrays.copyOf(prefix, nodes.size()));
+		}
+	}
+}
@@ -0,0 +1,247 @@
+package hw7;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <b>PathTreeCache<N></b> represents a bounded cache of the ShortestPathTrees
+ * found by a DijkstraEngine, keyed by their source.<br>
+ * A search from a start node that is already cached is answered by walking its
+ * tree back from the destination, in time proportional to the length of the
+ * path. Otherwise the engine computes the whole tree from the start, which is
+ * then cached, and the least recently used tree is evicted once the cache is
+ * full. The number of hits, misses and trees computed is counted so the hit
+ * rate of a given capacity can be checked.
+ * <p>
+ * A whole tree costs far more than a single path, so lookup only computes the
+ * tree of a start node once it has missed twice among the recent misses. The
+ * first search from a start is left to the caller's own point-to-point
+ * search, and only start nodes that are used again are cached.
+ * <p>
+ * Cached trees are not updated if the graph changes, so clear must be called
+ * after the graph is modified. A cache is not safe for use by more than one
+ * thread at a time.
+ *
+ * @param <N>
+ *            The object type of each node in the graph. N must extend Comparable
+ */
+public class PathTreeCache<N extends Comparable<N>> {
+
+	/** Stores the engine that computes trees that are not cached */
+	private final DijkstraEngine<N> engine;
+
+	/** Stores the greatest number of trees kept at once */
+	private final int capacity;
+
+	/** Maps each cached source to its tree, from least to most recently used */
+	private final LinkedHashMap<N, ShortestPathTree<N>> trees;
+
+	/** Stores the recent start nodes that missed once, from least to most recent */
+	private final LinkedHashMap<N, Boolean> missed;
+
+	/** Stores the number of lookups answered from the cache */
+	private long hits = 0;
+
+	/** Stores the number of lookups that found no cached tree */
+	private long misses = 0;
+
+	/** Stores the number of trees computed, which is at most misses */
+	private long computed = 0;
+
+	// Abstraction Function:
+	// A PathTreeCache holds the ShortestPathTree of every key of trees, which
+	// was computed by engine, ordered from least to most recently used. The
+	// keys of missed are the start nodes whose next miss computes their tree.
+	//
+	// Representation Invariant:
+	// * engine, trees, missed != null and capacity > 0
+	// * trees.size() <= capacity and missed.size() <= capacity
+	// * no key of missed is a key of trees
+	// * trees.get(n).getSource().equals(n) for every key n of trees
+	// * hits >= 0 and 0 <= computed <= misses
+
+	/**
+	 * Constructs a new empty cache
+	 *
+	 * @param engine
+	 *            The engine used to compute trees that are not cached
+	 * @param capacity
+	 *            The greatest number of trees kept at once
+	 * @requires engine != null && capacity > 0
+	 */
+	public PathTreeCache(DijkstraEngine<N> engine, int capacity) {
+		this.engine = engine;
+		this.capacity = capacity;
+		final int limit = capacity;
+		// access order moves each tree that is looked up to the end of the map
+		trees = new LinkedHashMap<N, ShortestPathTree<N>>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<N, ShortestPathTree<N>> eldest) {
+				return size() > limit;
+			}
+		};
+		missed = new LinkedHashMap<N, Boolean>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<N, Boolean> eldest) {
+				return size() > limit;
+			}
+		};
+		checkRep();
+	}
+
+	/**
+	 * Returns the tree of least-cost paths from start, computing and caching it
+	 * if it is not already cached
+	 *
+	 * @param start
+	 *            The node every path begins at
+	 * @requires start != null
+	 * @modifies this
+	 * @return the ShortestPathTree from start
+	 */
+	public ShortestPathTree<N> treeFrom(N start) {
+		ShortestPathTree<N> tree = trees.get(start);
+		if (tree != null) {
+			hits++;
+			return tree;
+		}
+		misses++;
+		computed++;
+		tree = engine.searchAll(start);
+		trees.put(start, tree);
+		checkRep();
+		return tree;
+	}
+
+	/**
+	 * Returns the tree of least-cost paths from start if it is cached. Otherwise
+	 * the tree is computed and cached only if start also missed recently, since
+	 * a start node that is used once does not need a whole tree.
+	 *
+	 * @param start
+	 *            The node every path begins at
+	 * @requires start != null
+	 * @modifies this
+	 * @return the ShortestPathTree from start, or null if it is not cached and
+	 *         start has not missed recently, in which case the caller should
+	 *         search for its path another way
+	 */
+	public ShortestPathTree<N> lookup(N start) {
+		ShortestPathTree<N> tree = trees.get(start);
+		if (tree != null) {
+			hits++;
+			return tree;
+		}
+		misses++;
+		if (missed.remove(start) == null) {
+			missed.put(start, Boolean.TRUE);
+			return null;
+		}
+		computed++;
+		tree = engine.searchAll(start);
+		trees.put(start, tree);
+		checkRep();
+		return tree;
+	}
+
+	/**
+	 * Finds the least-cost path between two nodes from the tree of start
+	 *
+	 * @param start
+	 *            The node from which the path begins
+	 * @param dest
+	 *            The node at which the path ends
+	 * @requires start, dest != null
+	 * @modifies this
+	 * @return a list of edges representing the least-cost path between start and
+	 *         dest.<br>
+	 *         Returns an empty list if start == dest.<br>
+	 *         Returns null if no path exists between start and dest.
+	 */
+	public List<Edge<N, Double>> search(N start, N dest) {
+		return treeFrom(start).pathTo(dest);
+	}
+
+	/**
+	 * Removes every cached tree and forgets the recent misses. The counts of
+	 * hits, misses and trees computed are kept.
+	 *
+	 * @modifies this
+	 */
+	public void clear() {
+		trees.clear();
+		missed.clear();
+	}
+
+	/**
+	 * @param start
+	 *            The node being looked up
+	 * @return true if the tree from start is cached. This is not counted as a
+	 *         hit or a miss and does not change the order of use
+	 */
+	public boolean contains(N start) {
+		return trees.containsKey(start);
+	}
+
+	/**
+	 * @return the number of trees currently cached
+	 */
+	public int size() {
+		return trees.size();
+	}
+
+	/**
+	 * @return the greatest number of trees kept at once
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return the number of lookups answered from the cache
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return the number of lookups that found no cached tree, whether or not
+	 *         a tree was then computed
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return the number of trees computed, which is less than getMisses() by
+	 *         the first misses of start nodes that lookup did not cache
+	 */
+	public long getComputed() {
+		return computed;
+	}
+
+	/**
+	 * @return a one-line summary of the size and hit rate of the cache
+	 */
+	@Override
+	public String toString() {
+		long lookups = hits + misses;
+		return String.format("%d/%d trees, %d hits, %d misses, %d computed (%.1f%% hit rate)", trees.size(),
+				capacity, hits, misses, computed, lookups == 0 ? 0.0 : 100.0 * hits / lookups);
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert (engine != null && trees != null && missed != null) : "engine and maps cannot be null";
+		assert (capacity > 0 && trees.size() <= capacity) : "the cache cannot hold more trees than its capacity";
+		assert (missed.size() <= capacity) : "the cache cannot remember more misses than its capacity";
+		assert (hits >= 0 && 0 <= computed && computed <= misses) : "every tree computed must follow a miss";
+	}
+}
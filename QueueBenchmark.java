@@ -0,0 +1,235 @@
+package hw8;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+import hw5.IndexedGraph;
+import hw5.WeightedGraph;
+import hw7.DijkstraEngine;
+import hw7.Edge;
+import hw7.MarvelParser2;
+import hw7.MarvelPaths2;
+import hw7.QueueStrategy;
+
+/**
+ * <b>QueueBenchmark</b> is a command line utility that compares the priority
+ * queues a DijkstraEngine can keep its frontier in, on the campus paths, whose
+ * weights are distances in feet, and on the Marvel dataset, whose weights are
+ * the inverse of the number of books two characters share.<br>
+ * Usage: QueueBenchmark [campusPathsFile] [marvelFile] [queries] [repetitions]
+ * <p>
+ * The same random pairs of nodes are searched with each QueueStrategy and with
+ * a textbook Dijkstra over java.util.PriorityQueue, which queues a new entry
+ * for every cheaper path instead of lowering keys and skips the stale ones as
+ * they are polled. Each set of queries is run once to warm up and then timed
+ * repetitions more times, and any query whose cost differs from the binary
+ * heap's is reported. A dataset whose file cannot be found is skipped.
+ */
+public class QueueBenchmark {
+
+	// Not an ADT
+
+	public static void main(String[] args) throws MarvelParser2.MalformedDataException {
+		String campusFile = args.length > 0 ? args[0] : "src/hw8/data/campus_paths.dat";
+		String marvelFile = args.length > 1 ? args[1] : "src/hw7/data/marvel.tsv";
+		int queries = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+		int repetitions = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+		if (new File(campusFile).exists()) {
+			List<Edge<CampusPoint, Double>> paths = new ArrayList<Edge<CampusPoint, Double>>();
+			CampusParser.parsePaths(campusFile, paths);
+			WeightedGraph<CampusPoint> campus = new WeightedGraph<CampusPoint>(paths.size());
+			for (Edge<CampusPoint, Double> e : paths) {
+				campus.addNode(e.getParent());
+				campus.addNode(e.getChild());
+				campus.addEdge(e.getParent(), e.getChild(), e.getLabel());
+			}
+			compare("Campus", campus.freeze(), queries, repetitions);
+		} else {
+			System.out.println("Skipping campus: " + campusFile + " not found");
+		}
+		if (new File(marvelFile).exists()) {
+			Set<String> characters = new HashSet<String>();
+			Map<String, List<String>> books = new HashMap<String, List<String>>();
+			MarvelParser2.parseData(marvelFile, characters, books);
+			compare("Marvel", MarvelPaths2.createWeightedGraph(characters, books).freeze(), queries, repetitions);
+		} else {
+			System.out.println("Skipping Marvel: " + marvelFile + " not found");
+		}
+	}
+
+	/**
+	 * Times the same random queries on graph with every queue
+	 *
+	 * @param name
+	 *            The name of the dataset
+	 * @param graph
+	 *            The graph being searched
+	 * @param queries
+	 *            The number of queries
+	 * @param repetitions
+	 *            The number of timed runs of the queries
+	 */
+	private static <N extends Comparable<N>> void compare(String name, final IndexedGraph<N, Double> graph,
+			int queries, int repetitions) {
+		System.out.println(name + ": " + graph.size() + " nodes, " + graph.edgeCount() + " edges, " + queries
+				+ " queries");
+		if (graph.size() == 0)
+			return;
+
+		// a fixed seed keeps the queries the same from run to run
+		Random random = new Random(331);
+		final int[] starts = new int[queries];
+		final int[] dests = new int[queries];
+		for (int i = 0; i < queries; i++) {
+			starts[i] = random.nextInt(graph.size());
+			dests[i] = random.nextInt(graph.size());
+		}
+
+		double[] expected = null;
+		for (QueueStrategy strategy : QueueStrategy.values()) {
+			final DijkstraEngine<N> engine = new DijkstraEngine<N>(graph, strategy);
+			final double[] costs = new double[queries];
+			time(strategy.toString(), repetitions, new Runnable() {
+				@Override
+				public void run() {
+					for (int i = 0; i < starts.length; i++) {
+						costs[i] = cost(engine.search(graph.nodeOf(starts[i]), graph.nodeOf(dests[i])));
+					}
+				}
+			});
+			if (expected == null) {
+				expected = costs;
+			} else {
+				report(expected, costs);
+			}
+		}
+
+		final double[] costs = new double[queries];
+		time("java.util.PriorityQueue", repetitions, new Runnable() {
+			@Override
+			public void run() {
+				for (int i = 0; i < starts.length; i++) {
+					costs[i] = priorityQueueSearch(graph, starts[i], dests[i]);
+				}
+			}
+		});
+		report(expected, costs);
+	}
+
+	/**
+	 * Finds the cost of the least-cost path between two nodes with a
+	 * java.util.PriorityQueue that may hold several entries for each node
+	 *
+	 * @return the cost of the least-cost path from source to target, or
+	 *         Double.POSITIVE_INFINITY if there is none
+	 */
+	private static double priorityQueueSearch(IndexedGraph<?, Double> graph, int source, int target) {
+		double[] cost = new double[graph.size()];
+		Arrays.fill(cost, Double.POSITIVE_INFINITY);
+		boolean[] settled = new boolean[graph.size()];
+		PriorityQueue<Entry> frontier = new PriorityQueue<Entry>();
+		cost[source] = 0.0;
+		frontier.add(new Entry(source, 0.0));
+		while (!frontier.isEmpty()) {
+			int node = frontier.poll().node;
+			if (settled[node])
+				continue;
+			if (node == target)
+				return cost[node];
+			settled[node] = true;
+			for (int e = graph.firstEdge(node); e < graph.endEdge(node); e++) {
+				int child = graph.target(e);
+				double newCost = cost[node] + graph.weight(e);
+				if (newCost < cost[child]) {
+					cost[child] = newCost;
+					frontier.add(new Entry(child, newCost));
+				}
+			}
+		}
+		return Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Prints the number of queries whose cost differs from the expected cost
+	 */
+	private static void report(double[] expected, double[] costs) {
+		int mismatches = 0;
+		for (int i = 0; i < costs.length; i++) {
+			if (Math.abs(expected[i] - costs[i]) > 1e-9)
+				mismatches++;
+		}
+		if (mismatches > 0)
+			System.out.println("\t\t" + mismatches + " mismatches");
+	}
+
+	/**
+	 * @param path
+	 *            A path returned by a search, or null
+	 * @return the total weight of path, or Double.POSITIVE_INFINITY if it is null
+	 */
+	private static double cost(List<? extends Edge<?, Double>> path) {
+		if (path == null)
+			return Double.POSITIVE_INFINITY;
+		double total = 0.0;
+		for (Edge<?, Double> e : path) {
+			total += e.getLabel();
+		}
+		return total;
+	}
+
+	/**
+	 * Runs work once to warm up and then repetitions more times, printing the
+	 * fastest and average time
+	 *
+	 * @param name
+	 *            The name printed alongside the results
+	 * @param repetitions
+	 *            The number of timed runs
+	 * @param work
+	 *            The work being timed
+	 */
+	private static void time(String name, int repetitions, Runnable work) {
+		work.run();
+		long best = Long.MAX_VALUE;
+		long total = 0;
+		for (int i = 0; i < repetitions; i++) {
+			long start = System.nanoTime();
+			work.run();
+			long elapsed = System.nanoTime() - start;
+			best = Math.min(best, elapsed);
+			total += elapsed;
+		}
+		System.out.println(String.format("\t%-28s best %8.2f ms   mean %8.2f ms", name, best / 1e6,
+				total / 1e6 / Math.max(repetitions, 1)));
+	}
+
+	/**
+	 * <b>Entry</b> is a private node and the cost at which it was queued.
+	 */
+	private static class Entry implements Comparable<Entry> {
+		/** stores the id of the node */
+		final int node;
+
+		/** stores the cost of the path to the node when it was queued */
+		final double cost;
+
+		Entry(int node, double cost) {
+			this.node = node;
+			this.cost = cost;
+		}
+
+		@Override
+		public int compareTo(Entry other) {
+			return Double.compare(cost, other.cost);
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package hw7;
+
+/**
+ * <b>QueueStrategy</b> lists the priority queues a DijkstraEngine can keep its
+ * frontier in, so that graphs whose edge weights suit a monotone bucket queue
+ * can use one instead of a binary heap.
+ */
+public enum QueueStrategy {
+	/**
+	 * Keeps the frontier in an IndexedHeap. Offering and polling are O(log n),
+	 * and any keys may be offered. This is the default.
+	 */
+	BINARY_HEAP,
+
+	/**
+	 * Keeps the frontier in a RadixHeap. Offering is O(1) and polling is O(1)
+	 * amortized, whatever the range of the weights, but keys must be offered
+	 * monotonically, so a heuristic must be consistent.
+	 */
+	RADIX_HEAP,
+
+	/**
+	 * Keeps the frontier in a BucketQueue whose buckets are a fraction of the
+	 * least positive edge weight wide, as in Dial's algorithm. This is fastest
+	 * when the greatest weight is a small multiple of the least, such as lengths
+	 * measured in feet. Keys must be offered monotonically.
+	 */
+	BUCKETS;
+
+	/** The most buckets a BucketQueue is given, however wide the range of weights */
+	private static final int MAX_WINDOW = 1 << 16;
+
+	/** The number of buckets the least weight is split over */
+	private static final int SPLIT = 16;
+
+	/**
+	 * @param capacity
+	 *            One more than the greatest id expected
+	 * @param least
+	 *            The least positive edge weight of the graph, or 0 if there is none
+	 * @param greatest
+	 *            The greatest edge weight of the graph
+	 * @requires capacity >= 0 && 0 <= least <= greatest
+	 * @return a new empty queue of the kind this constant describes
+	 */
+	IdQueue newQueue(int capacity, double least, double greatest) {
+		switch (this) {
+		case RADIX_HEAP:
+			return new RadixHeap(capacity);
+		case BUCKETS:
+			// splitting the least weight keeps each bucket short, since the least key
+			// is found by scanning its bucket, unless the weights span too many buckets
+			double width = Math.max(least / SPLIT, greatest / MAX_WINDOW);
+			if (!(width > 0.0))
+				width = 1.0;
+			int window = (int) Math.min(MAX_WINDOW, Math.ceil(greatest / width) + 1);
+			return new BucketQueue(capacity, width, window);
+		default:
+			return new IndexedHeap(capacity);
+		}
+	}
+}
@@ -0,0 +1,249 @@
+package hw7;
+
+import java.util.Arrays;
+
+/**
+ * <b>RadixHeap</b> represents a mutable monotone priority queue of integer ids,
+ * each with a non-negative double key, that supports lowering the key of an id
+ * already in the queue.<br>
+ * The ids are kept in 65 buckets by the highest bit in which the bits of their
+ * key differ from those of the last key polled. Since the bits of a
+ * non-negative double sort in the same order as its value, bucket 0 holds the
+ * ids whose key equals the last key polled, and each id is moved to a lower
+ * bucket at most 64 times before it is polled. Offering and lowering a key are
+ * O(1), and polling is O(1) amortized over the offers.
+ * <p>
+ * The queue is monotone: no key offered may be less than the last key polled.
+ * Keys are compared exactly, so it returns the same order as IndexedHeap up to
+ * ties. The queue grows as needed to hold larger ids.
+ */
+public final class RadixHeap implements IdQueue {
+
+	/** The number of buckets, one for each bit of a key and one for equal keys */
+	private static final int BUCKETS = 65;
+
+	/** Stores the ids in each bucket */
+	private final int[][] buckets = new int[BUCKETS][];
+
+	/** Stores the number of ids in each bucket */
+	private final int[] bucketSize = new int[BUCKETS];
+
+	/** Stores the bucket of each id, or -1 if the id is not in the queue */
+	private int[] bucketOf;
+
+	/** Stores the index of each id in its bucket */
+	private int[] slotOf;
+
+	/** Stores the key of each id in the queue */
+	private double[] keys;
+
+	/** Stores the bits of the last key polled */
+	private long last = 0L;
+
+	/** Stores the number of ids in the queue */
+	private int size = 0;
+
+	// Abstraction Function:
+	// A RadixHeap represents the set of ids buckets[b][0..bucketSize[b]) for
+	// every b, where the key of id i is keys[i]. No key may be offered that is
+	// less than the key whose bits are last.
+	//
+	// Representation Invariant:
+	// * bucketOf.length == slotOf.length == keys.length
+	// * buckets[b][slotOf[i]] == i and bucketOf[i] == b for every id i in bucket
+	//   b, and every other entry of bucketOf is -1
+	// * every id i in bucket b has bits(keys[i]) >= last and b == 0 if they are
+	//   equal, or else the highest bit in which they differ is bit b - 1
+	// * size is the sum of bucketSize
+
+	/** A boolean constant used to reduce checkRep time if not in testing mode */
+	private static final boolean TESTING_MODE = false;
+
+	/**
+	 * Constructs a new empty queue with room for the ids 0 to capacity - 1
+	 *
+	 * @param capacity
+	 *            One more than the greatest id expected
+	 * @requires capacity >= 0
+	 */
+	public RadixHeap(int capacity) {
+		bucketOf = new int[Math.max(capacity, 1)];
+		slotOf = new int[Math.max(capacity, 1)];
+		keys = new double[Math.max(capacity, 1)];
+		Arrays.fill(bucketOf, -1);
+		for (int b = 0; b < BUCKETS; b++) {
+			buckets[b] = new int[4];
+		}
+		checkRep();
+	}
+
+	@Override
+	public boolean offer(int id, double key) {
+		if (id >= bucketOf.length)
+			grow(id + 1);
+		if (bucketOf[id] >= 0) {
+			if (key >= keys[id])
+				return false;
+			remove(id);
+		} else {
+			size++;
+		}
+		keys[id] = key;
+		insert(id);
+		checkRep();
+		return true;
+	}
+
+	@Override
+	public int poll() {
+		settle();
+		int id = buckets[0][--bucketSize[0]];
+		bucketOf[id] = -1;
+		size--;
+		checkRep();
+		return id;
+	}
+
+	@Override
+	public double peekKey() {
+		settle();
+		return keys[buckets[0][bucketSize[0] - 1]];
+	}
+
+	@Override
+	public boolean contains(int id) {
+		return id >= 0 && id < bucketOf.length && bucketOf[id] >= 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes every id from the queue and allows keys down to 0 to be offered
+	 * again. This takes time proportional to the number of ids in the queue, not
+	 * its capacity.
+	 *
+	 * @modifies this
+	 */
+	@Override
+	public void clear() {
+		for (int b = 0; b < BUCKETS; b++) {
+			for (int k = 0; k < bucketSize[b]; k++) {
+				bucketOf[buckets[b][k]] = -1;
+			}
+			bucketSize[b] = 0;
+		}
+		size = 0;
+		last = 0L;
+	}
+
+	/**
+	 * Makes bucket 0 hold the ids with the least key, by taking the least key of
+	 * the lowest non-empty bucket as the last key and spreading that bucket over
+	 * the buckets below it
+	 *
+	 * @requires !isEmpty()
+	 * @modifies this
+	 */
+	private void settle() {
+		if (bucketSize[0] > 0)
+			return;
+		int b = 1;
+		while (bucketSize[b] == 0) {
+			b++;
+		}
+		int[] bucket = buckets[b];
+		int count = bucketSize[b];
+		long min = bits(keys[bucket[0]]);
+		for (int k = 1; k < count; k++) {
+			min = Math.min(min, bits(keys[bucket[k]]));
+		}
+		last = min;
+		bucketSize[b] = 0;
+		for (int k = 0; k < count; k++) {
+			insert(bucket[k]);
+		}
+	}
+
+	/**
+	 * Puts id into the bucket for its key
+	 *
+	 * @requires id is in no bucket
+	 * @modifies this
+	 */
+	private void insert(int id) {
+		// a key below the last one polled, which monotone callers never offer, is
+		// kept with the keys equal to it rather than lost
+		long bits = Math.max(bits(keys[id]), last);
+		int b = BUCKETS - 1 - Long.numberOfLeadingZeros(bits ^ last);
+		if (bucketSize[b] == buckets[b].length)
+			buckets[b] = Arrays.copyOf(buckets[b], buckets[b].length * 2);
+		slotOf[id] = bucketSize[b];
+		buckets[b][bucketSize[b]++] = id;
+		bucketOf[id] = b;
+	}
+
+	/**
+	 * Takes id out of its bucket by moving the last id of the bucket into its place
+	 *
+	 * @requires contains(id)
+	 * @modifies this
+	 */
+	private void remove(int id) {
+		int b = bucketOf[id];
+		int moved = buckets[b][--bucketSize[b]];
+		buckets[b][slotOf[id]] = moved;
+		slotOf[moved] = slotOf[id];
+		bucketOf[id] = -1;
+	}
+
+	/**
+	 * @return the bits of key, which sort in the same order as key when it is not
+	 *         negative
+	 */
+	private static long bits(double key) {
+		// adding 0.0 turns -0.0 into 0.0, whose bits are all zero
+		return Double.doubleToRawLongBits(key + 0.0);
+	}
+
+	/**
+	 * Makes room for the ids 0 to capacity - 1
+	 *
+	 * @requires capacity > bucketOf.length
+	 * @modifies this
+	 */
+	private void grow(int capacity) {
+		int length = Math.max(capacity, bucketOf.length * 2);
+		int old = bucketOf.length;
+		bucketOf = Arrays.copyOf(bucketOf, length);
+		slotOf = Arrays.copyOf(slotOf, length);
+		keys = Arrays.copyOf(keys, length);
+		Arrays.fill(bucketOf, old, length, -1);
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert (bucketOf.length == slotOf.length && bucketOf.length == keys.length) : "id arrays must match";
+		assert (size >= 0) : "size out of range";
+		if (TESTING_MODE) {
+			int total = 0;
+			for (int b = 0; b < BUCKETS; b++) {
+				for (int k = 0; k < bucketSize[b]; k++) {
+					int id = buckets[b][k];
+					assert (bucketOf[id] == b && slotOf[id] == k) : "bucket does not match id";
+				}
+				total += bucketSize[b];
+			}
+			assert (total == size) : "size does not match buckets";
+		}
+	}
+}
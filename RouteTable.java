@@ -0,0 +1,463 @@
+package hw8;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import hw5.GraphSnapshot;
+import hw5.IndexedGraph;
+import hw7.DijkstraEngine;
+import hw7.Edge;
+import hw7.PathResult;
+import hw7.ShortestPathTree;
+
+/**
+ * <b>RouteTable</b> represents an immutable table of the least-cost routes
+ * between every pair of buildings on campus, computed ahead of time so that a
+ * route can be looked up without searching the graph.<br>
+ * It stores a building by building matrix of distances and, for each start
+ * building, the point before every point of the graph on its least-cost path
+ * from that building. A route is rebuilt by walking these points back from the
+ * end building, in time proportional to its length.
+ * <p>
+ * Building the table runs one search from each building, spread across the
+ * threads of a ForkJoinPool. The table can be saved to a file and loaded back
+ * against the same graph. It is also a command line utility that builds and
+ * saves the table for CampusModel.<br>
+ * Usage: RouteTable [buildingsFile] [pathsFile] [snapshotFile] [tableFile]
+ * [threads]
+ */
+public final class RouteTable {
+
+	/** The first int of every table file */
+	public static final int MAGIC = 0x52544142;
+
+	/** The version of the file format written by this class */
+	public static final int VERSION = 1;
+
+	/** The number of buildings searched by each task before it is split further */
+	private static final int ROWS_PER_TASK = 4;
+
+	/** Stores the graph the routes run through */
+	private final IndexedGraph<CampusPoint, Double> graph;
+
+	/** Stores the short name of each building in sorted order */
+	private final String[] buildings;
+
+	/** Maps each short name to its index in buildings */
+	private final Map<String, Integer> index;
+
+	/** Stores the id of the point of each building, or -1 if it is not in graph */
+	private final int[] points;
+
+	/** Stores the distance between each pair of buildings, one row per start building */
+	private final double[] distance;
+
+	/** Stores the id of the point before each point on its path from each start building, or -1 */
+	private final int[] previous;
+
+	// Abstraction Function:
+	// A RouteTable holds the routes between the buildings named in buildings.
+	// The least-cost route from buildings[b] to buildings[c] has cost
+	// distance[b * buildings.length + c], and its last edge runs from the point
+	// with id previous[b * graph.size() + i] to the point with id i, where i is
+	// initially points[c]. A route does not exist if its distance is infinite.
+	//
+	// Representation Invariant:
+	// * graph, buildings, index, points, distance, previous != null
+	// * index.get(buildings[b]) == b for every b
+	// * points.length == buildings.length
+	// * distance.length == buildings.length * buildings.length
+	// * previous.length == buildings.length * graph.size()
+
+	/**
+	 * Constructs a new table from filled arrays, which are kept, not copied
+	 */
+	private RouteTable(IndexedGraph<CampusPoint, Double> graph, String[] buildings, int[] points, double[] distance,
+			int[] previous) {
+		this.graph = graph;
+		this.buildings = buildings;
+		this.points = points;
+		this.distance = distance;
+		this.previous = previous;
+		index = new HashMap<String, Integer>(buildings.length * 2);
+		for (int b = 0; b < buildings.length; b++) {
+			index.put(buildings[b], b);
+		}
+		checkRep();
+	}
+
+	public static void main(String[] args) throws IOException {
+		String buildingsFile = args.length > 0 ? args[0] : "src/hw8/data/campus_buildings.dat";
+		String pathsFile = args.length > 1 ? args[1] : "src/hw8/data/campus_paths.dat";
+		String snapshotFile = args.length > 2 ? args[2] : "src/hw8/data/campus_paths.snapshot";
+		String tableFile = args.length > 3 ? args[3] : "src/hw8/data/campus_routes.table";
+		int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+		Map<String, CampusPoint> shortToPoint = new HashMap<String, CampusPoint>();
+		CampusParser.parseBuildings(buildingsFile, new ArrayList<String>(), new HashMap<String, String>(),
+				shortToPoint);
+		IndexedGraph<CampusPoint, Double> graph = CampusParser.loadPaths(pathsFile, snapshotFile);
+
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		long start = System.nanoTime();
+		RouteTable table = build(graph, shortToPoint, pool);
+		long elapsed = System.nanoTime() - start;
+		pool.shutdown();
+		table.write(new File(tableFile));
+		System.out.println(String.format("Built routes between %d buildings on %d threads in %.1f ms", table.size(),
+				threads, elapsed / 1e6));
+	}
+
+	/**
+	 * Computes the routes between every pair of buildings
+	 *
+	 * @param graph
+	 *            The graph of the paths on campus
+	 * @param shortToPoint
+	 *            Maps the short name of each building to its point
+	 * @param pool
+	 *            The pool that runs the searches
+	 * @requires graph, shortToPoint, pool != null && graph.isWeighted() && every
+	 *           edge of graph is non-negative
+	 * @return a table of the routes between the buildings of shortToPoint
+	 */
+	public static RouteTable build(final IndexedGraph<CampusPoint, Double> graph, Map<String, CampusPoint> shortToPoint,
+			ForkJoinPool pool) {
+		List<String> names = new ArrayList<String>(shortToPoint.keySet());
+		Collections.sort(names);
+		final String[] buildings = names.toArray(new String[names.size()]);
+		final CampusPoint[] locations = new CampusPoint[buildings.length];
+		final int[] points = new int[buildings.length];
+		for (int b = 0; b < buildings.length; b++) {
+			locations[b] = shortToPoint.get(buildings[b]);
+			points[b] = graph.idOf(locations[b]);
+		}
+		final double[] distance = new double[buildings.length * buildings.length];
+		final int[] previous = new int[buildings.length * graph.size()];
+
+		// each task fills only the rows of its own buildings, so no locking is needed
+		pool.invoke(new Rows(graph, locations, distance, previous, 0, buildings.length));
+		return new RouteTable(graph, buildings, points, distance, previous);
+	}
+
+	/**
+	 * Loads a table saved by write
+	 *
+	 * @param file
+	 *            The table file
+	 * @param graph
+	 *            The graph the table was built from
+	 * @requires file, graph != null
+	 * @return the table stored in file
+	 * @throws IOException
+	 *             if file cannot be read, is not a table of a supported version,
+	 *             is truncated, or was built from a graph of a different size
+	 */
+	public static RouteTable load(File file, IndexedGraph<CampusPoint, Double> graph) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+		try {
+			if (in.readInt() != MAGIC)
+				throw new IOException(file + " is not a route table");
+			int version = in.readInt();
+			if (version != VERSION)
+				throw new IOException(file + " has unsupported route table version " + version);
+			if (in.readInt() != graph.size() || in.readInt() != graph.edgeCount())
+				throw new IOException(file + " was built from a different graph");
+
+			String[] buildings = new String[in.readInt()];
+			int[] points = new int[buildings.length];
+			for (int b = 0; b < buildings.length; b++) {
+				buildings[b] = in.readUTF();
+				points[b] = in.readInt();
+			}
+			double[] distance = new double[buildings.length * buildings.length];
+			for (int k = 0; k < distance.length; k++) {
+				distance[k] = in.readDouble();
+			}
+			int[] previous = new int[buildings.length * graph.size()];
+			for (int k = 0; k < previous.length; k++) {
+				previous[k] = in.readInt();
+			}
+			return new RouteTable(graph, buildings, points, distance, previous);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * @param table
+	 *            The table file
+	 * @param sources
+	 *            The datasets the table was built from
+	 * @requires table, sources != null
+	 * @return true if table exists and is at least as new as every source, false
+	 *         otherwise
+	 */
+	public static boolean isCurrent(File table, File... sources) {
+		for (File source : sources) {
+			if (!GraphSnapshot.isCurrent(table, source))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Writes this table to file, replacing anything already there. The table is
+	 * written to a temporary file that is then moved over file, so a write that
+	 * is interrupted leaves the old table in place rather than a truncated one
+	 *
+	 * @param file
+	 *            The file the table is written to
+	 * @requires file != null
+	 * @throws IOException
+	 *             if file cannot be written
+	 */
+	public void write(File file) throws IOException {
+		File target = file.getAbsoluteFile();
+		File temp = File.createTempFile(target.getName(), ".tmp", target.getParentFile());
+		boolean moved = false;
+		try {
+			writeTo(temp);
+			Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+			moved = true;
+		} finally {
+			if (!moved)
+				temp.delete();
+		}
+	}
+
+	/**
+	 * Writes the contents of this table to file
+	 *
+	 * @throws IOException
+	 *             if file cannot be written
+	 */
+	private void writeTo(File file) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(graph.size());
+			out.writeInt(graph.edgeCount());
+			out.writeInt(buildings.length);
+			for (int b = 0; b < buildings.length; b++) {
+				out.writeUTF(buildings[b]);
+				out.writeInt(points[b]);
+			}
+			for (int k = 0; k < distance.length; k++) {
+				out.writeDouble(distance[k]);
+			}
+			for (int k = 0; k < previous.length; k++) {
+				out.writeInt(previous[k]);
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * @return the number of buildings in the table
+	 */
+	public int size() {
+		return buildings.length;
+	}
+
+	/**
+	 * @param building
+	 *            The short name being looked up
+	 * @requires building != null
+	 * @return true if building is in the table, false otherwise
+	 */
+	public boolean contains(String building) {
+		return index.containsKey(building);
+	}
+
+	/**
+	 * @param start
+	 *            The short name of the building the route begins at
+	 * @param end
+	 *            The short name of the building the route ends at
+	 * @requires contains(start) && contains(end)
+	 * @return the length of the least-cost route from start to end, or
+	 *         Double.POSITIVE_INFINITY if there is none
+	 */
+	public double distance(String start, String end) {
+		return distance[index.get(start) * buildings.length + index.get(end)];
+	}
+
+	/**
+	 * Rebuilds the least-cost route between two buildings
+	 *
+	 * @param start
+	 *            The short name of the building the route begins at
+	 * @param end
+	 *            The short name of the building the route ends at
+	 * @requires contains(start) && contains(end)
+	 * @return a list of edges representing the least-cost route between start and
+	 *         end.<br>
+	 *         Returns an empty list if start and end are at the same point.<br>
+	 *         Returns null if no route exists between start and end.
+	 */
+	public List<Edge<CampusPoint, Double>> route(String start, String end) {
+		int b = index.get(start);
+		int source = points[b];
+		int target = points[index.get(end)];
+		if (source < 0 || target < 0 || distance(start, end) == Double.POSITIVE_INFINITY) {
+			return null;
+		}
+
+		List<Edge<CampusPoint, Double>> path = new ArrayList<Edge<CampusPoint, Double>>();
+		int row = b * graph.size();
+		for (int node = target; node != source; node = previous[row + node]) {
+			int parent = previous[row + node];
+			path.add(new Edge<CampusPoint, Double>(weightBetween(parent, node), graph.nodeOf(parent),
+					graph.nodeOf(node)));
+		}
+		Collections.reverse(path);
+		return path;
+	}
+
+	/**
+	 * Rebuilds the least-cost route between two buildings as a PathResult, which
+	 * holds the points of the route and the distance to each of them without
+	 * creating an Edge for each step
+	 *
+	 * @param start
+	 *            The short name of the building the route begins at
+	 * @param end
+	 *            The short name of the building the route ends at
+	 * @requires contains(start) && contains(end)
+	 * @return the least-cost route between start and end.<br>
+	 *         Returns a route of one point if start and end are at the same
+	 *         point.<br>
+	 *         Returns null if no route exists between start and end.
+	 */
+	public PathResult<CampusPoint> path(String start, String end) {
+		int b = index.get(start);
+		int source = points[b];
+		int target = points[index.get(end)];
+		if (source < 0 || target < 0 || distance(start, end) == Double.POSITIVE_INFINITY) {
+			return null;
+		}
+
+		// walks the route back once to find its points, then adds them from the start
+		int row = b * graph.size();
+		int length = 0;
+		for (int node = target; node != source; node = previous[row + node]) {
+			length++;
+		}
+		int[] route = new int[length + 1];
+		route[0] = source;
+		for (int node = target, k = length; k > 0; node = previous[row + node], k--) {
+			route[k] = node;
+		}
+		PathResult.Builder<CampusPoint> builder = new PathResult.Builder<CampusPoint>(graph.nodeOf(source), length);
+		for (int k = 1; k <= length; k++) {
+			builder.add(graph.nodeOf(route[k]), weightBetween(route[k - 1], route[k]));
+		}
+		return builder.build();
+	}
+
+	/**
+	 * @requires there is an edge from parent to child
+	 * @return the least weight of the edges from parent to child
+	 */
+	private double weightBetween(int parent, int child) {
+		double least = Double.POSITIVE_INFINITY;
+		for (int e = graph.firstEdge(parent); e < graph.endEdge(parent); e++) {
+			if (graph.target(e) == child)
+				least = Math.min(least, graph.weight(e));
+		}
+		return least;
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert (graph != null && buildings != null && index != null) : "the table cannot be null";
+		assert (points.length == buildings.length) : "every building must have a point";
+		assert (distance.length == buildings.length * buildings.length) : "every pair must have a distance";
+		assert (previous.length == buildings.length * graph.size()) : "every building must have a row of points";
+	}
+
+	/**
+	 * <b>Rows</b> is a task that fills the rows of a range of start buildings,
+	 * splitting the range in half until each part is small enough to search
+	 * directly.
+	 */
+	private static class Rows extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		/** stores the graph being searched */
+		private final IndexedGraph<CampusPoint, Double> graph;
+
+		/** stores the point of each building */
+		private final CampusPoint[] locations;
+
+		/** stores the distance matrix being filled */
+		private final double[] distance;
+
+		/** stores the table of previous points being filled */
+		private final int[] previous;
+
+		/** stores the first building of the range */
+		private final int from;
+
+		/** stores one past the last building of the range */
+		private final int to;
+
+		Rows(IndexedGraph<CampusPoint, Double> graph, CampusPoint[] locations, double[] distance, int[] previous,
+				int from, int to) {
+			this.graph = graph;
+			this.locations = locations;
+			this.distance = distance;
+			this.previous = previous;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > ROWS_PER_TASK) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new Rows(graph, locations, distance, previous, from, mid),
+						new Rows(graph, locations, distance, previous, mid, to));
+				return;
+			}
+
+			// an engine is not thread safe, so each task searches with its own
+			DijkstraEngine<CampusPoint> engine = new DijkstraEngine<CampusPoint>(graph);
+			int n = graph.size();
+			for (int b = from; b < to; b++) {
+				ShortestPathTree<CampusPoint> tree = engine.searchAll(locations[b]);
+				for (int c = 0; c < locations.length; c++) {
+					distance[b * locations.length + c] = tree.distanceTo(locations[c]);
+				}
+				Arrays.fill(previous, b * n, (b + 1) * n, -1);
+				for (int i = 0; i < n; i++) {
+					CampusPoint before = tree.previousOf(graph.nodeOf(i));
+					if (before != null)
+						previous[b * n + i] = graph.idOf(before);
+				}
+			}
+		}
+	}
+}
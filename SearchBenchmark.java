@@ -0,0 +1,196 @@
+package hw7;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import hw5.FrozenGraph;
+
+/**
+ * <b>SearchBenchmark</b> is a command line utility that compares the path
+ * searches in this package on the Marvel dataset.<br>
+ * Usage: SearchBenchmark [marvelFile] [queries] [landmarks]
+ * <p>
+ * The same random pairs of characters are searched by a DijkstraEngine, by a
+ * BidirectionalDijkstra, and by A* searches guided by a LandmarkHeuristic with
+ * each way of choosing landmarks. For each search it prints the mean number
+ * of nodes settled and the mean time per query, and it reports any query on
+ * which a search disagrees with DijkstraEngine about the cost of the
+ * least-cost path.
+ */
+public class SearchBenchmark {
+
+	// Not an ADT
+
+	public static void main(String[] args) throws MarvelParser2.MalformedDataException {
+		String marvelFile = args.length > 0 ? args[0] : "src/hw7/data/marvel.tsv";
+		int queries = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		int landmarks = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+		if (!new File(marvelFile).exists()) {
+			System.out.println("Skipping Marvel: " + marvelFile + " not found");
+			return;
+		}
+
+		Set<String> characters = new HashSet<String>();
+		Map<String, List<String>> books = new HashMap<String, List<String>>();
+		MarvelParser2.parseData(marvelFile, characters, books);
+		FrozenGraph<String, Double> graph = MarvelPaths2.createWeightedGraph(characters, books).freeze();
+		System.out.println("Marvel: " + graph.size() + " characters, " + graph.edgeCount() + " edges");
+
+		// a fixed seed keeps the queries the same from run to run
+		List<String> names = new ArrayList<String>(characters);
+		Collections.sort(names);
+		Random random = new Random(331);
+		List<String> starts = new ArrayList<String>(queries);
+		List<String> dests = new ArrayList<String>(queries);
+		for (int i = 0; i < queries; i++) {
+			starts.add(names.get(random.nextInt(names.size())));
+			dests.add(names.get(random.nextInt(names.size())));
+		}
+
+		final DijkstraEngine<String> engine = new DijkstraEngine<String>(graph);
+		final BidirectionalDijkstra<String> bidirectional = new BidirectionalDijkstra<String>(graph);
+		long start = System.nanoTime();
+		final LandmarkHeuristic<String> farthest = LandmarkHeuristic.farthest(graph, landmarks, new Random(331));
+		long middle = System.nanoTime();
+		final LandmarkHeuristic<String> highestDegree = LandmarkHeuristic.highestDegree(graph, landmarks);
+		long end = System.nanoTime();
+		System.out.println(String.format("%d landmarks: farthest %.1f ms, highest degree %.1f ms", landmarks,
+				(middle - start) / 1e6, (end - middle) / 1e6));
+
+		double[] costs = new double[queries];
+		long total = 0;
+		long settled = 0;
+		for (int i = 0; i < queries; i++) {
+			long before = System.nanoTime();
+			List<Edge<String, Double>> path = engine.search(starts.get(i), dests.get(i));
+			total += System.nanoTime() - before;
+			settled += engine.getSettledCount();
+			costs[i] = cost(path);
+		}
+		System.out.println(queries + " queries");
+		print("DijkstraEngine", settled, total, queries);
+
+		run("BidirectionalDijkstra", starts, dests, costs, new Query() {
+			@Override
+			public List<Edge<String, Double>> search(String from, String to) {
+				return bidirectional.search(from, to);
+			}
+
+			@Override
+			public int settled() {
+				return bidirectional.getSettledCount();
+			}
+		});
+		run("ALT (farthest)", starts, dests, costs, new Query() {
+			@Override
+			public List<Edge<String, Double>> search(String from, String to) {
+				return engine.search(from, to, farthest);
+			}
+
+			@Override
+			public int settled() {
+				return engine.getSettledCount();
+			}
+		});
+		run("ALT (highest degree)", starts, dests, costs, new Query() {
+			@Override
+			public List<Edge<String, Double>> search(String from, String to) {
+				return engine.search(from, to, highestDegree);
+			}
+
+			@Override
+			public int settled() {
+				return engine.getSettledCount();
+			}
+		});
+	}
+
+	/**
+	 * Runs every query through search, printing its results and any query whose
+	 * cost differs from the expected cost
+	 *
+	 * @param name
+	 *            The name printed alongside the results
+	 * @param starts
+	 *            The start of each query
+	 * @param dests
+	 *            The destination of each query
+	 * @param costs
+	 *            The expected cost of each query
+	 * @param search
+	 *            The search being measured
+	 */
+	private static void run(String name, List<String> starts, List<String> dests, double[] costs, Query search) {
+		long total = 0;
+		long settled = 0;
+		int mismatches = 0;
+		for (int i = 0; i < costs.length; i++) {
+			long before = System.nanoTime();
+			List<Edge<String, Double>> path = search.search(starts.get(i), dests.get(i));
+			total += System.nanoTime() - before;
+			settled += search.settled();
+			if (Math.abs(costs[i] - cost(path)) > 1e-9) {
+				mismatches++;
+				System.out.println("Mismatch from " + starts.get(i) + " to " + dests.get(i) + ": " + costs[i]
+						+ " vs " + cost(path));
+			}
+		}
+		print(name, settled, total, costs.length);
+		if (mismatches > 0)
+			System.out.println("\t" + mismatches + " mismatches");
+	}
+
+	/**
+	 * @param path
+	 *            The path whose cost is being computed
+	 * @return the total weight of the edges of path, or infinity if path is null
+	 */
+	private static double cost(List<Edge<String, Double>> path) {
+		if (path == null)
+			return Double.POSITIVE_INFINITY;
+		double total = 0.0;
+		for (Edge<String, Double> edge : path) {
+			total += edge.getLabel();
+		}
+		return total;
+	}
+
+	/**
+	 * Prints the mean settled count and time per query of a search
+	 *
+	 * @param name
+	 *            The name printed alongside the results
+	 * @param settled
+	 *            The total number of nodes settled
+	 * @param nanos
+	 *            The total time taken in nanoseconds
+	 * @param queries
+	 *            The number of queries run
+	 */
+	private static void print(String name, long settled, long nanos, int queries) {
+		System.out.println(String.format("\t%-24s %12.1f settled/query %10.3f ms/query", name,
+				(double) settled / Math.max(queries, 1), nanos / 1e6 / Math.max(queries, 1)));
+	}
+
+	/**
+	 * <b>Query</b> is a search being measured by the benchmark.
+	 */
+	private interface Query {
+		/**
+		 * @return the least-cost path from start to dest, or null if there is none
+		 */
+		List<Edge<String, Double>> search(String start, String dest);
+
+		/**
+		 * @return the number of nodes settled by the last search
+		 */
+		int settled();
+	}
+}
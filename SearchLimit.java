@@ -0,0 +1,225 @@
+package hw5;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <b>SearchLimit</b> bounds the work a path search may do before it gives up:
+ * a deadline, a budget of nodes the search may settle and a flag that another
+ * thread can raise to cancel it. A search given a limit returns a
+ * SearchOutcome, which says whether it finished or which bound stopped it.<br>
+ * A SearchLimit is built with a Builder, and every bound left unset does not
+ * apply.
+ * <p>
+ * The budget applies to each search on its own, while the deadline is a
+ * moment in time and cancelling is permanent, so several searches made for
+ * the same request can share one limit to bound the request as a whole. The
+ * clock is read only once every CLOCK_INTERVAL nodes, so a search may run
+ * past its deadline by the time it takes to settle that many nodes.
+ * <p>
+ * cancel may be called from any thread while a search is running.
+ */
+public final class SearchLimit {
+
+	/** The number of nodes settled between readings of the clock */
+	public static final int CLOCK_INTERVAL = 64;
+
+	/**
+	 * <b>Reason</b> is the bound that stopped a search
+	 */
+	public enum Reason {
+		/** The deadline passed */
+		DEADLINE,
+		/** The search settled as many nodes as its budget allows */
+		BUDGET,
+		/** The search was cancelled */
+		CANCELLED
+	}
+
+	/** Stores System.nanoTime() at the deadline, if there is one */
+	private final long deadline;
+
+	/** Stores whether the limit has a deadline */
+	private final boolean hasDeadline;
+
+	/** Stores the number of nodes a search may settle */
+	private final long maxSettled;
+
+	/** Stores the number of frontier nodes a stopped search reports */
+	private final int frontierSize;
+
+	/** Stores whether the searches have been cancelled */
+	private volatile boolean cancelled = false;
+
+	// Abstraction Function:
+	// A SearchLimit stops a search once it has settled maxSettled nodes, once
+	// System.nanoTime() reaches deadline if hasDeadline, or once cancelled is
+	// set, and asks the search to report up to frontierSize nodes of its
+	// frontier when it stops.
+	//
+	// Representation Invariant:
+	// * maxSettled >= 0 and frontierSize >= 0
+
+	/**
+	 * Constructs a new limit from a Builder
+	 */
+	private SearchLimit(Builder builder) {
+		deadline = builder.deadline;
+		hasDeadline = builder.hasDeadline;
+		maxSettled = builder.maxSettled;
+		frontierSize = builder.frontierSize;
+		checkRep();
+	}
+
+	/**
+	 * Cancels every search using this limit, each of which stops before it
+	 * settles another node
+	 *
+	 * @modifies this
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * @return true if cancel has been called
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * @return the number of nodes a search may settle, which is Long.MAX_VALUE if
+	 *         there is no budget
+	 */
+	public long getMaxSettled() {
+		return maxSettled;
+	}
+
+	/**
+	 * @return the number of frontier nodes a stopped search reports
+	 */
+	public int getFrontierSize() {
+		return frontierSize;
+	}
+
+	/**
+	 * Checks whether a search may settle another node. Searches call this before
+	 * settling each node.
+	 *
+	 * @param settled
+	 *            The number of nodes the search has settled so far
+	 * @requires settled >= 0
+	 * @return the bound that stops the search, or null if it may go on
+	 */
+	public Reason exceeded(long settled) {
+		if (cancelled)
+			return Reason.CANCELLED;
+		if (settled >= maxSettled)
+			return Reason.BUDGET;
+		if (hasDeadline && settled % CLOCK_INTERVAL == 0 && System.nanoTime() - deadline >= 0)
+			return Reason.DEADLINE;
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return "SearchLimit(" + (hasDeadline ? (deadline - System.nanoTime()) / 1e6 + " ms left" : "no deadline")
+				+ ", " + (maxSettled == Long.MAX_VALUE ? "no budget" : maxSettled + " nodes")
+				+ (cancelled ? ", cancelled" : "") + ")";
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert (maxSettled >= 0) : "the budget cannot be negative";
+		assert (frontierSize >= 0) : "the frontier size cannot be negative";
+	}
+
+	/**
+	 * <b>Builder</b> collects the bounds of a SearchLimit. Each bound is left
+	 * unset unless its method is called.
+	 */
+	public static class Builder {
+		/** Stores System.nanoTime() at the deadline, if there is one */
+		private long deadline = 0L;
+
+		/** Stores whether a deadline has been set */
+		private boolean hasDeadline = false;
+
+		/** Stores the number of nodes a search may settle */
+		private long maxSettled = Long.MAX_VALUE;
+
+		/** Stores the number of frontier nodes a stopped search reports */
+		private int frontierSize = 0;
+
+		/**
+		 * Sets the deadline to a moment measured by System.nanoTime()
+		 *
+		 * @param nanoTime
+		 *            The value of System.nanoTime() at the deadline
+		 * @modifies this
+		 * @return this Builder
+		 */
+		public Builder deadline(long nanoTime) {
+			deadline = nanoTime;
+			hasDeadline = true;
+			return this;
+		}
+
+		/**
+		 * Sets the deadline to a time from now
+		 *
+		 * @param duration
+		 *            The time from now until the deadline
+		 * @param unit
+		 *            The unit of duration
+		 * @requires unit != null
+		 * @modifies this
+		 * @return this Builder
+		 */
+		public Builder timeout(long duration, TimeUnit unit) {
+			return deadline(System.nanoTime() + unit.toNanos(duration));
+		}
+
+		/**
+		 * Sets the number of nodes each search may settle
+		 *
+		 * @param maxSettled
+		 *            The budget of nodes
+		 * @requires maxSettled >= 0
+		 * @modifies this
+		 * @return this Builder
+		 */
+		public Builder maxSettled(long maxSettled) {
+			if (maxSettled < 0)
+				throw new IllegalArgumentException("the budget cannot be negative: " + maxSettled);
+			this.maxSettled = maxSettled;
+			return this;
+		}
+
+		/**
+		 * Makes a stopped search report up to size nodes of its frontier, the
+		 * nodes it would have settled next
+		 *
+		 * @param size
+		 *            The number of frontier nodes to report
+		 * @requires size >= 0
+		 * @modifies this
+		 * @return this Builder
+		 */
+		public Builder frontier(int size) {
+			if (size < 0)
+				throw new IllegalArgumentException("the frontier size cannot be negative: " + size);
+			frontierSize = size;
+			return this;
+		}
+
+		/**
+		 * @return a new SearchLimit with the bounds set so far
+		 */
+		public SearchLimit build() {
+			return new SearchLimit(this);
+		}
+	}
+}
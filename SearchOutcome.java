@@ -0,0 +1,137 @@
+package hw5;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <b>SearchOutcome<P, N></b> is the immutable result of a search bounded by a
+ * SearchLimit. A search that finishes within its limit is complete and holds
+ * the path it found, or null if there is none, just as an unbounded search
+ * would return. A search that was stopped holds no path but the Reason it was
+ * stopped and, if its limit asked for them, the nodes it would have settled
+ * next, in the order it would have settled them.
+ *
+ * @param <P>
+ *            The type of the path the search returns
+ * @param <N>
+ *            The object type of each node in the graph searched
+ */
+public final class SearchOutcome<P, N> {
+
+	/** Stores the path found, or null if there is none or the search stopped */
+	private final P path;
+
+	/** Stores the bound that stopped the search, or null if it is complete */
+	private final SearchLimit.Reason reason;
+
+	/** Stores the frontier of a stopped search */
+	private final List<N> frontier;
+
+	/** Stores the number of nodes the search settled */
+	private final long settled;
+
+	// Abstraction Function:
+	// A SearchOutcome is the result of a search that settled settled nodes. If
+	// reason is null the search is complete and path is its result. Otherwise
+	// the search was stopped by reason with the nodes of frontier next to settle.
+	//
+	// Representation Invariant:
+	// * frontier != null and settled >= 0
+	// * if reason == null then frontier is empty, else path == null
+
+	/**
+	 * Constructs a new outcome
+	 */
+	private SearchOutcome(P path, SearchLimit.Reason reason, List<N> frontier, long settled) {
+		this.path = path;
+		this.reason = reason;
+		this.frontier = frontier;
+		this.settled = settled;
+		checkRep();
+	}
+
+	/**
+	 * Creates the outcome of a search that finished within its limit
+	 *
+	 * @param path
+	 *            The path the search found, or null if there is none
+	 * @param settled
+	 *            The number of nodes the search settled
+	 * @requires settled >= 0
+	 * @return a complete outcome holding path
+	 */
+	public static <P, N> SearchOutcome<P, N> complete(P path, long settled) {
+		return new SearchOutcome<P, N>(path, null, Collections.<N> emptyList(), settled);
+	}
+
+	/**
+	 * Creates the outcome of a search that a bound stopped
+	 *
+	 * @param reason
+	 *            The bound that stopped the search
+	 * @param frontier
+	 *            The nodes the search would have settled next, in order
+	 * @param settled
+	 *            The number of nodes the search settled
+	 * @requires reason, frontier != null && settled >= 0
+	 * @return a stopped outcome
+	 */
+	public static <P, N> SearchOutcome<P, N> stopped(SearchLimit.Reason reason, List<N> frontier, long settled) {
+		return new SearchOutcome<P, N>(null, reason, Collections.unmodifiableList(frontier), settled);
+	}
+
+	/**
+	 * @return true if the search finished within its limit, so that getPath is
+	 *         its result
+	 */
+	public boolean isComplete() {
+		return reason == null;
+	}
+
+	/**
+	 * @return the path found by a complete search, or null if there is none or
+	 *         the search was stopped
+	 */
+	public P getPath() {
+		return path;
+	}
+
+	/**
+	 * @return the bound that stopped the search, or null if it is complete
+	 */
+	public SearchLimit.Reason getReason() {
+		return reason;
+	}
+
+	/**
+	 * @return an unmodifiable list of the nodes a stopped search would have
+	 *         settled next, in order, which is empty if the search is complete or
+	 *         its limit asked for none
+	 */
+	public List<N> getFrontier() {
+		return frontier;
+	}
+
+	/**
+	 * @return the number of nodes the search settled
+	 */
+	public long getSettled() {
+		return settled;
+	}
+
+	@Override
+	public String toString() {
+		if (reason == null)
+			return "complete after " + settled + " nodes: " + path;
+		return "stopped by " + reason + " after " + settled + " nodes, frontier " + frontier;
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert (frontier != null && settled >= 0);
+		assert (reason != null || frontier.isEmpty()) : "a complete search has no frontier";
+		assert (reason == null || path == null) : "a stopped search has no path";
+	}
+}
@@ -0,0 +1,283 @@
+package hw5;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * <b>SearchStats</b> is a mutable record of the work done by path searches,
+ * which a search fills in when it is given one and skips entirely otherwise,
+ * so that searches that are not being inspected pay only for a null check.<br>
+ * It counts the nodes settled, the edges relaxed, the entries pushed onto and
+ * popped off the search's queue, the most entries the queue held at once and
+ * the stale entries skipped by queues that leave them behind instead of
+ * lowering keys in place. It also measures the wall time of each search and,
+ * where the JVM supports it, the bytes the searching thread allocated.
+ * <p>
+ * The counts add up over every search recorded until reset is called, and the
+ * peak queue size is the greatest of any of them. A SearchStats is not safe
+ * for use by more than one thread at a time.
+ */
+public final class SearchStats {
+
+	/** Stores the number of searches recorded */
+	private int searches = 0;
+
+	/** Stores the number of nodes settled */
+	private long settled = 0;
+
+	/** Stores the number of edges relaxed */
+	private long relaxed = 0;
+
+	/** Stores the number of entries added to a queue or whose key was lowered */
+	private long pushes = 0;
+
+	/** Stores the number of entries removed from a queue */
+	private long pops = 0;
+
+	/** Stores the number of stale entries removed from a queue and skipped */
+	private long staleSkipped = 0;
+
+	/** Stores the greatest number of entries a queue held at once */
+	private int peakQueueSize = 0;
+
+	/** Stores the total wall time of the searches in nanoseconds */
+	private long wallNanos = 0;
+
+	/** Stores the total bytes allocated by the searches, or -1 if unknown */
+	private long allocatedBytes = 0;
+
+	/** Stores System.nanoTime() when the current search began */
+	private long startNanos = 0;
+
+	/** Stores the bytes the thread had allocated when the current search began */
+	private long startBytes = 0;
+
+	// Abstraction Function:
+	// A SearchStats describes searches searches, which settled settled nodes,
+	// relaxed relaxed edges, pushed pushes and popped pops queue entries of which
+	// staleSkipped were stale, held at most peakQueueSize entries at once, ran
+	// for wallNanos and allocated allocatedBytes, or an unknown amount if it is
+	// -1. startNanos and startBytes belong to the search in progress.
+	//
+	// Representation Invariant:
+	// * every count is non-negative, except that allocatedBytes may be -1
+	// * staleSkipped <= pops
+
+	/**
+	 * Constructs a new record of no searches
+	 */
+	public SearchStats() {
+		checkRep();
+	}
+
+	/**
+	 * Records the start of a search
+	 *
+	 * @modifies this
+	 */
+	public void begin() {
+		searches++;
+		startBytes = Allocation.bytes();
+		startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Records the end of the search begun by the last call to begin
+	 *
+	 * @modifies this
+	 */
+	public void end() {
+		wallNanos += System.nanoTime() - startNanos;
+		long bytes = Allocation.bytes();
+		if (bytes < 0 || startBytes < 0) {
+			allocatedBytes = -1;
+		} else if (allocatedBytes >= 0) {
+			allocatedBytes += bytes - startBytes;
+		}
+		checkRep();
+	}
+
+	/**
+	 * Records that a node was settled
+	 *
+	 * @modifies this
+	 */
+	public void settle() {
+		settled++;
+	}
+
+	/**
+	 * Records that an edge was relaxed
+	 *
+	 * @modifies this
+	 */
+	public void relax() {
+		relaxed++;
+	}
+
+	/**
+	 * Records that an entry was added to a queue or had its key lowered
+	 *
+	 * @param queueSize
+	 *            The number of entries in the queue afterwards
+	 * @modifies this
+	 */
+	public void push(int queueSize) {
+		pushes++;
+		peakQueueSize = Math.max(peakQueueSize, queueSize);
+	}
+
+	/**
+	 * Records that an entry was removed from a queue
+	 *
+	 * @modifies this
+	 */
+	public void pop() {
+		pops++;
+	}
+
+	/**
+	 * Records that an entry removed from a queue was stale and skipped. The
+	 * entry must also have been recorded by pop.
+	 *
+	 * @modifies this
+	 */
+	public void skipStale() {
+		staleSkipped++;
+	}
+
+	/**
+	 * Forgets every search recorded so far
+	 *
+	 * @modifies this
+	 */
+	public void reset() {
+		searches = 0;
+		settled = 0;
+		relaxed = 0;
+		pushes = 0;
+		pops = 0;
+		staleSkipped = 0;
+		peakQueueSize = 0;
+		wallNanos = 0;
+		allocatedBytes = 0;
+		checkRep();
+	}
+
+	/**
+	 * @return the number of searches recorded
+	 */
+	public int getSearches() {
+		return searches;
+	}
+
+	/**
+	 * @return the number of nodes settled
+	 */
+	public long getSettled() {
+		return settled;
+	}
+
+	/**
+	 * @return the number of edges relaxed
+	 */
+	public long getRelaxed() {
+		return relaxed;
+	}
+
+	/**
+	 * @return the number of entries added to a queue or whose key was lowered
+	 */
+	public long getPushes() {
+		return pushes;
+	}
+
+	/**
+	 * @return the number of entries removed from a queue
+	 */
+	public long getPops() {
+		return pops;
+	}
+
+	/**
+	 * @return the number of stale entries removed from a queue and skipped
+	 */
+	public long getStaleSkipped() {
+		return staleSkipped;
+	}
+
+	/**
+	 * @return the greatest number of entries a queue held at once
+	 */
+	public int getPeakQueueSize() {
+		return peakQueueSize;
+	}
+
+	/**
+	 * @return the total wall time of the searches in nanoseconds
+	 */
+	public long getWallNanos() {
+		return wallNanos;
+	}
+
+	/**
+	 * @return the total bytes allocated by the threads that ran the searches, or
+	 *         -1 if the JVM cannot measure them
+	 */
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("searches: %d, settled: %d, relaxed: %d, pushes: %d, pops: %d, stale: %d, "
+				+ "peak queue: %d, time: %.3f ms, allocated: %s", searches, settled, relaxed, pushes, pops,
+				staleSkipped, peakQueueSize, wallNanos / 1e6,
+				allocatedBytes < 0 ? "unknown" : allocatedBytes + " bytes");
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert (searches >= 0 && settled >= 0 && relaxed >= 0 && pushes >= 0 && pops >= 0 && peakQueueSize >= 0
+				&& wallNanos >= 0 && allocatedBytes >= -1) : "counts cannot be negative";
+		assert (staleSkipped >= 0 && staleSkipped <= pops) : "every stale entry must have been popped";
+	}
+
+	/**
+	 * <b>Allocation</b> reads the bytes allocated by the current thread from the
+	 * HotSpot ThreadMXBean. It is a separate class so that the management classes
+	 * are only loaded once a search is recorded, since some platforms, such as
+	 * Android, do not have them.
+	 */
+	private static class Allocation {
+		/** stores the bean that counts allocations, or null if there is none */
+		static final com.sun.management.ThreadMXBean BEAN = find();
+
+		/**
+		 * @return the bean that counts allocations, or null if the JVM has none
+		 */
+		static com.sun.management.ThreadMXBean find() {
+			try {
+				ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+				if (bean instanceof com.sun.management.ThreadMXBean) {
+					com.sun.management.ThreadMXBean counting = (com.sun.management.ThreadMXBean) bean;
+					if (counting.isThreadAllocatedMemorySupported() && counting.isThreadAllocatedMemoryEnabled())
+						return counting;
+				}
+			} catch (LinkageError e) {
+				// the platform has no management classes, so allocation is unknown
+			}
+			return null;
+		}
+
+		/**
+		 * @return the bytes allocated by the current thread so far, or -1 if they
+		 *         cannot be measured
+		 */
+		static long bytes() {
+			return BEAN == null ? -1 : BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+	}
+}
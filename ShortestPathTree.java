@@ -0,0 +1,166 @@
+package hw7;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <b>ShortestPathTree<N></b> represents an immutable set of least-cost paths
+ * from a single source to every node that can be reached from it, as found by
+ * DijkstraEngine.searchAll.<br>
+ * Each reached node stores its distance from the source and the edge through
+ * which its least-cost path arrives, so the path to any node can be rebuilt in
+ * time proportional to its length without searching the graph again.
+ * <p>
+ * A tree is a snapshot: it is not updated if the graph it was built from
+ * changes afterwards.
+ *
+ * @param <N>
+ *            The object type of each node in the graph. N must extend Comparable
+ */
+public final class ShortestPathTree<N extends Comparable<N>> {
+
+	/** Stores the node every path begins at */
+	private final N source;
+
+	/** Stores the reached nodes in the order they were settled */
+	private final List<N> nodes;
+
+	/** Maps each reached node to its index in nodes */
+	private final Map<N, Integer> index;
+
+	/** Stores the cost of the least-cost path to each reached node */
+	private final double[] cost;
+
+	/** Stores the index of the node before each reached node on its path, or -1 */
+	private final int[] previous;
+
+	/** Stores the weight of the edge from previous[k] to k */
+	private final double[] weight;
+
+	// Abstraction Function:
+	// A ShortestPathTree holds, for every node nodes.get(k), a least-cost path
+	// from source of cost cost[k] whose last edge leaves nodes.get(previous[k])
+	// with weight weight[k]. Nodes not in index cannot be reached from source.
+	//
+	// Representation Invariant:
+	// * source, nodes, index, cost, previous, weight != null
+	// * nodes.get(0) == source and previous[0] == -1
+	// * index.get(nodes.get(k)) == k for every k
+	// * cost, previous and weight all have length nodes.size()
+	// * 0 <= previous[k] < k for every 0 < k < nodes.size()
+
+	/** A boolean constant used to reduce checkRep time if not in testing mode */
+	private static final boolean TESTING_MODE = false;
+
+	/**
+	 * Constructs a new tree from arrays filled in settle order. The arrays are
+	 * kept, not copied.
+	 *
+	 * @requires nodes.get(0).equals(source) && every array has length nodes.size()
+	 *           && previous[k] < k for every k > 0
+	 */
+	ShortestPathTree(N source, List<N> nodes, double[] cost, int[] previous, double[] weight) {
+		this.source = source;
+		this.nodes = nodes;
+		this.cost = cost;
+		this.previous = previous;
+		this.weight = weight;
+		index = new HashMap<N, Integer>(nodes.size() * 4 / 3 + 1);
+		for (int k = 0; k < nodes.size(); k++) {
+			index.put(nodes.get(k), k);
+		}
+		checkRep();
+	}
+
+	/**
+	 * @return the node every path in this tree begins at
+	 */
+	public N getSource() {
+		return source;
+	}
+
+	/**
+	 * @return the number of nodes that can be reached from the source, including
+	 *         the source itself
+	 */
+	public int size() {
+		return nodes.size();
+	}
+
+	/**
+	 * @param node
+	 *            The node being looked up
+	 * @requires node != null
+	 * @return true if there is a path from the source to node, false otherwise
+	 */
+	public boolean reaches(N node) {
+		return index.containsKey(node);
+	}
+
+	/**
+	 * @param dest
+	 *            The node at which the path ends
+	 * @requires dest != null
+	 * @return the cost of the least-cost path from the source to dest, or
+	 *         Double.POSITIVE_INFINITY if there is none
+	 */
+	public double distanceTo(N dest) {
+		Integer k = index.get(dest);
+		return k == null ? Double.POSITIVE_INFINITY : cost[k];
+	}
+
+	/**
+	 * @param node
+	 *            The node being looked up
+	 * @requires node != null
+	 * @return the node before node on its least-cost path from the source, or
+	 *         null if node is the source or cannot be reached
+	 */
+	public N previousOf(N node) {
+		Integer k = index.get(node);
+		return k == null || previous[k] < 0 ? null : nodes.get(previous[k]);
+	}
+
+	/**
+	 * Returns the least-cost path from the source to dest as a list of edges
+	 *
+	 * @param dest
+	 *            The node at which the path ends
+	 * @requires dest != null
+	 * @return a list of edges representing the least-cost path between the source
+	 *         and dest.<br>
+	 *         Returns an empty list if dest is the source.<br>
+	 *         Returns null if no path exists between the source and dest.
+	 */
+	public List<Edge<N, Double>> pathTo(N dest) {
+		Integer target = index.get(dest);
+		if (target == null) {
+			return null;
+		}
+		List<Edge<N, Double>> path = new ArrayList<Edge<N, Double>>();
+		for (int k = target; previous[k] >= 0; k = previous[k]) {
+			path.add(new Edge<N, Double>(weight[k], nodes.get(previous[k]), nodes.get(k)));
+		}
+		Collections.reverse(path);
+		return path;
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert (source != null && nodes != null && index != null);
+		assert (cost.length == nodes.size() && previous.length == nodes.size() && weight.length == nodes.size())
+				: "every reached node must have a cost and a previous node";
+		assert (nodes.get(0).equals(source) && previous[0] == -1) : "the source must be the root of the tree";
+		if (TESTING_MODE) {
+			for (int k = 1; k < nodes.size(); k++) {
+				assert (previous[k] >= 0 && previous[k] < k) : "each node must be settled after the node before it";
+				assert (cost[k] == cost[previous[k]] + weight[k]) : "each cost must extend the cost before it";
+			}
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package hw5;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * <b>SnapshotCodec<T></b> converts the nodes or edge labels of a graph to and
+ * from the bytes stored in a GraphSnapshot file.<br>
+ * read must consume exactly the bytes that write produced for the same value.
+ *
+ * @param <T>
+ *            The object type being converted
+ */
+public interface SnapshotCodec<T> {
+
+	/**
+	 * Writes value to out
+	 *
+	 * @param value
+	 *            The value being written
+	 * @param out
+	 *            The stream the value is written to
+	 * @requires value, out != null
+	 * @throws IOException
+	 *             if out cannot be written to
+	 */
+	void write(T value, DataOutput out) throws IOException;
+
+	/**
+	 * Reads the next value from in, advancing its position past the value
+	 *
+	 * @param in
+	 *            The buffer the value is read from
+	 * @requires in != null
+	 * @return the value that was read
+	 * @throws IOException
+	 *             if the next bytes of in do not hold a value written by write
+	 */
+	T read(ByteBuffer in) throws IOException;
+}
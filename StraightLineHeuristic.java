@@ -0,0 +1,81 @@
+package hw8;
+
+import hw5.IndexedGraph;
+import hw7.Heuristic;
+
+/**
+ * <b>StraightLineHeuristic</b> estimates the walking distance between two
+ * CampusPoints as the straight-line distance between their pixels multiplied
+ * by a fixed number of feet per pixel.<br>
+ * No path is shorter than a straight line, so the estimate is consistent as
+ * long as the scale is no greater than the weight of any path divided by the
+ * pixel distance it covers. forGraph finds the greatest such scale for a
+ * graph.
+ */
+public final class StraightLineHeuristic implements Heuristic<CampusPoint> {
+
+	/** Stores the number of feet each pixel of straight-line distance is worth */
+	private final double feetPerPixel;
+
+	// Abstraction Function:
+	// A StraightLineHeuristic estimates the cost between points a and b as
+	// feetPerPixel * a.distanceTo(b).
+	//
+	// Representation Invariant:
+	// * feetPerPixel >= 0 and is finite
+
+	/**
+	 * Constructs a new heuristic with the given scale
+	 *
+	 * @param feetPerPixel
+	 *            The number of feet each pixel of straight-line distance is worth
+	 * @requires feetPerPixel >= 0 and is finite
+	 */
+	public StraightLineHeuristic(double feetPerPixel) {
+		this.feetPerPixel = feetPerPixel;
+		checkRep();
+	}
+
+	/**
+	 * Creates the most accurate StraightLineHeuristic which is consistent for
+	 * graph, by taking the least ratio of edge weight to pixel distance over
+	 * every edge. This takes time proportional to the number of edges.
+	 *
+	 * @param graph
+	 *            The graph the heuristic will be used to search
+	 * @requires graph != null && graph.isWeighted()
+	 * @return a heuristic which never overestimates the cost of a path in graph
+	 */
+	public static StraightLineHeuristic forGraph(IndexedGraph<CampusPoint, Double> graph) {
+		double scale = Double.POSITIVE_INFINITY;
+		for (int node = 0; node < graph.size(); node++) {
+			CampusPoint parent = graph.nodeOf(node);
+			for (int e = graph.firstEdge(node); e < graph.endEdge(node); e++) {
+				double pixels = parent.distanceTo(graph.nodeOf(graph.target(e)));
+				if (pixels > 0)
+					scale = Math.min(scale, graph.weight(e) / pixels);
+			}
+		}
+		// a graph without any edges between distinct points needs no estimate
+		return new StraightLineHeuristic(scale == Double.POSITIVE_INFINITY ? 0.0 : Math.max(scale, 0.0));
+	}
+
+	/**
+	 * @return the number of feet each pixel of straight-line distance is worth
+	 */
+	public double getFeetPerPixel() {
+		return feetPerPixel;
+	}
+
+	@Override
+	public double estimate(CampusPoint node, CampusPoint dest) {
+		return feetPerPixel * node.distanceTo(dest);
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert (feetPerPixel >= 0 && !Double.isInfinite(feetPerPixel)) : "scale must be non-negative and finite";
+	}
+}
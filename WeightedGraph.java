@@ -0,0 +1,505 @@
+package hw5;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <b>WeightedGraph<N></b> represents a generic mutable graph with nodes of type
+ * N connected by edges weighted with primitive doubles.<br>
+ * It behaves like a Graph<N, Double>, except that each node stores its edges in
+ * parallel arrays of children and weights so no weight is ever boxed.<br>
+ * Each edge is unidirectional so an edge from n1 to n2 is not equivalent to an
+ * edge from n2 to n1.<br>
+ * Each graph cannot store duplicate nodes. It does however support edges from
+ * a node to itself and multiple, duplicate edges between nodes.
+ * <p>
+ *
+ * @param <N>
+ *            The object type of each node in the graph. N must extend Comparable
+ */
+
+public class WeightedGraph<N extends Comparable<N>> {
+
+	/** Stores all the nodes in the graph */
+	private Map<N, WeightedNode> nodes;
+
+	// Abstraction function:
+	// WeightedGraph g, represents a graph with nodes stored in 'nodes'.
+	//
+	// Representation Invariant for every WeightedGraph g:
+	// * The nodes field must point to a useable object
+	// * Nodes that are added to the graph cannot be null
+
+	/** A boolean constant used to reduce checkRep time if not in testing mode */
+	private static final boolean TESTING_MODE = false;
+
+	/** The number of edges each node has room for before its arrays first grow */
+	private static final int INITIAL_DEGREE = 4;
+
+	/**
+	 * @effects Constructs a new empty graph.
+	 */
+	public WeightedGraph() {
+		nodes = new HashMap<N, WeightedNode>();
+		checkRep();
+	}
+
+	/**
+	 * @param expectedNodes
+	 *            The number of nodes the graph is expected to hold, so that they can
+	 *            be added without resizing
+	 * @requires expectedNodes >= 0
+	 * @effects Constructs a new empty graph.
+	 */
+	public WeightedGraph(int expectedNodes) {
+		nodes = new HashMap<N, WeightedNode>(Math.max(expectedNodes * 4 / 3 + 1, 1));
+		checkRep();
+	}
+
+	/**
+	 * Adds node to the graph
+	 *
+	 * @param node
+	 *            The node that is being added
+	 * @requires node != null
+	 * @modifies this
+	 * @effects adds a node to the graph
+	 * @return true if node was added to graph, false otherwise i.e. node already
+	 *         exists
+	 */
+	public boolean addNode(N node) {
+		if (containsNode(node)) {
+			return false;
+		}
+		nodes.put(node, new WeightedNode(node));
+		checkRep();
+		return true;
+	}
+
+	/**
+	 * Removes node from the graph
+	 *
+	 * @param node
+	 *            The node that is being removed
+	 * @requires node != null
+	 * @modifies this
+	 * @effects removes node from the graph
+	 * @return true if removed, false otherwise i.e. node not in graph
+	 */
+	public boolean removeNode(N node) {
+		if (!containsNode(node)) {
+			return false;
+		}
+		nodes.remove(node);
+		return true;
+	}
+
+	/**
+	 * Adds a weighted edge to the graph
+	 *
+	 * @param parent
+	 *            The node from which the edge originates
+	 * @param child
+	 *            The node at which the edge terminates
+	 * @param weight
+	 *            The weight of the edge that is being added to the graph
+	 * @requires parent, child != null && graph.contains(parent) &&
+	 *           graph.contains(child)
+	 * @modifies this
+	 * @effects adds an edge between parent and child. Duplicates are allowed
+	 */
+	public void addEdge(N parent, N child, double weight) {
+		nodes.get(parent).addEdge(child, weight);
+		checkRep();
+	}
+
+	/**
+	 * Removes an edge from the graph
+	 *
+	 * @param parent
+	 *            The node from which the edge originated
+	 * @param child
+	 *            The node at which the edge terminated
+	 * @param weight
+	 *            The weight of the edge being removed
+	 * @requires parent, child != null && graph.contains(parent)
+	 * @modifies this
+	 * @effects removes one edge with the given weight between parent and child
+	 * @return true if removed, false otherwise i.e. no such edge exists
+	 */
+	public boolean removeEdge(N parent, N child, double weight) {
+		return nodes.get(parent).removeEdge(child, weight);
+	}
+
+	/**
+	 * Checks if node is stored in the graph
+	 *
+	 * @param node
+	 *            The node that is being looked up
+	 * @requires node != null
+	 * @return true if the graph contains this node, false otherwise
+	 */
+	public boolean containsNode(N node) {
+		return nodes.containsKey(node);
+	}
+
+	/**
+	 * Checks if edge is stored in the graph
+	 *
+	 * @param parent
+	 *            The node from which the edge originates
+	 * @param child
+	 *            The node at which the edge terminates
+	 * @param weight
+	 *            The weight of the edge
+	 * @requires parent, child != null && graph.contains(parent)
+	 * @return true if the graph contains this edge, false otherwise
+	 */
+	public boolean containsEdge(N parent, N child, double weight) {
+		return nodes.get(parent).indexOf(child, weight) >= 0;
+	}
+
+	/**
+	 * @return a sorted list containing the string representation of all the nodes
+	 *         stored in the graph
+	 */
+	public List<String> listNodes() {
+		List<String> lst = new ArrayList<String>();
+		for (N node : nodes.keySet()) {
+			lst.add(node.toString());
+		}
+		Collections.sort(lst);
+		return lst;
+	}
+
+	/**
+	 * Returns a list containing all the child nodes of the given node
+	 *
+	 * @param node
+	 *            The node that is being looked up
+	 * @requires node != null
+	 * @return a sorted list containing all the child nodes of the given node.<br>
+	 *         Note: If node is not in graph, returns an empty list.
+	 */
+	public List<N> getChildren(N node) {
+		if (!containsNode(node))
+			return new ArrayList<N>();
+		return nodes.get(node).getChildren();
+	}
+
+	/**
+	 * Returns the weights of all the edges between parent and child
+	 *
+	 * @param parent
+	 *            The node from which the edges originate
+	 * @param child
+	 *            The node at which the edges terminate
+	 * @requires parent, child != null
+	 * @return a sorted array containing the weight of every edge between parent
+	 *         and child. Returns an empty array if either parent or child are not
+	 *         in the graph
+	 */
+	public double[] getWeights(N parent, N child) {
+		if (!containsNode(parent) || !containsNode(child))
+			return new double[0];
+		return nodes.get(parent).getWeights(child);
+	}
+
+	/**
+	 * Returns the weight of the lightest edge between parent and child
+	 *
+	 * @param parent
+	 *            The node from which the edges originate
+	 * @param child
+	 *            The node at which the edges terminate
+	 * @requires parent, child != null
+	 * @return the least weight of an edge between parent and child, or
+	 *         Double.POSITIVE_INFINITY if there is no such edge
+	 */
+	public double minWeight(N parent, N child) {
+		if (!containsNode(parent))
+			return Double.POSITIVE_INFINITY;
+		return nodes.get(parent).minWeight(child);
+	}
+
+	/**
+	 * @param node
+	 *            The node that is being looked up
+	 * @requires node != null
+	 * @return the number of edges leaving node, or 0 if node is not in the graph
+	 */
+	public int degree(N node) {
+		if (!containsNode(node))
+			return 0;
+		return nodes.get(node).size;
+	}
+
+	/**
+	 * @return the number of nodes in the graph
+	 */
+	public int size() {
+		return nodes.size();
+	}
+
+	/**
+	 * @return true if there are no entries in this graph, false otherwise
+	 */
+	public boolean isEmpty() {
+		return nodes.size() == 0;
+	}
+
+	/**
+	 * Compiles the current contents of this graph into an immutable
+	 * compressed-sparse-row snapshot whose labels are kept only as primitive
+	 * weights. Later changes to this graph are not reflected in the snapshot.
+	 *
+	 * @return a FrozenGraph containing every node and edge currently in this graph
+	 */
+	@SuppressWarnings("unchecked")
+	public FrozenGraph<N, Double> freeze() {
+		// assigns ids in ascending order so that sorted child lists stay sorted
+		List<N> sorted = new ArrayList<N>(nodes.keySet());
+		Collections.sort(sorted);
+		Map<N, Integer> ids = new HashMap<N, Integer>(sorted.size() * 2);
+		for (int i = 0; i < sorted.size(); i++) {
+			ids.put(sorted.get(i), i);
+		}
+
+		// counts the edges leaving each node to find where each row begins, leaving
+		// out edges to children that have since been removed from the graph
+		int[] offsets = new int[sorted.size() + 1];
+		for (int i = 0; i < sorted.size(); i++) {
+			WeightedNode wn = nodes.get(sorted.get(i));
+			int degree = 0;
+			for (int j = 0; j < wn.size; j++) {
+				if (ids.containsKey(wn.children[j]))
+					degree++;
+			}
+			offsets[i + 1] = offsets[i] + degree;
+		}
+
+		// fills each row in order of child id and then weight
+		N[] nodeArray = sorted.toArray((N[]) new Comparable<?>[sorted.size()]);
+		int[] targets = new int[offsets[sorted.size()]];
+		double[] weights = new double[targets.length];
+		for (int i = 0; i < nodeArray.length; i++) {
+			WeightedNode wn = nodes.get(nodeArray[i]);
+			// packs the id of each child above the slot of its edge, so sorting the
+			// primitive keys orders the row by child without boxing or lookups
+			long[] keys = new long[offsets[i + 1] - offsets[i]];
+			int count = 0;
+			for (int j = 0; j < wn.size; j++) {
+				Integer id = ids.get(wn.children[j]);
+				if (id != null)
+					keys[count++] = ((long) id << 32) | j;
+			}
+			Arrays.sort(keys);
+			for (int j = 0; j < keys.length; j++) {
+				targets[offsets[i] + j] = (int) (keys[j] >>> 32);
+				weights[offsets[i] + j] = wn.weights[(int) keys[j]];
+			}
+
+			// orders the edges to each child by weight
+			int from = offsets[i];
+			while (from < offsets[i + 1]) {
+				int to = from + 1;
+				while (to < offsets[i + 1] && targets[to] == targets[from]) {
+					to++;
+				}
+				Arrays.sort(weights, from, to);
+				from = to;
+			}
+		}
+		return FrozenGraph.weighted(nodeArray, offsets, targets, weights);
+	}
+
+	/**
+	 * Checks that the representation invariant holds
+	 */
+	private void checkRep() {
+		assert (nodes != null);
+		if (TESTING_MODE) {
+			for (N key : nodes.keySet()) {
+				assert (nodes.get(key) != null) : "null node";
+			}
+		}
+	}
+
+	/**
+	 * <b>WeightedNode</b> represents a mutable graph node which stores its outgoing
+	 * edges as parallel arrays of children and primitive weights.
+	 * <p>
+	 */
+	private class WeightedNode {
+		/** Stores the nodes unique value */
+		N val;
+
+		/** Stores the child at which each edge terminates */
+		N[] children;
+
+		/** Stores the weight of each edge */
+		double[] weights;
+
+		/** Stores how many entries of children and weights are in use */
+		int size;
+
+		// Abstraction Function:
+		// WeightedNode, wn, represents a single node in a graph with its value
+		// stored in val and an edge to children[i] weighted weights[i] for
+		// every i in [0, size).
+		//
+		// Representation Invariant:
+		// * val, children and weights cannot be null
+		// * children.length == weights.length && 0 <= size <= children.length
+		// * children[0..size) cannot contain null
+
+		/**
+		 * Constructs a new node with the value of val and no edges
+		 *
+		 * @param val
+		 *            The value stored in the node
+		 * @requires val != null
+		 */
+		@SuppressWarnings("unchecked")
+		WeightedNode(N val) {
+			this.val = val;
+			children = (N[]) new Comparable<?>[INITIAL_DEGREE];
+			weights = new double[INITIAL_DEGREE];
+			size = 0;
+			checkRep();
+		}
+
+		/**
+		 * Adds an edge between this and child
+		 *
+		 * @param child
+		 *            The node at which the edge will terminate
+		 * @param weight
+		 *            The weight of the edge
+		 * @requires child != null
+		 * @modifies this
+		 * @effects adds a new edge between this and child. Duplicates are allowed
+		 */
+		void addEdge(N child, double weight) {
+			if (size == children.length) {
+				children = Arrays.copyOf(children, size * 2);
+				weights = Arrays.copyOf(weights, size * 2);
+			}
+			children[size] = child;
+			weights[size] = weight;
+			size++;
+			checkRep();
+		}
+
+		/**
+		 * Removes one edge with the given weight between this and child
+		 *
+		 * @param child
+		 *            The node at which the edge terminated
+		 * @param weight
+		 *            The weight of the edge
+		 * @requires child != null
+		 * @modifies this
+		 * @effects removes an edge between this and child
+		 * @return true if edge was removed, false otherwise i.e. no such edge exists
+		 */
+		boolean removeEdge(N child, double weight) {
+			int i = indexOf(child, weight);
+			if (i < 0)
+				return false;
+
+			// moves the last edge into the gap since edge order does not matter
+			size--;
+			children[i] = children[size];
+			weights[i] = weights[size];
+			children[size] = null;
+			checkRep();
+			return true;
+		}
+
+		/**
+		 * @param child
+		 *            The node at which the edge terminates
+		 * @param weight
+		 *            The weight of the edge
+		 * @return the index of an edge to child with the given weight, or -1 if there
+		 *         is no such edge
+		 */
+		int indexOf(N child, double weight) {
+			for (int i = 0; i < size; i++) {
+				if (children[i].equals(child) && Double.compare(weights[i], weight) == 0)
+					return i;
+			}
+			return -1;
+		}
+
+		/**
+		 * @return a sorted list of all the children of this
+		 */
+		List<N> getChildren() {
+			List<N> lst = new ArrayList<N>();
+			Set<N> seen = new HashSet<N>();
+			for (int i = 0; i < size; i++) {
+				if (seen.add(children[i]))
+					lst.add(children[i]);
+			}
+			Collections.sort(lst);
+			return lst;
+		}
+
+		/**
+		 * @param child
+		 *            The node at which each edge terminates
+		 * @requires child != null
+		 * @return a sorted array of the weights of the edges between this and child
+		 */
+		double[] getWeights(N child) {
+			double[] found = new double[size];
+			int count = 0;
+			for (int i = 0; i < size; i++) {
+				if (children[i].equals(child))
+					found[count++] = weights[i];
+			}
+			found = Arrays.copyOf(found, count);
+			Arrays.sort(found);
+			return found;
+		}
+
+		/**
+		 * @param child
+		 *            The node at which each edge terminates
+		 * @requires child != null
+		 * @return the least weight of an edge between this and child, or
+		 *         Double.POSITIVE_INFINITY if there is no such edge
+		 */
+		double minWeight(N child) {
+			double min = Double.POSITIVE_INFINITY;
+			for (int i = 0; i < size; i++) {
+				if (weights[i] < min && children[i].equals(child))
+					min = weights[i];
+			}
+			return min;
+		}
+
+		/**
+		 * Checks that the representation invariant holds
+		 */
+		private void checkRep() {
+			assert (val != null) : "val cannot be null";
+			assert (children != null && weights != null) : "edge arrays cannot be null";
+			assert (children.length == weights.length) : "every edge must have a weight";
+
+			if (TESTING_MODE) {
+				for (int i = 0; i < size; i++) {
+					assert (children[i] != null) : "child node cannot be null";
+				}
+			}
+		}
+	}
+}